@@ -109,9 +109,9 @@ public class Simulation {
     }
 
     private VehiculeComponent pickRandomVehicle(Station<VehiculeComponent> source) {
-        List<VehiculeComponent> parked = source.getParkedVehicules();
-        if (parked.isEmpty()) return null;
-        return parked.get(rnd.nextInt(parked.size()));
+        int parked = source.getOccupiedSpaces();
+        if (parked == 0) return null;
+        return source.getParkedVehicule(rnd.nextInt(parked));
     }
 
     private Station<VehiculeComponent> pickDestinationWithSpace() {
@@ -0,0 +1,293 @@
+package fil.l3.coo.control;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+
+/**
+ * Redistribution whose plans are computed in the background, so that an
+ * expensive {@link RedistributionPlanner} does not stall the simulation
+ * tick.
+ * <p>
+ * When a redistribution is triggered, the occupancy of the stations is
+ * copied into an {@link OccupancySnapshot} and handed to a worker thread,
+ * unless a plan is already being computed. The worker publishes the
+ * finished plan with a single atomic swap; at the next tick, the simulation
+ * thread takes it and applies it in one go, with no other change to the
+ * stations in between. Since the stations kept changing while the plan was
+ * computed, every move is validated first: stations that are no longer
+ * supervised, origins without an available vehicle, full destinations, and
+ * moves that would leave the origin less full than the destination
+ * (relative to their capacities) are rejected. A vehicle refused by a
+ * destination that filled up during the move is parked back in its origin
+ * and the move counts as rejected. Plans older than
+ * {@link #setMaxStaleness(int) a given number of ticks} are dropped
+ * entirely.
+ * <p>
+ * The planner is only called from the worker thread, one plan at a time;
+ * the other methods must be called from the simulation thread. The worker
+ * is a daemon thread, stopped by {@link #shutdown()}.
+ */
+public class AsyncRedistribution implements RedistributionStrategy {
+
+    private static final Predicate<VehiculeComponent> MOVABLE =
+            v -> v.isAvailable() && v.getStateId() == VehiculeStateId.DISPONIBLE;
+
+    private final RedistributionPlanner planner;
+    private final ExecutorService worker;
+    private final AtomicReference<RedistributionPlan> ready = new AtomicReference<>();
+    private final AtomicBoolean planning = new AtomicBoolean();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    private long tick;
+    private int maxStaleness = Integer.MAX_VALUE;
+
+    private long plansApplied;
+    private long plansDropped;
+    private long movesApplied;
+    private long movesRejected;
+    private long lastStaleness = -1;
+    private long totalStaleness;
+    private long maxObservedStaleness;
+
+    /**
+     * Creates a strategy planning with a dedicated worker thread.
+     *
+     * @param planner the planner run in the background
+     */
+    public AsyncRedistribution(RedistributionPlanner planner) {
+        if (planner == null) {
+            throw new IllegalArgumentException("Le planificateur ne peut pas être null");
+        }
+        this.planner = planner;
+        this.worker = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "redistribution-planner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the age beyond which a plan is dropped instead of applied.
+     *
+     * @param ticks the maximum number of ticks between the snapshot and the
+     *              application of a plan
+     */
+    public void setMaxStaleness(int ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("L'ancienneté maximale doit être positive");
+        }
+        this.maxStaleness = ticks;
+    }
+
+    /**
+     * Tells whether a plan is being computed or waiting to be applied.
+     *
+     * @return {@code true} while a plan is pending
+     */
+    public boolean isPlanning() {
+        return planning.get();
+    }
+
+    /**
+     * Returns the number of plans applied so far.
+     *
+     * @return the applied plans
+     */
+    public long getPlansApplied() {
+        return plansApplied;
+    }
+
+    /**
+     * Returns the number of plans dropped because they were too old.
+     *
+     * @return the dropped plans
+     */
+    public long getPlansDropped() {
+        return plansDropped;
+    }
+
+    /**
+     * Returns the number of vehicles moved by the applied plans.
+     *
+     * @return the applied moves
+     */
+    public long getMovesApplied() {
+        return movesApplied;
+    }
+
+    /**
+     * Returns the number of planned vehicle moves rejected during validation,
+     * including those of dropped plans.
+     *
+     * @return the rejected moves
+     */
+    public long getMovesRejected() {
+        return movesRejected;
+    }
+
+    /**
+     * Returns the age of the last plan taken, in ticks between its snapshot
+     * and its application.
+     *
+     * @return the staleness of the last plan, or -1 if no plan was taken yet
+     */
+    public long getLastStaleness() {
+        return lastStaleness;
+    }
+
+    /**
+     * Returns the highest age of the plans taken so far.
+     *
+     * @return the maximum staleness, in ticks
+     */
+    public long getMaxObservedStaleness() {
+        return maxObservedStaleness;
+    }
+
+    /**
+     * Returns the average age of the plans taken so far.
+     *
+     * @return the average staleness, in ticks
+     */
+    public double getAverageStaleness() {
+        long taken = plansApplied + plansDropped;
+        return taken == 0 ? 0 : (double) totalStaleness / taken;
+    }
+
+    /**
+     * Starts computing a plan from the current occupancy, unless a plan is
+     * already pending. No vehicle is moved before the next tick.
+     */
+    @Override
+    public void redistribute(List<Station<VehiculeComponent>> stations) {
+        rethrowFailure();
+        if (stations == null || stations.size() < 2 || !planning.compareAndSet(false, true)) return;
+
+        OccupancySnapshot snapshot = OccupancySnapshot.of(stations, tick);
+        worker.execute(() -> {
+            try {
+                ready.set(planner.plan(snapshot));
+            } catch (RuntimeException e) {
+                failure.set(e);
+                planning.set(false);
+            }
+        });
+    }
+
+    /**
+     * Applies the plan published by the worker, if any.
+     */
+    @Override
+    public void onTick(List<Station<VehiculeComponent>> stations) {
+        tick++;
+        rethrowFailure();
+        RedistributionPlan plan = ready.getAndSet(null);
+        if (plan == null) return;
+
+        try {
+            long staleness = tick - plan.getSnapshotTick();
+            lastStaleness = staleness;
+            totalStaleness += staleness;
+            maxObservedStaleness = Math.max(maxObservedStaleness, staleness);
+            if (staleness > maxStaleness) {
+                plansDropped++;
+                movesRejected += plan.getTotalMoves();
+                return;
+            }
+            apply(plan, stations);
+            plansApplied++;
+        } finally {
+            planning.set(false);
+        }
+    }
+
+    /**
+     * Stops the worker thread. A plan being computed is abandoned.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void rethrowFailure() {
+        RuntimeException e = failure.getAndSet(null);
+        if (e != null) {
+            throw new IllegalStateException("Échec du calcul du plan de redistribution", e);
+        }
+    }
+
+    private void apply(RedistributionPlan plan, List<Station<VehiculeComponent>> stations) {
+        Set<Station<VehiculeComponent>> supervised = Collections.newSetFromMap(new IdentityHashMap<>());
+        supervised.addAll(stations);
+
+        for (int m = 0; m < plan.size(); m++) {
+            Station<VehiculeComponent> from = plan.getFrom(m);
+            Station<VehiculeComponent> to = plan.getTo(m);
+            int count = plan.getCount(m);
+            int done = 0;
+            if (supervised.contains(from) && supervised.contains(to)) {
+                while (done < count && isStillUseful(from, to) && move(from, to)) {
+                    done++;
+                }
+            }
+            movesApplied += done;
+            movesRejected += count - done;
+        }
+    }
+
+    /**
+     * A move is kept only if the origin would remain at least as full as the
+     * destination, relative to their capacities.
+     */
+    private static boolean isStillUseful(Station<VehiculeComponent> from, Station<VehiculeComponent> to) {
+        if (!to.hasAvailableSpace()) return false;
+        long fromAfter = (long) (from.getOccupiedSpaces() - 1) * to.getCapacity();
+        long toAfter = (long) (to.getOccupiedSpaces() + 1) * from.getCapacity();
+        return fromAfter >= toAfter;
+    }
+
+    private static boolean move(Station<VehiculeComponent> from, Station<VehiculeComponent> to) {
+        VehiculeComponent v = from.findParkedVehicule(MOVABLE);
+        if (v == null) {
+            return false;
+        }
+        try {
+            from.removeVehicule(v);
+        } catch (NullVehiculeException | VehiculeNotFoundException e) {
+            return false;
+        }
+        try {
+            to.parkVehicule(v);
+            return true;
+        } catch (NullVehiculeException | StationFullException e) {
+            putBack(from, v);
+            return false;
+        }
+    }
+
+    /**
+     * Parks back in its origin a vehicle refused by the destination, so
+     * that a rejected move never takes a vehicle out of the fleet.
+     */
+    private static void putBack(Station<VehiculeComponent> from, VehiculeComponent v) {
+        try {
+            from.parkVehicule(v);
+        } catch (NullVehiculeException | StationFullException e) {
+            // la place venant d'être libérée, seul un dépôt concurrent peut la prendre
+            throw new IllegalStateException("Véhicule " + v.getId() + " impossible à remettre en station", e);
+        }
+    }
+}
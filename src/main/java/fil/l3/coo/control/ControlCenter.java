@@ -1,14 +1,27 @@
 package fil.l3.coo.control;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Predicate;
 
 import fil.l3.coo.station.Station;
 import fil.l3.coo.station.StationObserver;
+import fil.l3.coo.station.StationSpatialIndex;
+import fil.l3.coo.station.VehiculeRegistry;
+import fil.l3.coo.vehicule.Vehicule;
 import fil.l3.coo.vehicule.VehiculeComponent;
-import fil.l3.coo.vehicule.state.EnMaintenanceState;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
 
 /**
  * Central supervision component for the simulation.
@@ -16,25 +29,131 @@ import fil.l3.coo.vehicule.state.EnMaintenanceState;
  * The control center observes all registered stations, records events,
  * schedules maintenance, detects theft situations and triggers vehicle
  * redistribution when stations stay empty or full for too long.
+ * <p>
+ * Station callbacks may arrive from any thread: from the threads using a
+ * {@link fil.l3.coo.station.ConcurrentStation}, from the consumer of an
+ * asynchronous dispatcher, or from pool threads in parallel tick mode. They
+ * only touch atomic counters, concurrent maps, the synchronized event logs
+ * and the queue of active stations, guarded by its own lock, which is never
+ * held while calling out. The maintenance deadline of a vehicle removed
+ * from its station is cancelled at the next tick. The other methods must
+ * be called from the simulation thread.
  */
 public class ControlCenter implements StationObserver {
 
+    /** Default number of events kept per station. */
+    public static final int DEFAULT_EVENT_LOG_CAPACITY = 256;
+
+    /** Number of stations below which a parallel tick task is not split further. */
+    private static final int PARALLEL_TICK_GRAIN = 256;
+
+    private static final int INITIAL_STATION_SLOTS = 16;
+
     private final List<Station<VehiculeComponent>> stations;
-    private final Map<Integer, List<String>> stationEvents;
+    private final StationSpatialIndex<VehiculeComponent> spatialIndex;
+    private final Map<Integer, StationEventLog> stationEvents;
+    private final int eventLogCapacity;
     private final List<VehicleService> services;
-    private final Map<Integer, Integer> emptyStreaks; 
-    private final Map<Integer, Integer> fullStreaks; 
     private RedistributionStrategy redistributionStrategy;
+    private VehiculeRegistry<?> registry;
+    private final TimingWheel<Deadline> deadlines;
+    private final Map<VehiculeComponent, TimingWheel.Timer<Deadline>> maintenanceTimers;
+    // Échéances des véhicules partis, annulées par le thread de simulation
+    private final Queue<TimingWheel.Timer<Deadline>> departedTimers;
+    private volatile long currentTick;
+
+    // Agrégats de flotte tenus à jour par les callbacks ; ceux-ci peuvent
+    // arriver de threads de pool ou de dispatcher, d'où les compteurs atomiques
+    private final AtomicInteger totalVehicles;
+    private int totalCapacity;
+    private final Map<String, AtomicInteger> vehiclesByType;
+    private final AtomicIntegerArray vehiclesByState;
+    // État dans lequel chaque véhicule garé a été compté, retiré du même
+    // compteur quand il part même si son état a changé entre-temps
+    private final Map<VehiculeComponent, VehiculeStateId> countedStates;
+    private boolean aggregateChecks;
 
+    // Compteurs par station, rangés à l'indice dense attribué par stationIndex
+    private final StationIndex stationIndex;
+    private Station<VehiculeComponent>[] indexedStations;
+    private int[] emptyStreaks;
+    private int[] fullStreaks;
+    private int[] streakEpochs;
+    private int streakEpoch;
+    private TimingWheel.Timer<Deadline>[] theftTimers;
+    // Protège l'index des stations et la file des stations actives, écrits
+    // par les rappels de n'importe quel thread
+    private final Object activeLock = new Object();
+    private boolean[] active;
+    private int[] activeQueue;
+    private int activeCount;
+    private int[] visiting;
+    private ForkJoinPool tickPool;
+
+    /**
+     * Creates a control center keeping {@link #DEFAULT_EVENT_LOG_CAPACITY}
+     * events per station.
+     */
     public ControlCenter() {
+        this(DEFAULT_EVENT_LOG_CAPACITY);
+    }
+
+    /**
+     * Creates a control center.
+     * 
+     * @param eventLogCapacity the maximum number of events kept per station;
+     *                         older events are overwritten
+     */
+    public ControlCenter(int eventLogCapacity) {
+        if (eventLogCapacity < 1) {
+            throw new IllegalArgumentException("La capacité du journal doit être positive");
+        }
+        this.eventLogCapacity = eventLogCapacity;
         this.stations = new ArrayList<>();
-        this.stationEvents = new HashMap<>();
+        this.spatialIndex = new StationSpatialIndex<>();
+        this.stationEvents = new ConcurrentHashMap<>();
         this.services = new ArrayList<>();
-        this.emptyStreaks = new HashMap<>();
-        this.fullStreaks = new HashMap<>();
         this.redistributionStrategy = new RoundRobinRedistribution();
+        this.deadlines = new TimingWheel<>(0);
+        this.maintenanceTimers = new ConcurrentHashMap<>();
+        this.departedTimers = new ConcurrentLinkedQueue<>();
+        this.totalVehicles = new AtomicInteger();
+        this.vehiclesByType = new ConcurrentHashMap<>();
+        this.vehiclesByState = new AtomicIntegerArray(VehiculeStateId.count());
+        this.countedStates = new ConcurrentHashMap<>();
+        this.stationIndex = new StationIndex();
+        allocateStationSlots(INITIAL_STATION_SLOTS);
         this.services.add(new Repairer());
     }
+
+    /**
+     * Allocates or grows the per-station arrays. Called with
+     * {@code activeLock} held.
+     *
+     * @param length the new length of the arrays
+     */
+    @SuppressWarnings("unchecked")
+    private void allocateStationSlots(int length) {
+        if (indexedStations == null) {
+            indexedStations = (Station<VehiculeComponent>[]) new Station<?>[length];
+            theftTimers = (TimingWheel.Timer<Deadline>[]) new TimingWheel.Timer<?>[length];
+            emptyStreaks = new int[length];
+            fullStreaks = new int[length];
+            streakEpochs = new int[length];
+            active = new boolean[length];
+            activeQueue = new int[length];
+            visiting = new int[length];
+        } else {
+            indexedStations = Arrays.copyOf(indexedStations, length);
+            theftTimers = Arrays.copyOf(theftTimers, length);
+            emptyStreaks = Arrays.copyOf(emptyStreaks, length);
+            fullStreaks = Arrays.copyOf(fullStreaks, length);
+            streakEpochs = Arrays.copyOf(streakEpochs, length);
+            active = Arrays.copyOf(active, length);
+            activeQueue = Arrays.copyOf(activeQueue, length);
+            visiting = Arrays.copyOf(visiting, length);
+        }
+    }
     
     /**
         * Registers a new vehicle service (repair, painting, etc.).
@@ -73,17 +192,36 @@ public class ControlCenter implements StationObserver {
         * Registers a station to be supervised.
         * <p>
         * The control center subscribes to station events and starts tracking its
-        * metrics (capacity, events, empty/full streaks).
+        * metrics (capacity, events, empty/full streaks). The station is examined
+        * at the next tick.
      * 
      * @param station the station to register
      */
     public void registerStation(Station<VehiculeComponent> station) {
-        if (station != null && !stations.contains(station)) {
+        if (station != null && stationIndex.get(station.getId()) < 0) {
+            int index;
+            synchronized (activeLock) {
+                index = stationIndex.add(station.getId());
+                if (index >= indexedStations.length) {
+                    allocateStationSlots(indexedStations.length * 2);
+                }
+                indexedStations[index] = station;
+                setStreaks(index, 0, 0);
+                markActive(index);
+            }
             stations.add(station);
+            spatialIndex.add(station);
+            totalCapacity += station.getCapacity();
+            station.forEachParkedVehicule(v -> countVehicule(v, 1));
             station.addObserver(this);
-            stationEvents.putIfAbsent(station.getId(), new ArrayList<>());
-            emptyStreaks.put(station.getId(), 0);
-            fullStreaks.put(station.getId(), 0);
+            if (redistributionStrategy instanceof StationObserver) {
+                station.addObserver((StationObserver) redistributionStrategy);
+            }
+            if (registry != null) {
+                station.setRegistry(registry);
+                station.forEachParkedVehicule(v -> registry.parked(v, station));
+            }
+            stationEvents.putIfAbsent(station.getId(), new StationEventLog(station.getId(), eventLogCapacity));
         }
     }
 
@@ -96,11 +234,36 @@ public class ControlCenter implements StationObserver {
      * @param station the station to unregister
      */
     public void unregisterStation(Station<VehiculeComponent> station) {
-        if (station != null && stations.remove(station)) {
+        int index = station == null ? -1 : stationIndex.get(station.getId());
+        if (index >= 0 && indexedStations[index] == station) {
+            synchronized (activeLock) {
+                stationIndex.remove(station.getId());
+                indexedStations[index] = null;
+                if (active[index]) {
+                    active[index] = false;
+                    int position = 0;
+                    while (activeQueue[position] != index) {
+                        position++;
+                    }
+                    System.arraycopy(activeQueue, position + 1, activeQueue, position, activeCount - position - 1);
+                    activeCount--;
+                }
+            }
+            stations.remove(station);
+            spatialIndex.remove(station);
+            deadlines.cancel(theftTimers[index]);
+            theftTimers[index] = null;
+            station.forEachParkedVehicule(v -> deadlines.cancel(maintenanceTimers.remove(v)));
             station.removeObserver(this);
+            if (redistributionStrategy instanceof StationObserver) {
+                station.removeObserver((StationObserver) redistributionStrategy);
+            }
+            if (registry != null && station.getRegistry() == registry) {
+                station.setRegistry(null);
+            }
+            totalCapacity -= station.getCapacity();
+            station.forEachParkedVehicule(v -> countVehicule(v, -1));
             stationEvents.remove(station.getId());
-            emptyStreaks.remove(station.getId());
-            fullStreaks.remove(station.getId());
         }
     }
 
@@ -114,118 +277,662 @@ public class ControlCenter implements StationObserver {
     }
 
     /**
-     * Computes the total number of vehicles currently parked in all stations.
+     * Finds the registered stations closest to a point among those accepted
+     * by a filter, for example {@link StationSpatialIndex#withFreeDock()} or
+     * {@link StationSpatialIndex#withAvailableVehicule(String)}.
+     *
+     * @param x      the x coordinate of the point, in meters
+     * @param y      the y coordinate of the point, in meters
+     * @param k      the maximum number of stations to return
+     * @param filter the condition the stations must meet
+     * @return the matching stations, closest first
+     */
+    public List<Station<VehiculeComponent>> findNearestStations(double x, double y, int k,
+            Predicate<? super Station<VehiculeComponent>> filter) {
+        return spatialIndex.nearest(x, y, k, filter);
+    }
+
+    /**
+     * Finds the registered station closest to a point among those accepted
+     * by a filter.
+     *
+     * @param x      the x coordinate of the point, in meters
+     * @param y      the y coordinate of the point, in meters
+     * @param filter the condition the station must meet
+     * @return the closest matching station, or {@code null} if none matches
+     */
+    public Station<VehiculeComponent> findNearestStation(double x, double y,
+            Predicate<? super Station<VehiculeComponent>> filter) {
+        return spatialIndex.nearest(x, y, filter);
+    }
+
+    /**
+     * Attaches a fleet registry to the supervised stations, present and
+     * future, and records the vehicles already parked. The previous registry
+     * is detached.
+     *
+     * @param registry the registry, or {@code null} to detach it
+     */
+    public void setVehiculeRegistry(VehiculeRegistry<?> registry) {
+        VehiculeRegistry<?> previous = this.registry;
+        this.registry = registry;
+        for (Station<VehiculeComponent> s : stations) {
+            if (registry != null) {
+                s.setRegistry(registry);
+                s.forEachParkedVehicule(v -> registry.parked(v, s));
+            } else if (s.getRegistry() == previous) {
+                s.setRegistry(null);
+            }
+        }
+    }
+
+    /**
+     * Returns the fleet registry attached to the supervised stations.
+     *
+     * @return the registry, or {@code null} if none is attached
+     */
+    public VehiculeRegistry<?> getVehiculeRegistry() {
+        return registry;
+    }
+
+    /**
+     * Finds the supervised station where a vehicle is parked. With a
+     * {@link #setVehiculeRegistry(VehiculeRegistry) registry}, the lookup
+     * takes constant time; otherwise the stations are scanned.
+     *
+     * @param vehiculeId the vehicle identifier
+     * @return the station, or {@code null} if the vehicle is not parked in a
+     *         supervised station
+     */
+    @SuppressWarnings("unchecked")
+    public Station<VehiculeComponent> findVehiculeStation(int vehiculeId) {
+        if (registry != null) {
+            Station<?> station = registry.getStation(vehiculeId);
+            return station != null && stationIndex.get(station.getId()) >= 0
+                    ? (Station<VehiculeComponent>) station : null;
+        }
+        for (Station<VehiculeComponent> s : stations) {
+            if (s.countParkedVehicules(v -> v.getId() == vehiculeId) > 0) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the total number of vehicles currently parked in all stations.
+     * <p>
+     * The total is maintained from the station events, so this call does not
+     * walk the stations.
      * 
      * @return the total number of parked vehicles
      */
     public int getTotalVehicles() {
-        return stations.stream()
-                .mapToInt(Station::getOccupiedSpaces)
-                .sum();
+        return totalVehicles.get();
     }
 
     /**
-     * Computes the total capacity across all stations.
+     * Returns the total capacity across all stations.
      * 
      * @return the total capacity of all stations
      */
     public int getTotalCapacity() {
-        return stations.stream()
-                .mapToInt(Station::getCapacity)
-                .sum();
+        return totalCapacity;
+    }
+
+    /**
+     * Returns the number of parked vehicles of a given type.
+     *
+     * @param type the vehicle type, as returned by {@link VehiculeComponent#getType()}
+     * @return the number of parked vehicles of this type
+     */
+    public int getVehicleCountByType(String type) {
+        AtomicInteger count = vehiclesByType.get(type);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Returns the number of parked vehicles in a given state.
+     * <p>
+     * The state of a vehicle is counted when it is parked and updated for the
+     * transitions made by the control center (maintenance, repair). When the
+     * vehicle leaves, the state it is counted in is released, whatever its
+     * current state: a rental that takes the vehicle and then moves it to
+     * {@link VehiculeStateId#EN_LOCATION} does not skew the counts, even when
+     * the removal is delivered after the transition. A parked vehicle whose
+     * state is changed from outside is counted in its old state until it
+     * leaves the station.
+     *
+     * @param stateName the state name, as returned by {@link VehiculeComponent#getStateName()}
+     * @return the number of parked vehicles in this state
+     */
+    public int getVehicleCountByState(String stateName) {
+        VehiculeStateId state = VehiculeStateId.fromName(stateName);
+        return state == null ? 0 : getVehicleCountByState(state);
+    }
+
+    /**
+     * Returns the number of parked vehicles in a given state.
+     *
+     * @param state the state identifier
+     * @return the number of parked vehicles in this state
+     * @see #getVehicleCountByState(String)
+     */
+    public int getVehicleCountByState(VehiculeStateId state) {
+        return vehiclesByState.get(state.ordinal());
+    }
+
+    /**
+     * Enables or disables the aggregate cross-check. When enabled, every tick
+     * ends with {@link #checkAggregates()}. Meant for debugging: the check
+     * walks every parked vehicle.
+     *
+     * @param enabled {@code true} to check the aggregates at each tick
+     */
+    public void setAggregateChecks(boolean enabled) {
+        this.aggregateChecks = enabled;
+    }
+
+    /**
+     * Recounts the vehicles and the capacity of all stations and compares
+     * them with the incrementally maintained aggregates.
+     *
+     * @throws IllegalStateException if an aggregate differs from the recount
+     */
+    public void checkAggregates() {
+        int vehicles = 0;
+        int capacity = 0;
+        Map<String, Integer> byType = new HashMap<>();
+        int[] byState = new int[VehiculeStateId.count()];
+        for (Station<VehiculeComponent> s : stations) {
+            vehicles += s.getOccupiedSpaces();
+            capacity += s.getCapacity();
+            s.forEachParkedVehicule(v -> {
+                byType.merge(v.getType(), 1, Integer::sum);
+                byState[v.getStateId().ordinal()]++;
+            });
+        }
+        checkAggregate("véhicules", vehicles, totalVehicles.get());
+        checkAggregate("capacité", capacity, totalCapacity);
+        checkCounts("type", byType, vehiclesByType);
+        for (int i = 0; i < byState.length; i++) {
+            checkAggregate("état " + VehiculeStateId.fromOrdinal(i), byState[i], vehiclesByState.get(i));
+        }
+    }
+
+    private static void checkCounts(String label, Map<String, Integer> expected, Map<String, AtomicInteger> counts) {
+        for (Map.Entry<String, AtomicInteger> e : counts.entrySet()) {
+            checkAggregate(label + " " + e.getKey(), expected.getOrDefault(e.getKey(), 0), e.getValue().get());
+        }
+        for (Map.Entry<String, Integer> e : expected.entrySet()) {
+            AtomicInteger count = counts.get(e.getKey());
+            checkAggregate(label + " " + e.getKey(), e.getValue(), count == null ? 0 : count.get());
+        }
+    }
+
+    private static void checkAggregate(String label, int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalStateException("Agrégat incohérent (" + label + ") : "
+                    + actual + " au lieu de " + expected);
+        }
+    }
+
+    /**
+     * Adds a vehicle to the fleet aggregates in its current state, or removes
+     * it from the state it was counted in when {@code delta} is -1.
+     */
+    private void countVehicule(VehiculeComponent v, int delta) {
+        totalVehicles.addAndGet(delta);
+        count(vehiclesByType, v.getType(), delta);
+        VehiculeStateId state;
+        if (delta > 0) {
+            state = v.getStateId();
+            countedStates.put(v, state);
+        } else {
+            state = countedStates.remove(v);
+            if (state == null) {
+                state = v.getStateId();
+            }
+        }
+        vehiclesByState.addAndGet(state.ordinal(), delta);
+    }
+
+    /**
+     * Moves a parked vehicle to the counter of its current state after a
+     * transition made by the control center.
+     */
+    private void recountState(VehiculeComponent v) {
+        VehiculeStateId now = v.getStateId();
+        VehiculeStateId before = countedStates.replace(v, now);
+        if (before != null && before != now) {
+            vehiclesByState.decrementAndGet(before.ordinal());
+            vehiclesByState.incrementAndGet(now.ordinal());
+        }
+    }
+
+    private static void count(Map<String, AtomicInteger> counts, String key, int delta) {
+        counts.computeIfAbsent(key, k -> new AtomicInteger()).addAndGet(delta);
     }
 
     /**
         * Returns the recorded events for a station, ordered chronologically.
+        * <p>
+        * Events are stored in structured form and only rendered as text here;
+        * at most the event log capacity is kept per station.
      * 
      * @param stationId the ID of the station
      * @return the list of events for the station
      */
     public List<String> getStationEvents(int stationId) {
-        return new ArrayList<>(stationEvents.getOrDefault(stationId, List.of()));
+        StationEventLog log = stationEvents.get(stationId);
+        return log == null ? new ArrayList<>() : log.renderAll();
+    }
+
+    /**
+     * Returns the structured event log of a station.
+     *
+     * @param stationId the ID of the station
+     * @return the event log, or {@code null} if the station has no recorded events
+     */
+    public StationEventLog getStationEventLog(int stationId) {
+        return stationEvents.get(stationId);
+    }
+
+    /**
+     * Returns the number of ticks processed so far.
+     *
+     * @return the current tick
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Records an event in the log of a station, creating the log if needed.
+     */
+    private void recordEvent(int stationId, byte type, VehiculeComponent vehicule) {
+        stationEvents.computeIfAbsent(stationId, id -> new StationEventLog(id, eventLogCapacity))
+                .record(type, vehicule, currentTick);
+    }
+
+    /**
+     * Schedules a station to be examined at the next tick.
+     * <p>
+     * Parks and removals already do this through the observer callbacks; this
+     * method is only needed when a parked vehicle is changed from outside
+     * (state, idle time...) and the change must be taken into account.
+     *
+     * @param stationId the ID of the station
+     */
+    public void markStationDirty(int stationId) {
+        synchronized (activeLock) {
+            int index = stationIndex.get(stationId);
+            if (index >= 0) {
+                markActive(index);
+            }
+        }
+    }
+
+    /**
+     * Adds a station to the active queue. Must be called with
+     * {@code activeLock} held.
+     */
+    private void markActive(int index) {
+        if (!active[index]) {
+            active[index] = true;
+            activeQueue[activeCount++] = index;
+        }
+    }
+
+    /**
+     * Returns the number of maintenance and theft deadlines waiting in the
+     * timing wheel.
+     *
+     * @return the number of scheduled deadlines
+     */
+    public int getScheduledDeadlineCount() {
+        return deadlines.size();
+    }
+
+    /**
+     * Returns the number of stations that will be examined at the next tick:
+     * stations changed since the last tick and stations with a running
+     * empty or full streak.
+     *
+     * @return the number of active stations
+     */
+    public int getActiveStationCount() {
+        synchronized (activeLock) {
+            return activeCount;
+        }
     }
 
     @Override
     public void onVehicleParked(Station<?> station, VehiculeComponent vehicule) {
-        String event = String.format("Vehicle parked: %s (%.2f €)",
-                vehicule.getDescription(),
-                vehicule.getPrice());
-        
         int stationId = station.getId();
-        if (!stationEvents.containsKey(stationId)) {
-            stationEvents.put(stationId, new ArrayList<>());
-        }
-        
-        stationEvents.get(stationId).add(event);
+        markStationDirty(stationId);
+        recordEvent(stationId, StationEventLog.PARKED, vehicule);
         if (vehicule.needsMaintenance()) {
-            vehicule.setState(new EnMaintenanceState());
-            String maintenanceEvent = String.format("Vehicle needs maintenance: %s", vehicule.getDescription());
-            stationEvents.get(stationId).add(maintenanceEvent);
+            VehiculeStateId current = vehicule.getStateId();
+            if (current == VehiculeStateId.EN_MAINTENANCE
+                    || vehicule.tryTransition(current, VehiculeStateId.EN_MAINTENANCE)) {
+                recordEvent(stationId, StationEventLog.NEEDS_MAINTENANCE, vehicule);
+            }
         }
+        countVehicule(vehicule, 1);
     }
 
     @Override
     public void onVehicleRemoved(Station<?> station, VehiculeComponent vehicule) {
-        String event = String.format("Vehicle removed: %s (%.2f €)",
-                vehicule.getDescription(),
-                vehicule.getPrice());
-        
-        int stationId = station.getId();
-        if (!stationEvents.containsKey(stationId)) {
-            stationEvents.put(stationId, new ArrayList<>());
+        TimingWheel.Timer<Deadline> timer = maintenanceTimers.remove(vehicule);
+        if (timer != null) {
+            departedTimers.add(timer);
         }
-        
-        stationEvents.get(stationId).add(event);
+        markStationDirty(station.getId());
+        countVehicule(vehicule, -1);
+        recordEvent(station.getId(), StationEventLog.REMOVED, vehicule);
     }
 
     /**
      * Called once per simulation tick to update supervision rules and possibly
      * trigger a redistribution if stations stay empty or full for too long.
+     * <p>
+     * Maintenance progress and theft risk are driven by a timing wheel: a
+     * deadline is scheduled for each vehicle in maintenance, and for each
+     * station holding a lone available vehicle at the tick when its idle
+     * time reaches the theft threshold. Only the deadlines due at this tick
+     * are processed. The redistribution strategy then gets its own tick, for
+     * moves spread over several ticks. Stations are then examined only if
+     * they are active: stations where a vehicle was parked or removed since
+     * the previous tick, and stations with a running empty or full streak.
+     * The pending theft deadline of an examined station is cancelled first,
+     * and the station gets its deadlines again once examined.
      */
     public void onTick() {
+        currentTick++;
+        TimingWheel.Timer<Deadline> departed;
+        while ((departed = departedTimers.poll()) != null) {
+            deadlines.cancel(departed);
+        }
+        deadlines.advanceTo(currentTick, this::onDeadline);
+        if (redistributionStrategy != null) {
+            redistributionStrategy.onTick(stations);
+        }
+
+        int visitCount;
+        synchronized (activeLock) {
+            visitCount = activeCount;
+            System.arraycopy(activeQueue, 0, visiting, 0, visitCount);
+            for (int i = 0; i < visitCount; i++) {
+                active[visiting[i]] = false;
+            }
+            activeCount = 0;
+        }
+
+        for (int i = 0; i < visitCount; i++) {
+            cancelTheftCheck(visiting[i]);
+        }
+        if (tickPool == null) {
+            for (int i = 0; i < visitCount; i++) {
+                superviseStation(visiting[i]);
+            }
+        } else {
+            tickPool.invoke(new SupervisionTask(0, visitCount));
+        }
+
         boolean needRedistribution = false;
-        for (Station<VehiculeComponent> s : stations) {
-            int id = s.getId();
-            int empty = emptyStreaks.getOrDefault(id, 0);
-            int full = fullStreaks.getOrDefault(id, 0);
-            List<VehiculeComponent> vehicules = s.getParkedVehicules();
-            handleMaintenanceForStation(s, vehicules);
-            handleTheftForStation(s, vehicules, id);
-            needRedistribution = updateStreaksAndCheckRedistribution(s, id, empty, full) || needRedistribution;
+        for (int i = 0; i < visitCount; i++) {
+            int index = visiting[i];
+            Station<VehiculeComponent> s = indexedStations[index];
+            scheduleDeadlines(s, index);
+            needRedistribution = needRedistribution || emptyStreaks[index] >= 2 || fullStreaks[index] >= 2;
+            if (s.isEmpty() || s.isFull()) {
+                synchronized (activeLock) {
+                    markActive(index);
+                }
+            }
         }
 
         if (needRedistribution && redistributionStrategy != null) {
             redistributeAndResetStreaks();
         }
+
+        if (aggregateChecks) {
+            checkAggregates();
+        }
+    }
+
+    /**
+     * Enables or disables the parallel tick mode.
+     * <p>
+     * In parallel mode, the per-station phases of {@link #onTick()}
+     * (maintenance, theft, streaks) are split into fork/join tasks over the
+     * common pool. These phases only touch the station being processed and
+     * its own slot in the counter arrays, so the outcome is the same as in
+     * sequential mode. Station observers may then be notified of thefts from
+     * pool threads.
+     *
+     * @param parallel {@code true} to supervise stations in parallel
+     */
+    public void setParallelTick(boolean parallel) {
+        this.tickPool = parallel ? ForkJoinPool.commonPool() : null;
+    }
+
+    /**
+     * Tells whether the parallel tick mode is enabled.
+     *
+     * @return {@code true} if stations are supervised in parallel
+     */
+    public boolean isParallelTick() {
+        return tickPool != null;
+    }
+
+    /**
+     * Processes an expired deadline. Deadlines whose vehicle left the
+     * station, or whose station no longer holds a lone vehicle, are dropped.
+     *
+     * @param deadline the expired deadline
+     */
+    private void onDeadline(Deadline deadline) {
+        Station<VehiculeComponent> station = deadline.station;
+        VehiculeComponent v = deadline.vehicule;
+        if (v != null) {
+            maintenanceTimers.remove(v);
+            if (v.getStateId() != VehiculeStateId.EN_MAINTENANCE || !station.containsVehicule(v)) {
+                return;
+            }
+            advanceMaintenance(station, v);
+            if (v.getStateId() == VehiculeStateId.EN_MAINTENANCE) {
+                scheduleMaintenance(station, v);
+            } else {
+                // Le véhicule réparé peut se retrouver seul et exposé au vol
+                markStationDirty(station.getId());
+            }
+        } else if (settleIdleTime(deadline, currentTick)) {
+            if (deadline.lone.isAtRiskOfTheft()) {
+                stealLoneVehicle(station, deadline.lone);
+            } else {
+                scheduleTheftCheck(deadline.index, deadline.lone);
+            }
+        }
+    }
+
+    /**
+     * Schedules the deadlines of a station that has just been examined: one
+     * per vehicle in maintenance and one for a lone available vehicle, unless
+     * they are already scheduled.
+     *
+     * @param station the examined station
+     * @param index   the index of the station
+     */
+    private void scheduleDeadlines(Station<VehiculeComponent> station, int index) {
+        station.forEachParkedVehicule(v -> {
+            if (v.getStateId() == VehiculeStateId.EN_MAINTENANCE && !maintenanceTimers.containsKey(v)) {
+                scheduleMaintenance(station, v);
+            }
+        });
+        if (station.getOccupiedSpaces() == 1 && !isScheduled(theftTimers[index])) {
+            VehiculeComponent lone = station.findParkedVehicule(VehiculeComponent::isAvailable);
+            if (lone != null) {
+                scheduleTheftCheck(index, lone);
+            }
+        }
+    }
+
+    private void scheduleMaintenance(Station<VehiculeComponent> station, VehiculeComponent v) {
+        maintenanceTimers.put(v, deadlines.schedule(new Deadline(station, -1, v), currentTick + 1));
+    }
+
+    /**
+     * Schedules the theft deadline of a station at the tick when the idle
+     * time of its lone vehicle reaches the theft threshold. The timer and
+     * the deadline of the station are reused from one schedule to the next.
+     *
+     * @param index the index of the station
+     * @param lone  the lone available vehicle of the station
+     */
+    private void scheduleTheftCheck(int index, VehiculeComponent lone) {
+        TimingWheel.Timer<Deadline> timer = theftTimers[index];
+        if (timer == null) {
+            timer = deadlines.schedule(new Deadline(indexedStations[index], index, null), currentTick);
+            theftTimers[index] = timer;
+        }
+        Deadline deadline = timer.getPayload();
+        deadline.lone = lone;
+        deadline.since = currentTick;
+        deadline.idleTime = lone.getIdleTimeIntervals();
+        deadlines.reschedule(timer, currentTick + Vehicule.getTheftThreshold() - deadline.idleTime);
+    }
+
+    /**
+     * Cancels the pending theft deadline of a station about to be examined.
+     * The ticks elapsed since it was scheduled are credited to the lone
+     * vehicle, the examination then accounting for the current tick.
+     *
+     * @param index the index of the station
+     */
+    private void cancelTheftCheck(int index) {
+        TimingWheel.Timer<Deadline> timer = theftTimers[index];
+        if (deadlines.cancel(timer)) {
+            settleIdleTime(timer.getPayload(), currentTick - 1);
+        }
+    }
+
+    /**
+     * Adds in one step the ticks spent idle since a theft deadline was
+     * scheduled, provided the lone vehicle has neither left the station nor
+     * been rented in the meantime.
+     *
+     * @param deadline the theft deadline
+     * @param tick     the last tick spent idle
+     * @return {@code true} if the vehicle is still alone in the station
+     */
+    private boolean settleIdleTime(Deadline deadline, long tick) {
+        VehiculeComponent v = deadline.lone;
+        deadline.lone = null;
+        Station<VehiculeComponent> station = deadline.station;
+        if (station.getOccupiedSpaces() != 1 || !station.containsVehicule(v) || !v.isAvailable()
+                || v.getIdleTimeIntervals() != deadline.idleTime) {
+            return false;
+        }
+        v.addIdleTime((int) (tick - deadline.since));
+        deadline.lone = v;
+        return true;
+    }
+
+    private static boolean isScheduled(TimingWheel.Timer<?> timer) {
+        return timer != null && timer.isScheduled();
     }
 
     /**
-     * Updates maintenance status for all vehicles parked in a station.
+     * Runs the per-station supervision phases (maintenance, theft, streaks)
+     * for one station. Only the slot of this station is written in the
+     * counter arrays.
+     *
+     * @param index the index of the station
+     */
+    private void superviseStation(int index) {
+        Station<VehiculeComponent> s = indexedStations[index];
+        int empty = streakEpochs[index] == streakEpoch ? emptyStreaks[index] : 0;
+        int full = streakEpochs[index] == streakEpoch ? fullStreaks[index] : 0;
+        handleMaintenanceForStation(s);
+        handleTheftForStation(s);
+        setStreaks(index, nextStreak(s.isEmpty(), empty), nextStreak(s.isFull(), full));
+    }
+
+    private void setStreaks(int index, int empty, int full) {
+        emptyStreaks[index] = empty;
+        fullStreaks[index] = full;
+        streakEpochs[index] = streakEpoch;
+    }
+
+    /**
+     * Supervises a contiguous range of the visited stations, splitting it in
+     * two until it is small enough.
+     */
+    private final class SupervisionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        SupervisionTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_TICK_GRAIN) {
+                for (int i = from; i < to; i++) {
+                    superviseStation(visiting[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SupervisionTask(from, middle), new SupervisionTask(middle, to));
+            }
+        }
+    }
+
+    /**
+     * Updates maintenance status for the vehicles of a station that have no
+     * maintenance deadline yet; the others have been handled by their
+     * deadline during this tick.
+     *
+     * @param station   the station being processed
+     */
+    private void handleMaintenanceForStation(Station<VehiculeComponent> station) {
+        station.forEachParkedVehicule(v -> {
+            if (v.getStateId() == VehiculeStateId.EN_MAINTENANCE && !maintenanceTimers.containsKey(v)) {
+                advanceMaintenance(station, v);
+            }
+        });
+    }
+
+    /**
+     * Moves a vehicle in maintenance one tick forward.
      * <p>
      * Vehicles that have just entered maintenance stay unavailable for one
      * tick before the registered repair service is invoked.
      *
-     * @param station   the station being processed
-     * @param vehicules currently parked vehicles in this station
-     */
-    private void handleMaintenanceForStation(Station<VehiculeComponent> station, List<VehiculeComponent> vehicules) {
-        for (VehiculeComponent v : vehicules) {
-            if ("EN_MAINTENANCE".equals(v.getStateName())) {
-                if (v.isInMaintenanceSinceOneTick()) {
-                    VehicleService repairService = getService("REPAIR");
-                    if (repairService != null) {
-                        boolean serviced = repairService.service(station, v);
-
-                        if (serviced) {
-                            String maintenanceEvent = String.format("Vehicle repaired: %s", v.getDescription());
-                            stationEvents.get(station.getId()).add(maintenanceEvent);
-                        }
-                    }
-                    v.resetMaintenanceTick();
-                } else {
-                    v.addTickToMaintenance();
+     * @param station the station where the vehicle is parked
+     * @param v       the vehicle in maintenance
+     */
+    private void advanceMaintenance(Station<VehiculeComponent> station, VehiculeComponent v) {
+        if (v.isInMaintenanceSinceOneTick()) {
+            VehicleService repairService = getService("REPAIR");
+            if (repairService != null) {
+                boolean serviced = repairService.service(station, v);
+
+                if (serviced) {
+                    recordEvent(station.getId(), StationEventLog.REPAIRED, v);
+                    recountState(v);
                 }
             }
+            v.resetMaintenanceTick();
+        } else {
+            v.addTickToMaintenance();
         }
     }
 
@@ -235,78 +942,82 @@ public class ControlCenter implements StationObserver {
      * A vehicle can be stolen only if it is the single available vehicle in
      * the station and has remained idle long enough. Once the condition is
      * met, the theft is deterministic (no additional randomness), which
-     * matches the project specification and simplifies testing.
+     * matches the project specification and simplifies testing. The theft
+     * deadline of the station has been cancelled before this examination.
      *
-     * @param station    the station being processed
-     * @param vehicules  currently parked vehicles in this station
-     * @param stationId  identifier of the station
-     */
-    private void handleTheftForStation(Station<VehiculeComponent> station, List<VehiculeComponent> vehicules, int stationId) {
-        if (vehicules.size() == 1) {
-            VehiculeComponent v = vehicules.get(0);
-            if (v.isAvailable()) {
-                v.incrementIdleTime();
-
-                if (v.isAtRiskOfTheft()) {
-                    try {
-                        station.removeVehicule(v);
-                        stationEvents.get(stationId).add(String.format("Vehicle stolen: %s", v.getDescription()));
-                    } catch (Exception e) {}
-                }
-            }
+     * @param station the station being processed
+     */
+    private void handleTheftForStation(Station<VehiculeComponent> station) {
+        if (station.getOccupiedSpaces() == 1) {
+            checkLoneVehicle(station);
         } else {
-            for (VehiculeComponent v : vehicules) {
-                v.resetIdleTime();
-            }
+            station.forEachParkedVehicule(VehiculeComponent::resetIdleTime);
         }
     }
 
     /**
-     * Updates empty/full streak counters for one station and decides if a
-     * redistribution should be scheduled.
+     * Increments the idle time of the lone vehicle of a station and steals
+     * it once it has remained idle long enough.
      *
-     * @param station   the station being processed
-     * @param stationId identifier of the station
-     * @param empty     current empty-streak value
-     * @param full      current full-streak value
-     * @return {@code true} if redistribution should be triggered based on this station
-     */
-    private boolean updateStreaksAndCheckRedistribution(Station<VehiculeComponent> station, int stationId, int empty, int full) {
-        if (station.isEmpty()) {
-            empty++;
-        } else {
-            empty = 0;
+     * @param station a station holding exactly one vehicle
+     */
+    private void checkLoneVehicle(Station<VehiculeComponent> station) {
+        // Le véhicule a pu être retiré depuis le comptage des places occupées
+        VehiculeComponent v = station.findParkedVehicule(VehiculeComponent::isAvailable);
+        if (v == null) {
+            return;
         }
+        v.incrementIdleTime();
 
-        if (station.isFull()) {
-            full++;
-        } else {
-            full = 0;
+        if (v.isAtRiskOfTheft()) {
+            stealLoneVehicle(station, v);
         }
+    }
 
-        emptyStreaks.put(stationId, empty);
-        fullStreaks.put(stationId, full);
+    private void stealLoneVehicle(Station<VehiculeComponent> station, VehiculeComponent v) {
+        try {
+            station.removeVehicule(v);
+            recordEvent(station.getId(), StationEventLog.STOLEN, v);
+        } catch (Exception e) {}
+    }
 
-        return empty >= 2 || full >= 2;
+    /**
+     * Computes the next value of a streak counter.
+     *
+     * @param condition whether the streak condition holds during this tick
+     * @param streak    the current streak value
+     * @return the incremented streak, or 0 if the condition does not hold
+     */
+    private static int nextStreak(boolean condition, int streak) {
+        return condition ? streak + 1 : 0;
     }
 
     /**
      * Applies the current redistribution strategy and resets all streak
-     * counters.
+     * counters. The reset only bumps the streak epoch: counters stamped with
+     * an older epoch read as 0.
      */
     private void redistributeAndResetStreaks() {
         redistributionStrategy.redistribute(stations);
-        for (Station<VehiculeComponent> s : stations) {
-            emptyStreaks.put(s.getId(), 0);
-            fullStreaks.put(s.getId(), 0);
-        }
+        streakEpoch++;
     }
 
     /**
-     * Sets the redistribution strategy.
+     * Sets the redistribution strategy. A strategy that is also a
+     * {@link StationObserver} is registered on every supervised station, and
+     * unregistered when it is replaced.
      */
     public void setRedistributionStrategy(RedistributionStrategy strategy) {
-        if (strategy != null) this.redistributionStrategy = strategy;
+        if (strategy == null) return;
+        for (Station<VehiculeComponent> s : stations) {
+            if (redistributionStrategy instanceof StationObserver) {
+                s.removeObserver((StationObserver) redistributionStrategy);
+            }
+            if (strategy instanceof StationObserver) {
+                s.addObserver((StationObserver) strategy);
+            }
+        }
+        this.redistributionStrategy = strategy;
     }
 
     /**
@@ -316,6 +1027,8 @@ public class ControlCenter implements StationObserver {
         System.out.println("\n=== Control Center Summary ===");
         System.out.println("Stations: " + stations.size());
         System.out.println("Total vehicles: " + getTotalVehicles() + " / " + getTotalCapacity());
+        System.out.println("By type: " + snapshot(vehiclesByType));
+        System.out.println("By state: " + stateSnapshot());
         System.out.println("\nActive services:");
         for (VehicleService service : services) {
             System.out.printf(" - %s%n", service.getServiceType());
@@ -331,5 +1044,46 @@ public class ControlCenter implements StationObserver {
         System.out.println("==============================\n");
     }
 
-    
+    private Map<String, Integer> stateSnapshot() {
+        Map<String, Integer> copy = new TreeMap<>();
+        for (int i = 0; i < vehiclesByState.length(); i++) {
+            if (vehiclesByState.get(i) != 0) {
+                copy.put(VehiculeStateId.fromOrdinal(i).name(), vehiclesByState.get(i));
+            }
+        }
+        return copy;
+    }
+
+    private static Map<String, Integer> snapshot(Map<String, AtomicInteger> counts) {
+        Map<String, Integer> copy = new TreeMap<>();
+        counts.forEach((key, count) -> {
+            if (count.get() != 0) {
+                copy.put(key, count.get());
+            }
+        });
+        return copy;
+    }
+
+    /**
+     * Payload of the supervision deadlines: a vehicle in maintenance, or a
+     * station (with its index) whose lone vehicle may be stolen when
+     * {@code vehicule} is {@code null}. The theft deadline of a station is
+     * reused: it records its lone vehicle, the tick it was scheduled at and
+     * the idle time of the vehicle at that tick.
+     */
+    private static final class Deadline {
+
+        private final Station<VehiculeComponent> station;
+        private final int index;
+        private final VehiculeComponent vehicule;
+        private VehiculeComponent lone;
+        private long since;
+        private int idleTime;
+
+        Deadline(Station<VehiculeComponent> station, int index, VehiculeComponent vehicule) {
+            this.station = station;
+            this.index = index;
+            this.vehicule = vehicule;
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package fil.l3.coo.control;
+
+import java.util.Arrays;
+import java.util.List;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Redistribution moving one vehicle at a time from the most loaded station to
+ * the least loaded one, like {@link RoundRobinRedistribution}, but without
+ * re-sorting the stations for every move.
+ * <p>
+ * Stations that still have a free dock are kept in a min-heap and stations
+ * that still hold a vehicle in a max-heap, both keyed by occupancy. A move
+ * only changes the occupancy of two stations, which are sifted in O(log n).
+ * The move budget grows with the number of stations.
+ */
+public class HeapRedistribution implements RedistributionStrategy {
+
+    /** Minimum number of moves allowed per call, whatever the network size. */
+    public static final int MIN_MOVES_PER_CALL = 20;
+
+    private final double movesPerStation;
+
+    private int[] occupancy = new int[0];
+    private final IndexedHeap lessLoaded = new IndexedHeap(false);
+    private final IndexedHeap moreLoaded = new IndexedHeap(true);
+
+    /**
+     * Creates a strategy allowed to perform one move per station and per call.
+     */
+    public HeapRedistribution() {
+        this(1.0);
+    }
+
+    /**
+     * Creates a strategy whose move budget per call is
+     * {@code max(MIN_MOVES_PER_CALL, movesPerStation * stations)}.
+     *
+     * @param movesPerStation the number of moves allowed per station
+     */
+    public HeapRedistribution(double movesPerStation) {
+        if (movesPerStation < 0) {
+            throw new IllegalArgumentException("Le nombre de déplacements par station doit être positif");
+        }
+        this.movesPerStation = movesPerStation;
+    }
+
+    /**
+     * Returns the maximum number of moves performed by one call.
+     *
+     * @param stationCount the number of stations to balance
+     * @return the move budget
+     */
+    public int getMoveBudget(int stationCount) {
+        return (int) Math.max(MIN_MOVES_PER_CALL, Math.min(Integer.MAX_VALUE, Math.ceil(movesPerStation * stationCount)));
+    }
+
+    @Override
+    public void redistribute(List<Station<VehiculeComponent>> stations) {
+        if (stations == null || stations.size() < 2) return;
+
+        int n = stations.size();
+        if (occupancy.length < n) {
+            occupancy = new int[n];
+        }
+        lessLoaded.reset(occupancy, n);
+        moreLoaded.reset(occupancy, n);
+        for (int i = 0; i < n; i++) {
+            Station<VehiculeComponent> s = stations.get(i);
+            occupancy[i] = s.getOccupiedSpaces();
+            if (s.hasAvailableSpace()) {
+                lessLoaded.add(i);
+            }
+            if (s.hasAvailableVehicules()) {
+                moreLoaded.add(i);
+            }
+        }
+
+        int budget = getMoveBudget(n);
+        int moves = 0;
+        while (moves < budget && !lessLoaded.isEmpty() && !moreLoaded.isEmpty()) {
+            int least = lessLoaded.peek();
+            int most = moreLoaded.peek();
+            if (occupancy[most] - occupancy[least] <= 1) break;
+
+            Station<VehiculeComponent> from = stations.get(most);
+            Station<VehiculeComponent> to = stations.get(least);
+            VehiculeComponent v = from.findParkedVehicule(parked -> true);
+            if (v == null) break;
+
+            try {
+                from.removeVehicule(v);
+                to.parkVehicule(v);
+                moves++;
+            } catch (NullVehiculeException | VehiculeNotFoundException | StationFullException e) {
+                break;
+            }
+
+            occupancy[most]--;
+            occupancy[least]++;
+            update(most, from);
+            update(least, to);
+        }
+    }
+
+    /**
+     * Restores the heap invariants after the occupancy of a station changed,
+     * adding or removing it from each heap as needed.
+     */
+    private void update(int index, Station<VehiculeComponent> station) {
+        lessLoaded.update(index, station.hasAvailableSpace());
+        moreLoaded.update(index, station.hasAvailableVehicules());
+    }
+
+    /**
+     * Binary heap of station indexes ordered by their occupancy, with the
+     * position of each index so that any entry can be sifted or removed in
+     * O(log n). Ties are broken on the index so the order is deterministic.
+     */
+    private static final class IndexedHeap {
+
+        private final boolean max;
+        private int[] keys;
+        private int[] heap = new int[0];
+        private int[] positions = new int[0];
+        private int size;
+
+        IndexedHeap(boolean max) {
+            this.max = max;
+        }
+
+        void reset(int[] keys, int capacity) {
+            this.keys = keys;
+            if (heap.length < capacity) {
+                heap = new int[capacity];
+                positions = new int[capacity];
+            }
+            Arrays.fill(positions, 0, capacity, -1);
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        void add(int index) {
+            heap[size] = index;
+            positions[index] = size;
+            siftUp(size++);
+        }
+
+        void update(int index, boolean member) {
+            int position = positions[index];
+            if (position < 0) {
+                if (member) {
+                    add(index);
+                }
+            } else if (!member) {
+                removeAt(position);
+            } else {
+                siftUp(position);
+                siftDown(positions[index]);
+            }
+        }
+
+        private void removeAt(int position) {
+            int removed = heap[position];
+            positions[removed] = -1;
+            size--;
+            if (position < size) {
+                int moved = heap[size];
+                heap[position] = moved;
+                positions[moved] = position;
+                siftUp(position);
+                siftDown(positions[moved]);
+            }
+        }
+
+        private boolean before(int a, int b) {
+            if (keys[a] != keys[b]) {
+                return max ? keys[a] > keys[b] : keys[a] < keys[b];
+            }
+            return a < b;
+        }
+
+        private void siftUp(int position) {
+            int index = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!before(index, heap[parent])) break;
+                heap[position] = heap[parent];
+                positions[heap[position]] = position;
+                position = parent;
+            }
+            heap[position] = index;
+            positions[index] = position;
+        }
+
+        private void siftDown(int position) {
+            int index = heap[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], index)) break;
+                heap[position] = heap[child];
+                positions[heap[position]] = position;
+                position = child;
+            }
+            heap[position] = index;
+            positions[index] = position;
+        }
+    }
+}
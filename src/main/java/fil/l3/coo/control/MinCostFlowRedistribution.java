@@ -0,0 +1,688 @@
+package fil.l3.coo.control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Redistribution solving a transportation problem between stations above and
+ * below their target fill level.
+ * <p>
+ * Each station gets a target number of vehicles from its target fill level
+ * (the network average by default). Stations above their target supply
+ * vehicles, stations below demand them, and moving one vehicle between two
+ * stations has a configurable cost. The cheapest plan is computed as a
+ * min-cost flow with the primal-dual successive shortest path method:
+ * Dijkstra with node potentials finds the cost of the shortest augmenting
+ * paths, then a blocking flow is pushed along all the paths of that cost.
+ * <p>
+ * To keep the graph small on large networks, each supplying station is only
+ * linked to its {@link #setCandidateCount(int) k} cheapest demanding stations
+ * and conversely, so the plan is optimal within these candidate links. Graph
+ * buffers are kept between calls and only grown when needed. Selecting the
+ * candidates evaluates every supplier/consumer pair once, which dominates on
+ * large networks; the plan can be cut short by a move limit or a time
+ * budget. The number of planned and executed moves of the last call is
+ * reported.
+ * <p>
+ * As a {@link RedistributionPlanner}, the plan can also be computed from an
+ * {@link OccupancySnapshot} without moving any vehicle, for instance by
+ * {@link AsyncRedistribution} on a worker thread.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class MinCostFlowRedistribution implements RedistributionStrategy, RedistributionPlanner {
+
+    /** Default number of candidate links per supplying or demanding station. */
+    public static final int DEFAULT_CANDIDATE_COUNT = 16;
+
+    /** Move costs are rounded to this fraction of a unit. */
+    private static final double COST_SCALE = 1000.0;
+
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+    private static final int SOURCE = 0;
+    private static final int SINK = 1;
+
+    /**
+     * Cost of moving one vehicle from a station to another.
+     */
+    @FunctionalInterface
+    public interface MoveCost {
+
+        /**
+         * Returns the cost of moving one vehicle.
+         *
+         * @param from the station the vehicle leaves
+         * @param to   the station receiving the vehicle
+         * @return a non-negative cost; negative values are treated as 0
+         */
+        double cost(Station<VehiculeComponent> from, Station<VehiculeComponent> to);
+    }
+
+    /** Every move costs the same: the plan minimizes the number of moves. */
+    public static final MoveCost UNIT_COST = (from, to) -> 1.0;
+
+    /** A move costs the straight-line distance between the two stations, in meters. */
+    public static final MoveCost DISTANCE_COST = (from, to) -> from.distanceTo(to.getX(), to.getY());
+
+    private ToDoubleFunction<Station<VehiculeComponent>> targetFill;
+    private MoveCost moveCost = UNIT_COST;
+    private int candidateCount = DEFAULT_CANDIDATE_COUNT;
+    private int maxMoves = Integer.MAX_VALUE;
+    private long timeBudgetNanos;
+
+    private int plannedMoves;
+    private int executedMoves;
+    private double plannedCost;
+
+    // Stations en excédent (suppliers) et en déficit (consumers) du dernier appel
+    private int[] suppliers = new int[0];
+    private int[] supplies = new int[0];
+    private int[] consumers = new int[0];
+    private int[] demands = new int[0];
+    private int supplierCount;
+    private int consumerCount;
+
+    // Sélection des k liens les moins chers de chaque station (tas max bornés)
+    private long[] candidateCosts = new long[0];
+    private int[] candidateIds = new int[0];
+    private int[] candidateSizes = new int[0];
+    private Station<VehiculeComponent>[] consumerStations = newStationArray(0);
+
+    // Graphe résiduel en listes d'adjacence ; l'arc e a pour inverse e ^ 1
+    private int nodeCount;
+    private int edgeCount;
+    private int[] head = new int[0];
+    private int[] nextEdge = new int[0];
+    private int[] edgeTo = new int[0];
+    private int[] capacity = new int[0];
+    private long[] cost = new long[0];
+    private int firstTransferEdge;
+
+    private long[] potential = new long[0];
+    private long[] distance = new long[0];
+    private int[] heap = new int[0];
+    private int[] heapPosition = new int[0];
+    private int[] level = new int[0];
+    private int[] currentEdge = new int[0];
+    private int[] queue = new int[0];
+    private int[] path = new int[0];
+
+    /**
+     * Sets the target fill level of the stations, as a fraction of their
+     * capacity. By default every station targets the average fill level of
+     * the network. When planning runs in the background, the function is
+     * called from the planning thread.
+     *
+     * @param targetFill the target fill level of each station, between 0 and 1,
+     *                   or {@code null} for the network average
+     */
+    public void setTargetFill(ToDoubleFunction<Station<VehiculeComponent>> targetFill) {
+        this.targetFill = targetFill;
+    }
+
+    /**
+     * Sets the cost of moving one vehicle between two stations.
+     *
+     * @param moveCost the cost function
+     */
+    public void setMoveCost(MoveCost moveCost) {
+        if (moveCost == null) {
+            throw new IllegalArgumentException("La fonction de coût ne peut pas être null");
+        }
+        this.moveCost = moveCost;
+    }
+
+    /**
+     * Sets the number of candidate links kept for each station.
+     *
+     * @param candidateCount the number of cheapest links kept per station
+     */
+    public void setCandidateCount(int candidateCount) {
+        if (candidateCount < 1) {
+            throw new IllegalArgumentException("Le nombre de candidats doit être positif");
+        }
+        this.candidateCount = candidateCount;
+    }
+
+    /**
+     * Sets the maximum number of moves planned by one call.
+     *
+     * @param maxMoves the move limit
+     */
+    public void setMaxMoves(int maxMoves) {
+        if (maxMoves < 0) {
+            throw new IllegalArgumentException("Le nombre de déplacements doit être positif");
+        }
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Sets the time allowed to compute the plan. Candidate selection may use
+     * at most half of it; once the budget is exceeded, the moves planned so
+     * far are executed. Since the cheapest paths are found first, a partial
+     * plan holds the cheapest moves. 0 means no limit, which is the default.
+     *
+     * @param millis the time budget in milliseconds
+     */
+    public void setTimeBudgetMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Le budget de temps doit être positif");
+        }
+        this.timeBudgetNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * Returns the number of moves planned by the last call.
+     *
+     * @return the planned moves
+     */
+    public int getPlannedMoves() {
+        return plannedMoves;
+    }
+
+    /**
+     * Returns the number of moves actually performed by the last call. It is
+     * lower than the planned moves only if a station refused a vehicle.
+     *
+     * @return the executed moves
+     */
+    public int getExecutedMoves() {
+        return executedMoves;
+    }
+
+    /**
+     * Returns the total cost of the moves planned by the last call.
+     *
+     * @return the planned cost
+     */
+    public double getPlannedCost() {
+        return plannedCost;
+    }
+
+    @Override
+    public void redistribute(List<Station<VehiculeComponent>> stations) {
+        executedMoves = 0;
+        if (stations == null || stations.size() < 2) {
+            plannedMoves = 0;
+            plannedCost = 0;
+            return;
+        }
+        execute(plan(OccupancySnapshot.of(stations, 0)));
+    }
+
+    @Override
+    public RedistributionPlan plan(OccupancySnapshot snapshot) {
+        plannedMoves = 0;
+        plannedCost = 0;
+        if (snapshot.size() >= 2) {
+            long start = System.nanoTime();
+            boolean bounded = timeBudgetNanos > 0;
+            long selectionDeadline = bounded ? start + timeBudgetNanos / 2 : Long.MAX_VALUE;
+            long deadline = bounded ? start + timeBudgetNanos : Long.MAX_VALUE;
+            computeBalances(snapshot);
+            if (supplierCount > 0 && consumerCount > 0) {
+                boolean complete = selectCandidates(snapshot, selectionDeadline);
+                buildGraph(complete);
+                solve(deadline);
+                return toPlan(snapshot);
+            }
+        }
+        return new RedistributionPlan(snapshot.getTick(), new ArrayList<>(), new ArrayList<>(), new int[0]);
+    }
+
+    /**
+     * Splits the stations between suppliers (above target) and consumers
+     * (below target).
+     */
+    private void computeBalances(OccupancySnapshot snapshot) {
+        int n = snapshot.size();
+        if (suppliers.length < n) {
+            suppliers = new int[n];
+            supplies = new int[n];
+            consumers = new int[n];
+            demands = new int[n];
+        }
+
+        double averageFill = 0;
+        if (targetFill == null) {
+            long vehicles = 0;
+            long docks = 0;
+            for (int i = 0; i < n; i++) {
+                vehicles += snapshot.getOccupied(i);
+                docks += snapshot.getCapacity(i);
+            }
+            averageFill = docks == 0 ? 0 : (double) vehicles / docks;
+        }
+
+        supplierCount = 0;
+        consumerCount = 0;
+        for (int i = 0; i < n; i++) {
+            double fill = targetFill == null ? averageFill : targetFill.applyAsDouble(snapshot.getStation(i));
+            int target = (int) Math.round(Math.max(0, Math.min(1, fill)) * snapshot.getCapacity(i));
+            int balance = snapshot.getOccupied(i) - target;
+            if (balance > 0) {
+                suppliers[supplierCount] = i;
+                supplies[supplierCount++] = balance;
+            } else if (balance < 0) {
+                consumers[consumerCount] = i;
+                demands[consumerCount++] = -balance;
+            }
+        }
+    }
+
+    /**
+     * Keeps, for every supplier and every consumer, its k cheapest links to
+     * the other side. Each pair cost is computed once. If the time budget
+     * runs out, the remaining suppliers get no link.
+     *
+     * @return {@code true} if every supplier has been examined
+     */
+    private boolean selectCandidates(OccupancySnapshot snapshot, long deadline) {
+        int owners = supplierCount + consumerCount;
+        int k = candidateCount;
+        if (candidateSizes.length < owners) {
+            candidateSizes = new int[owners];
+        }
+        if (candidateCosts.length < owners * k) {
+            candidateCosts = new long[owners * k];
+            candidateIds = new int[owners * k];
+        }
+        Arrays.fill(candidateSizes, 0, owners, 0);
+        if (consumerStations.length < consumerCount) {
+            consumerStations = newStationArray(consumerCount);
+        }
+        for (int j = 0; j < consumerCount; j++) {
+            consumerStations[j] = snapshot.getStation(consumers[j]);
+        }
+
+        int examined = 0;
+        for (; examined < supplierCount && System.nanoTime() < deadline; examined++) {
+            int i = examined;
+            Station<VehiculeComponent> from = snapshot.getStation(suppliers[i]);
+            for (int j = 0; j < consumerCount; j++) {
+                double c = moveCost.cost(from, consumerStations[j]);
+                long scaled = Math.round(Math.max(0, c) * COST_SCALE);
+                offerCandidate(i, j, scaled);
+                offerCandidate(supplierCount + j, i, scaled);
+            }
+        }
+        Arrays.fill(consumerStations, 0, consumerCount, null);
+        return examined == supplierCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Station<VehiculeComponent>[] newStationArray(int length) {
+        return (Station<VehiculeComponent>[]) new Station<?>[length];
+    }
+
+    /**
+     * Offers a link to the bounded max-heap of an owner, which keeps the k
+     * cheapest links seen so far.
+     */
+    private void offerCandidate(int owner, int id, long linkCost) {
+        int k = candidateCount;
+        int base = owner * k;
+        int size = candidateSizes[owner];
+        if (size < k) {
+            int position = size;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (candidateCosts[base + parent] >= linkCost) break;
+                candidateCosts[base + position] = candidateCosts[base + parent];
+                candidateIds[base + position] = candidateIds[base + parent];
+                position = parent;
+            }
+            candidateCosts[base + position] = linkCost;
+            candidateIds[base + position] = id;
+            candidateSizes[owner] = size + 1;
+        } else if (linkCost < candidateCosts[base]) {
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= k) break;
+                if (child + 1 < k && candidateCosts[base + child + 1] > candidateCosts[base + child]) {
+                    child++;
+                }
+                if (candidateCosts[base + child] <= linkCost) break;
+                candidateCosts[base + position] = candidateCosts[base + child];
+                candidateIds[base + position] = candidateIds[base + child];
+                position = child;
+            }
+            candidateCosts[base + position] = linkCost;
+            candidateIds[base + position] = id;
+        }
+    }
+
+    /**
+     * Builds the flow network: source → suppliers → consumers → sink.
+     * Supplier nodes are numbered from 2, consumer nodes follow. The links
+     * chosen by the consumers are only added if all suppliers were examined;
+     * otherwise they would all point to the few examined suppliers.
+     *
+     * @param withConsumerLinks whether to add the links chosen by the consumers
+     */
+    private void buildGraph(boolean withConsumerLinks) {
+        nodeCount = 2 + supplierCount + consumerCount;
+        int links = 0;
+        int owners = withConsumerLinks ? supplierCount + consumerCount : supplierCount;
+        for (int owner = 0; owner < owners; owner++) {
+            links += candidateSizes[owner];
+        }
+        int maxEdges = 2 * (supplierCount + consumerCount + links);
+        ensureGraphCapacity(nodeCount, maxEdges);
+        Arrays.fill(head, 0, nodeCount, -1);
+        edgeCount = 0;
+
+        for (int i = 0; i < supplierCount; i++) {
+            addEdge(SOURCE, 2 + i, supplies[i], 0);
+        }
+        for (int j = 0; j < consumerCount; j++) {
+            addEdge(2 + supplierCount + j, SINK, demands[j], 0);
+        }
+
+        firstTransferEdge = edgeCount;
+        int k = candidateCount;
+        for (int i = 0; i < supplierCount; i++) {
+            int base = i * k;
+            for (int c = 0; c < candidateSizes[i]; c++) {
+                int j = candidateIds[base + c];
+                addEdge(2 + i, 2 + supplierCount + j, Math.min(supplies[i], demands[j]), candidateCosts[base + c]);
+            }
+        }
+        for (int j = 0; j < consumerCount && withConsumerLinks; j++) {
+            int owner = supplierCount + j;
+            int base = owner * k;
+            for (int c = 0; c < candidateSizes[owner]; c++) {
+                int i = candidateIds[base + c];
+                if (!isCandidate(i, j)) {
+                    addEdge(2 + i, 2 + supplierCount + j, Math.min(supplies[i], demands[j]), candidateCosts[base + c]);
+                }
+            }
+        }
+    }
+
+    /** Tells whether consumer j is already among the links of supplier i. */
+    private boolean isCandidate(int supplier, int consumer) {
+        int base = supplier * candidateCount;
+        for (int c = 0; c < candidateSizes[supplier]; c++) {
+            if (candidateIds[base + c] == consumer) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureGraphCapacity(int nodes, int edges) {
+        if (head.length < nodes) {
+            head = new int[nodes];
+            potential = new long[nodes];
+            distance = new long[nodes];
+            heap = new int[nodes];
+            heapPosition = new int[nodes];
+            level = new int[nodes];
+            currentEdge = new int[nodes];
+            queue = new int[nodes];
+            path = new int[nodes];
+        }
+        if (edgeTo.length < edges) {
+            nextEdge = new int[edges];
+            edgeTo = new int[edges];
+            capacity = new int[edges];
+            cost = new long[edges];
+        }
+    }
+
+    private void addEdge(int from, int to, int cap, long edgeCost) {
+        edgeTo[edgeCount] = to;
+        capacity[edgeCount] = cap;
+        cost[edgeCount] = edgeCost;
+        nextEdge[edgeCount] = head[from];
+        head[from] = edgeCount++;
+
+        edgeTo[edgeCount] = from;
+        capacity[edgeCount] = 0;
+        cost[edgeCount] = -edgeCost;
+        nextEdge[edgeCount] = head[to];
+        head[to] = edgeCount++;
+    }
+
+    /**
+     * Primal-dual successive shortest paths: each phase updates the node
+     * potentials with Dijkstra, then saturates the zero reduced cost paths.
+     */
+    private void solve(long deadline) {
+        Arrays.fill(potential, 0, nodeCount, 0);
+        int flow = 0;
+        while (flow < maxMoves && System.nanoTime() < deadline) {
+            if (!updatePotentials()) {
+                break;
+            }
+            int pushed = pushBlockingFlow(maxMoves - flow, deadline);
+            if (pushed == 0) {
+                break;
+            }
+            flow += pushed;
+        }
+        plannedMoves = flow;
+    }
+
+    /**
+     * Runs Dijkstra on the reduced costs and adds the distances to the
+     * potentials, so that shortest paths get a zero reduced cost.
+     *
+     * @return {@code true} if the sink is still reachable
+     */
+    private boolean updatePotentials() {
+        Arrays.fill(distance, 0, nodeCount, INFINITE);
+        Arrays.fill(heapPosition, 0, nodeCount, -1);
+        int heapSize = 0;
+        distance[SOURCE] = 0;
+        heap[heapSize] = SOURCE;
+        heapPosition[SOURCE] = heapSize++;
+
+        while (heapSize > 0) {
+            int u = heap[0];
+            if (u == SINK) break;
+            heapPosition[u] = -2;
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPosition[heap[0]] = 0;
+                siftDown(0, heapSize);
+            }
+
+            for (int e = head[u]; e >= 0; e = nextEdge[e]) {
+                if (capacity[e] == 0) continue;
+                int v = edgeTo[e];
+                if (heapPosition[v] == -2) continue;
+                long candidate = distance[u] + Math.max(0, cost[e] + potential[u] - potential[v]);
+                if (candidate < distance[v]) {
+                    distance[v] = candidate;
+                    if (heapPosition[v] < 0) {
+                        heap[heapSize] = v;
+                        heapPosition[v] = heapSize++;
+                    }
+                    siftUp(heapPosition[v]);
+                }
+            }
+        }
+
+        long sinkDistance = distance[SINK];
+        if (sinkDistance >= INFINITE) {
+            return false;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            potential[v] += Math.min(distance[v], sinkDistance);
+        }
+        return true;
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (distance[heap[parent]] <= distance[node]) break;
+            heap[position] = heap[parent];
+            heapPosition[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = node;
+        heapPosition[node] = position;
+    }
+
+    private void siftDown(int position, int size) {
+        int node = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) break;
+            if (child + 1 < size && distance[heap[child + 1]] < distance[heap[child]]) {
+                child++;
+            }
+            if (distance[heap[child]] >= distance[node]) break;
+            heap[position] = heap[child];
+            heapPosition[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = node;
+        heapPosition[node] = position;
+    }
+
+    private boolean isAdmissible(int from, int e) {
+        return capacity[e] > 0 && cost[e] + potential[from] - potential[edgeTo[e]] == 0;
+    }
+
+    /**
+     * Pushes a blocking flow on the admissible edges (zero reduced cost),
+     * layered by BFS so that the search cannot cycle.
+     *
+     * @param limit    the maximum flow to push
+     * @param deadline the time after which no new layering is started
+     * @return the flow pushed
+     */
+    private int pushBlockingFlow(int limit, long deadline) {
+        int pushed = 0;
+        while (pushed < limit && System.nanoTime() < deadline && buildLevels()) {
+            System.arraycopy(head, 0, currentEdge, 0, nodeCount);
+            int depth = 0;
+            int u = SOURCE;
+            while (pushed < limit) {
+                if (u == SINK) {
+                    int amount = limit - pushed;
+                    for (int d = 0; d < depth; d++) {
+                        amount = Math.min(amount, capacity[path[d]]);
+                    }
+                    int saturated = -1;
+                    for (int d = 0; d < depth; d++) {
+                        capacity[path[d]] -= amount;
+                        capacity[path[d] ^ 1] += amount;
+                        plannedCost += amount * cost[path[d]] / COST_SCALE;
+                        if (saturated < 0 && capacity[path[d]] == 0) {
+                            saturated = d;
+                        }
+                    }
+                    pushed += amount;
+                    // Reprise depuis l'origine du premier arc saturé
+                    depth = saturated < 0 ? 0 : saturated;
+                    u = depth == 0 ? SOURCE : edgeTo[path[depth - 1]];
+                    continue;
+                }
+
+                int e = currentEdge[u];
+                while (e >= 0 && (level[edgeTo[e]] != level[u] + 1 || !isAdmissible(u, e))) {
+                    e = nextEdge[e];
+                }
+                currentEdge[u] = e;
+                if (e >= 0) {
+                    path[depth++] = e;
+                    u = edgeTo[e];
+                } else {
+                    // Impasse : on retire le nœud du graphe de niveaux et on recule
+                    level[u] = -1;
+                    if (depth == 0) break;
+                    int back = path[--depth];
+                    u = edgeTo[back ^ 1];
+                    currentEdge[u] = nextEdge[back];
+                }
+            }
+        }
+        return pushed;
+    }
+
+    /**
+     * Computes BFS levels over the admissible edges.
+     *
+     * @return {@code true} if the sink is reachable
+     */
+    private boolean buildLevels() {
+        Arrays.fill(level, 0, nodeCount, -1);
+        int front = 0;
+        int back = 0;
+        level[SOURCE] = 0;
+        queue[back++] = SOURCE;
+        while (front < back) {
+            int u = queue[front++];
+            if (level[SINK] >= 0 && level[u] >= level[SINK]) break;
+            for (int e = head[u]; e >= 0; e = nextEdge[e]) {
+                int v = edgeTo[e];
+                if (level[v] < 0 && isAdmissible(u, e)) {
+                    level[v] = level[u] + 1;
+                    queue[back++] = v;
+                }
+            }
+        }
+        return level[SINK] >= 0;
+    }
+
+    /**
+     * Turns the flow on the transfer edges into a plan: the reverse capacity
+     * of a transfer edge is the number of vehicles to move between the two
+     * stations.
+     */
+    private RedistributionPlan toPlan(OccupancySnapshot snapshot) {
+        List<Station<VehiculeComponent>> origins = new ArrayList<>();
+        List<Station<VehiculeComponent>> destinations = new ArrayList<>();
+        int[] counts = new int[(edgeCount - firstTransferEdge) / 2];
+        int size = 0;
+        for (int e = firstTransferEdge; e < edgeCount; e += 2) {
+            int moves = capacity[e ^ 1];
+            if (moves == 0) continue;
+            origins.add(snapshot.getStation(suppliers[edgeTo[e ^ 1] - 2]));
+            destinations.add(snapshot.getStation(consumers[edgeTo[e] - 2 - supplierCount]));
+            counts[size++] = moves;
+        }
+        return new RedistributionPlan(snapshot.getTick(), origins, destinations, Arrays.copyOf(counts, size));
+    }
+
+    private void execute(RedistributionPlan plan) {
+        for (int m = 0; m < plan.size(); m++) {
+            Station<VehiculeComponent> from = plan.getFrom(m);
+            Station<VehiculeComponent> to = plan.getTo(m);
+            for (int k = 0; k < plan.getCount(m); k++) {
+                VehiculeComponent v = from.findParkedVehicule(parked -> true);
+                if (v == null) break;
+                try {
+                    from.removeVehicule(v);
+                    to.parkVehicule(v);
+                    executedMoves++;
+                } catch (StationFullException e1) {
+                    try {
+                        from.parkVehicule(v);
+                    } catch (NullVehiculeException | StationFullException e2) {
+                        // la place venant d'être libérée, ce cas ne se produit pas
+                    }
+                    break;
+                } catch (NullVehiculeException | VehiculeNotFoundException e1) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package fil.l3.coo.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Immutable copy of the occupancy of a set of stations at a given tick.
+ * <p>
+ * A planner can read it from another thread while the simulation keeps
+ * changing the stations. The station references are only meant for their
+ * immutable attributes (ID, capacity, coordinates) and to address the moves
+ * of a {@link RedistributionPlan}.
+ */
+public final class OccupancySnapshot {
+
+    private final long tick;
+    private final List<Station<VehiculeComponent>> stations;
+    private final int[] occupied;
+    private final int[] capacities;
+
+    private OccupancySnapshot(long tick, List<Station<VehiculeComponent>> stations, int[] occupied, int[] capacities) {
+        this.tick = tick;
+        this.stations = stations;
+        this.occupied = occupied;
+        this.capacities = capacities;
+    }
+
+    /**
+     * Captures the current occupancy of stations.
+     *
+     * @param stations the stations
+     * @param tick     the tick of the capture
+     * @return the snapshot
+     */
+    public static OccupancySnapshot of(List<Station<VehiculeComponent>> stations, long tick) {
+        int n = stations.size();
+        int[] occupied = new int[n];
+        int[] capacities = new int[n];
+        for (int i = 0; i < n; i++) {
+            Station<VehiculeComponent> s = stations.get(i);
+            occupied[i] = s.getOccupiedSpaces();
+            capacities[i] = s.getCapacity();
+        }
+        return new OccupancySnapshot(tick, Collections.unmodifiableList(new ArrayList<>(stations)), occupied, capacities);
+    }
+
+    /**
+     * Returns the tick at which the snapshot was taken.
+     *
+     * @return the capture tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the number of stations.
+     *
+     * @return the number of stations
+     */
+    public int size() {
+        return occupied.length;
+    }
+
+    /**
+     * Returns a station of the snapshot.
+     *
+     * @param index the position of the station
+     * @return the station
+     */
+    public Station<VehiculeComponent> getStation(int index) {
+        return stations.get(index);
+    }
+
+    /**
+     * Returns the number of vehicles a station held at capture time.
+     *
+     * @param index the position of the station
+     * @return the occupied docks
+     */
+    public int getOccupied(int index) {
+        return occupied[index];
+    }
+
+    /**
+     * Returns the capacity of a station.
+     *
+     * @param index the position of the station
+     * @return the number of docks
+     */
+    public int getCapacity(int index) {
+        return capacities[index];
+    }
+}
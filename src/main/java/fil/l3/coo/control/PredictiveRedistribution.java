@@ -0,0 +1,588 @@
+package fil.l3.coo.control;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.StationObserver;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+
+/**
+ * Redistribution acting before stations run empty or full, from demand
+ * learnt online.
+ * <p>
+ * Time is cut into slots of {@link #getTicksPerSlot() ticks per slot}, which
+ * repeat every {@link #getSlotCount() slot count} slots (24 slots of 60 ticks
+ * model a day of one-minute ticks). Registered as a {@link StationObserver}
+ * on every station, the strategy counts the vehicles parked and removed in
+ * each station during the current slot. When a station sees an event in a
+ * new slot, the counts of its previous slot are folded into an
+ * exponentially weighted moving average of the inflow and outflow of that
+ * station and that slot of the cycle; cycles without any event decay the
+ * averages. Each event therefore costs O(1), and all the model lives in
+ * primitive arrays indexed like {@link StationIndex}.
+ * <p>
+ * At every tick, the occupancy of each station is projected over
+ * {@link #setHorizon(int) a horizon} with the forecast rates. Stations whose
+ * projection drops below the low fill level receive vehicles, and stations
+ * whose projection exceeds the high fill level give some away, moving
+ * towards the target fill level. Counterparts are the stations at risk on
+ * the other side first, then the stations that keep a margin over the whole
+ * horizon. Moves are instant, like the other strategies, and are not
+ * counted as demand: before moving a vehicle, the strategy expects one
+ * removal and one park at the two stations, and the callbacks skip the
+ * expected events, even when an asynchronous dispatcher delivers them after
+ * the balancing. A call to {@link #redistribute(List)} runs the same
+ * balancing immediately.
+ * <p>
+ * ControlCenter registers the strategy on its stations when it is selected.
+ * All methods may be called from several threads. The model is guarded by
+ * the monitor of the strategy, taken by the callbacks, the forecasts and
+ * the planning of a balancing; balancings are serialized by a second lock
+ * and do not hold the monitor while they move vehicles, so that a
+ * dispatcher delivering events never waits for a balancing that waits for
+ * the dispatcher.
+ */
+public class PredictiveRedistribution implements RedistributionStrategy, StationObserver {
+
+    /** Default number of slots in a cycle. */
+    public static final int DEFAULT_SLOT_COUNT = 24;
+
+    /** Default length of a slot, in ticks. */
+    public static final int DEFAULT_TICKS_PER_SLOT = 60;
+
+    /** Default weight of the latest observation in the moving averages. */
+    public static final double DEFAULT_SMOOTHING = 0.3;
+
+    private static final int NEVER = -1;
+
+    private static final Predicate<VehiculeComponent> MOVABLE =
+            v -> v.isAvailable() && v.getStateId() == VehiculeStateId.DISPONIBLE;
+
+    private final int slotCount;
+    private final int ticksPerSlot;
+    private final double smoothing;
+    private final StationIndex stationIndex = new StationIndex();
+
+    private int horizon = 30;
+    private double lowFill = 0.1;
+    private double highFill = 0.9;
+    private double targetFill = 0.5;
+    private int maxMovesPerTick = 20;
+
+    private final Object balanceLock = new Object();
+    private long tick;
+    private volatile long totalMoves;
+    private volatile int lastMoves;
+
+    // Modèle : une case par (station, créneau), moyenne en véhicules par créneau
+    private double[] inflowRates = new double[0];
+    private double[] outflowRates = new double[0];
+    private int[] foldedCycles = new int[0];
+
+    // Événements du créneau en cours, par station
+    private int[] pendingIn = new int[0];
+    private int[] pendingOut = new int[0];
+    private long[] pendingSlots = new long[0];
+
+    // Événements attendus des déplacements de la stratégie, par station
+    private int[] expectedIn = new int[0];
+    private int[] expectedOut = new int[0];
+
+    // Tampons du rééquilibrage, réutilisés d'un tick à l'autre (verrou de rééquilibrage)
+    private long[] supplies = new long[0];
+    private long[] demands = new long[0];
+    private int[] remaining = new int[0];
+    private int supplyCount;
+    private int demandCount;
+
+    /**
+     * Creates a strategy with a cycle of {@value #DEFAULT_SLOT_COUNT} slots of
+     * {@value #DEFAULT_TICKS_PER_SLOT} ticks.
+     */
+    public PredictiveRedistribution() {
+        this(DEFAULT_SLOT_COUNT, DEFAULT_TICKS_PER_SLOT, DEFAULT_SMOOTHING);
+    }
+
+    /**
+     * Creates a strategy.
+     *
+     * @param slotCount    the number of slots in a cycle
+     * @param ticksPerSlot the length of a slot, in ticks
+     * @param smoothing    the weight of the latest cycle in the moving
+     *                     averages, between 0 (exclusive) and 1
+     */
+    public PredictiveRedistribution(int slotCount, int ticksPerSlot, double smoothing) {
+        if (slotCount < 1 || ticksPerSlot < 1) {
+            throw new IllegalArgumentException("Le nombre et la durée des créneaux doivent être positifs");
+        }
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new IllegalArgumentException("Le coefficient de lissage doit être compris entre 0 et 1");
+        }
+        this.slotCount = slotCount;
+        this.ticksPerSlot = ticksPerSlot;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Sets the number of ticks over which occupancies are projected.
+     *
+     * @param horizon the forecast horizon, in ticks
+     */
+    public synchronized void setHorizon(int horizon) {
+        if (horizon < 1) {
+            throw new IllegalArgumentException("L'horizon de prévision doit être positif");
+        }
+        this.horizon = horizon;
+    }
+
+    /**
+     * Sets the fill levels, as fractions of the capacity, below which a
+     * station is about to run empty and above which it is about to run full,
+     * and the level rebalanced stations are brought back to.
+     *
+     * @param lowFill    the low fill level
+     * @param targetFill the target fill level
+     * @param highFill   the high fill level
+     */
+    public synchronized void setFillLevels(double lowFill, double targetFill, double highFill) {
+        if (!(0 <= lowFill && lowFill < targetFill && targetFill < highFill && highFill <= 1)) {
+            throw new IllegalArgumentException("Les niveaux de remplissage doivent être croissants entre 0 et 1");
+        }
+        this.lowFill = lowFill;
+        this.targetFill = targetFill;
+        this.highFill = highFill;
+    }
+
+    /**
+     * Sets the maximum number of moves performed at each tick.
+     *
+     * @param maxMovesPerTick the move budget
+     */
+    public synchronized void setMaxMovesPerTick(int maxMovesPerTick) {
+        if (maxMovesPerTick < 0) {
+            throw new IllegalArgumentException("Le nombre de déplacements doit être positif");
+        }
+        this.maxMovesPerTick = maxMovesPerTick;
+    }
+
+    /**
+     * Returns the number of slots in a cycle.
+     *
+     * @return the slot count
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Returns the length of a slot.
+     *
+     * @return the number of ticks per slot
+     */
+    public int getTicksPerSlot() {
+        return ticksPerSlot;
+    }
+
+    /**
+     * Returns the number of ticks seen by this strategy.
+     *
+     * @return the current tick
+     */
+    public synchronized long getCurrentTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the number of moves performed by the last balancing.
+     *
+     * @return the moves of the last tick or call
+     */
+    public int getLastMoves() {
+        return lastMoves;
+    }
+
+    /**
+     * Returns the number of moves performed since the strategy was created.
+     *
+     * @return the total moves
+     */
+    public long getTotalMoves() {
+        return totalMoves;
+    }
+
+    /**
+     * Returns the forecast number of vehicles parked in a station during a
+     * slot of the current cycle.
+     *
+     * @param station the station
+     * @param slot    the slot, between 0 and the slot count
+     * @return the forecast inflow, in vehicles per slot
+     */
+    public double getInflowForecast(Station<?> station, int slot) {
+        return forecast(station, slot, true);
+    }
+
+    /**
+     * Returns the forecast number of vehicles removed from a station during a
+     * slot of the current cycle.
+     *
+     * @param station the station
+     * @param slot    the slot, between 0 and the slot count
+     * @return the forecast outflow, in vehicles per slot
+     */
+    public double getOutflowForecast(Station<?> station, int slot) {
+        return forecast(station, slot, false);
+    }
+
+    private synchronized double forecast(Station<?> station, int slot, boolean inflow) {
+        if (slot < 0 || slot >= slotCount) {
+            throw new IllegalArgumentException("Créneau invalide : " + slot);
+        }
+        int index = stationIndex.get(station.getId());
+        if (index < 0) return 0;
+        foldIfDone(index);
+        int cell = index * slotCount + slot;
+        return decayed(inflow ? inflowRates[cell] : outflowRates[cell], cell, cycleOf(tick / ticksPerSlot));
+    }
+
+    // Synchronisés : en tick parallèle, les vols sont signalés depuis les tâches de supervision
+    @Override
+    public synchronized void onVehicleParked(Station<?> station, VehiculeComponent vehicule) {
+        int index = indexOf(station.getId()); // peut agrandir les tableaux
+        if (expectedIn[index] > 0) {
+            expectedIn[index]--;
+            return;
+        }
+        pendingIn[record(station)]++;
+    }
+
+    @Override
+    public synchronized void onVehicleRemoved(Station<?> station, VehiculeComponent vehicule) {
+        int index = indexOf(station.getId()); // peut agrandir les tableaux
+        if (expectedOut[index] > 0) {
+            expectedOut[index]--;
+            return;
+        }
+        pendingOut[record(station)]++;
+    }
+
+    /**
+     * Announces, or withdraws with a negative delta, events caused by a move
+     * of the strategy.
+     */
+    private synchronized void expect(Station<?> station, boolean park, int delta) {
+        int index = indexOf(station.getId());
+        if (park) {
+            expectedIn[index] += delta;
+        } else {
+            expectedOut[index] += delta;
+        }
+    }
+
+    /**
+     * Makes sure the pending counters of a station belong to the current
+     * slot, folding the previous one if needed.
+     *
+     * @return the index of the station
+     */
+    private int record(Station<?> station) {
+        int index = indexOf(station.getId());
+        long slot = tick / ticksPerSlot;
+        if (pendingSlots[index] != slot) {
+            fold(index);
+            pendingSlots[index] = slot;
+        }
+        return index;
+    }
+
+    private int indexOf(int stationId) {
+        int index = stationIndex.get(stationId);
+        if (index < 0) {
+            index = stationIndex.add(stationId);
+            if (index >= pendingSlots.length) {
+                grow(Math.max(16, pendingSlots.length * 2));
+            }
+            pendingIn[index] = 0;
+            pendingOut[index] = 0;
+            expectedIn[index] = 0;
+            expectedOut[index] = 0;
+            pendingSlots[index] = NEVER;
+            Arrays.fill(foldedCycles, index * slotCount, (index + 1) * slotCount, NEVER);
+        }
+        return index;
+    }
+
+    private void grow(int length) {
+        pendingIn = Arrays.copyOf(pendingIn, length);
+        pendingOut = Arrays.copyOf(pendingOut, length);
+        pendingSlots = Arrays.copyOf(pendingSlots, length);
+        expectedIn = Arrays.copyOf(expectedIn, length);
+        expectedOut = Arrays.copyOf(expectedOut, length);
+        inflowRates = Arrays.copyOf(inflowRates, length * slotCount);
+        outflowRates = Arrays.copyOf(outflowRates, length * slotCount);
+        foldedCycles = Arrays.copyOf(foldedCycles, length * slotCount);
+    }
+
+    /**
+     * Folds the pending counters of a station into the moving averages of
+     * their slot, once that slot is over.
+     */
+    private void foldIfDone(int index) {
+        if (pendingSlots[index] != NEVER && pendingSlots[index] != tick / ticksPerSlot) {
+            fold(index);
+            pendingSlots[index] = NEVER;
+        }
+    }
+
+    private void fold(int index) {
+        long slot = pendingSlots[index];
+        if (slot == NEVER) return;
+        int cell = index * slotCount + (int) (slot % slotCount);
+        int cycle = cycleOf(slot);
+        if (foldedCycles[cell] == NEVER) {
+            inflowRates[cell] = pendingIn[index];
+            outflowRates[cell] = pendingOut[index];
+        } else {
+            double keep = (1 - smoothing) * decay(cycle - foldedCycles[cell] - 1);
+            inflowRates[cell] = smoothing * pendingIn[index] + keep * inflowRates[cell];
+            outflowRates[cell] = smoothing * pendingOut[index] + keep * outflowRates[cell];
+        }
+        foldedCycles[cell] = cycle;
+        pendingIn[index] = 0;
+        pendingOut[index] = 0;
+    }
+
+    /**
+     * Returns a rate as seen from a cycle: every cycle of that slot elapsed
+     * since the last fold had no event.
+     */
+    private double decayed(double rate, int cell, int cycle) {
+        if (foldedCycles[cell] == NEVER) return 0;
+        return rate * decay(cycle - foldedCycles[cell] - 1);
+    }
+
+    private double decay(int missedCycles) {
+        return missedCycles <= 0 ? 1 : Math.pow(1 - smoothing, missedCycles);
+    }
+
+    private int cycleOf(long slot) {
+        return (int) (slot / slotCount);
+    }
+
+    /**
+     * Projects the occupancy of a station over the horizon and stores the
+     * lowest and highest projected occupancy in {@code range}.
+     */
+    private void project(int index, int occupied, double[] range) {
+        foldIfDone(index);
+        double occupancy = occupied;
+        double low = occupied;
+        double high = occupied;
+        long t = tick;
+        int left = horizon;
+        while (left > 0) {
+            long slot = t / ticksPerSlot;
+            int cell = index * slotCount + (int) (slot % slotCount);
+            int cycle = cycleOf(slot);
+            int span = (int) Math.min(left, ticksPerSlot - t % ticksPerSlot);
+            double net = decayed(inflowRates[cell], cell, cycle) - decayed(outflowRates[cell], cell, cycle);
+            occupancy += net * span / ticksPerSlot;
+            low = Math.min(low, occupancy);
+            high = Math.max(high, occupancy);
+            t += span;
+            left -= span;
+        }
+        range[0] = low;
+        range[1] = high;
+    }
+
+    @Override
+    public void onTick(List<Station<VehiculeComponent>> stations) {
+        synchronized (balanceLock) {
+            synchronized (this) {
+                tick++;
+            }
+            balance(stations);
+        }
+    }
+
+    @Override
+    public void redistribute(List<Station<VehiculeComponent>> stations) {
+        synchronized (balanceLock) {
+            balance(stations);
+        }
+    }
+
+    /**
+     * Moves vehicles towards the stations forecast to run empty and away from
+     * those forecast to run full. Called with the balancing lock held; the
+     * monitor is only held while planning.
+     */
+    private void balance(List<Station<VehiculeComponent>> stations) {
+        lastMoves = 0;
+        int budget;
+        synchronized (this) {
+            budget = maxMovesPerTick;
+            if (stations == null || stations.size() < 2 || budget == 0 || !plan(stations)) return;
+        }
+        int n = stations.size();
+        int moves = 0;
+        // Les demandes urgentes d'abord, servies par les offres dans l'ordre
+        int supply = 0;
+        for (int d = 0; d < demandCount && moves < budget; d++) {
+            long demandKey = demands[demandCount - 1 - d];
+            Station<VehiculeComponent> to = stations.get(positionOf(demandKey));
+            while (remaining[n + d] > 0 && supply < supplyCount && moves < budget
+                    && to.hasAvailableSpace()) {
+                long supplyKey = supplies[supplyCount - 1 - supply];
+                if (!isUrgent(demandKey) && !isUrgent(supplyKey)) break;
+                if (remaining[supply] == 0 || !move(stations.get(positionOf(supplyKey)), to)) {
+                    supply++;
+                    continue;
+                }
+                remaining[supply]--;
+                remaining[n + d]--;
+                moves++;
+            }
+        }
+        lastMoves = moves;
+        totalMoves += moves;
+    }
+
+    /**
+     * Projects every station and sorts the supplies and demands into the
+     * balancing buffers. Called with the monitor held.
+     *
+     * @return {@code true} if a station is at risk, i.e. a move is needed
+     */
+    private boolean plan(List<Station<VehiculeComponent>> stations) {
+        int n = stations.size();
+        if (supplies.length < n) {
+            supplies = new long[n];
+            demands = new long[n];
+            remaining = new int[2 * n];
+        }
+        supplyCount = 0;
+        demandCount = 0;
+        boolean urgent = false;
+        double[] range = new double[2];
+
+        // Clé de tri : urgence, puis quantité, puis position dans la liste
+        for (int i = 0; i < n; i++) {
+            Station<VehiculeComponent> s = stations.get(i);
+            int index = stationIndex.get(s.getId());
+            if (index < 0) {
+                // Station sans historique : occupation supposée stable
+                range[0] = s.getOccupiedSpaces();
+                range[1] = s.getOccupiedSpaces();
+            } else {
+                project(index, s.getOccupiedSpaces(), range);
+            }
+            double capacity = s.getCapacity();
+            double target = targetFill * capacity;
+
+            if (range[0] < lowFill * capacity) {
+                int need = Math.min((int) Math.ceil(target - range[0]), s.getAvailableSpaces());
+                if (need > 0) {
+                    demands[demandCount++] = key(true, need, i);
+                    urgent = true;
+                }
+            } else if (range[1] > highFill * capacity) {
+                int excess = Math.min((int) Math.ceil(range[1] - target), s.getOccupiedSpaces());
+                if (excess > 0) {
+                    supplies[supplyCount++] = key(true, excess, i);
+                    urgent = true;
+                }
+            } else if (range[0] > target) {
+                int spare = Math.min((int) (range[0] - target), s.getOccupiedSpaces());
+                if (spare > 0) {
+                    supplies[supplyCount++] = key(false, spare, i);
+                }
+            } else if (range[1] < target) {
+                int room = Math.min((int) (target - range[1]), s.getAvailableSpaces());
+                if (room > 0) {
+                    demands[demandCount++] = key(false, room, i);
+                }
+            }
+        }
+        if (!urgent) return false;
+
+        Arrays.sort(supplies, 0, supplyCount);
+        Arrays.sort(demands, 0, demandCount);
+        for (int k = 0; k < supplyCount; k++) {
+            remaining[k] = amountOf(supplies[supplyCount - 1 - k]);
+        }
+        for (int k = 0; k < demandCount; k++) {
+            remaining[n + k] = amountOf(demands[demandCount - 1 - k]);
+        }
+        return true;
+    }
+
+    private static long key(boolean urgent, int amount, int position) {
+        return (urgent ? 1L << 62 : 0) | (long) amount << 32 | position;
+    }
+
+    private static boolean isUrgent(long key) {
+        return (key >>> 62) != 0;
+    }
+
+    private static int amountOf(long key) {
+        return (int) (key >>> 32) & 0x3FFFFFFF;
+    }
+
+    private static int positionOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Moves one available vehicle between two stations, after announcing the
+     * events of the move so that they are not counted as demand. A vehicle
+     * that the destination refuses is parked back in the first station.
+     *
+     * @return {@code false} if the first station has no vehicle to give or
+     *         the destination is full
+     */
+    private boolean move(Station<VehiculeComponent> from, Station<VehiculeComponent> to) {
+        VehiculeComponent v = from.findParkedVehicule(MOVABLE);
+        if (v == null) {
+            return false;
+        }
+        expect(from, false, 1);
+        try {
+            from.removeVehicule(v);
+        } catch (NullVehiculeException | VehiculeNotFoundException e) {
+            expect(from, false, -1);
+            return false;
+        }
+        expect(to, true, 1);
+        try {
+            to.parkVehicule(v);
+            return true;
+        } catch (NullVehiculeException | StationFullException e) {
+            expect(to, true, -1);
+            putBack(from, v);
+            return false;
+        }
+    }
+
+    /**
+     * Parks a vehicle back in the station it has just been taken from; the
+     * park is announced so that it is not counted as demand.
+     */
+    private void putBack(Station<VehiculeComponent> from, VehiculeComponent v) {
+        expect(from, true, 1);
+        try {
+            from.parkVehicule(v);
+        } catch (NullVehiculeException | StationFullException e) {
+            // la place venant d'être libérée, seul un dépôt concurrent peut la prendre
+            expect(from, true, -1);
+            throw new IllegalStateException("Véhicule " + v.getId() + " impossible à remettre en station", e);
+        }
+    }
+}
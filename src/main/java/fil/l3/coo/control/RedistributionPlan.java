@@ -0,0 +1,106 @@
+package fil.l3.coo.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Immutable list of moves computed from an {@link OccupancySnapshot}: each
+ * move sends a number of vehicles from one station to another.
+ */
+public final class RedistributionPlan {
+
+    private final long snapshotTick;
+    private final List<Station<VehiculeComponent>> origins;
+    private final List<Station<VehiculeComponent>> destinations;
+    private final int[] counts;
+    private final int totalMoves;
+
+    /**
+     * Creates a plan. Move {@code i} sends {@code counts[i]} vehicles from
+     * {@code origins.get(i)} to {@code destinations.get(i)}.
+     *
+     * @param snapshotTick the tick of the snapshot the plan is computed from
+     * @param origins      the stations giving the vehicles
+     * @param destinations the stations receiving them
+     * @param counts       the number of vehicles of each move
+     */
+    public RedistributionPlan(long snapshotTick, List<Station<VehiculeComponent>> origins,
+            List<Station<VehiculeComponent>> destinations, int[] counts) {
+        if (origins.size() != counts.length || destinations.size() != counts.length) {
+            throw new IllegalArgumentException("Les listes de déplacements doivent avoir la même taille");
+        }
+        int total = 0;
+        for (int count : counts) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("Un déplacement doit porter sur au moins un véhicule");
+            }
+            total += count;
+        }
+        this.snapshotTick = snapshotTick;
+        this.origins = Collections.unmodifiableList(new ArrayList<>(origins));
+        this.destinations = Collections.unmodifiableList(new ArrayList<>(destinations));
+        this.counts = counts.clone();
+        this.totalMoves = total;
+    }
+
+    /**
+     * Returns the tick of the snapshot the plan was computed from.
+     *
+     * @return the snapshot tick
+     */
+    public long getSnapshotTick() {
+        return snapshotTick;
+    }
+
+    /**
+     * Returns the number of moves (pairs of stations) in the plan.
+     *
+     * @return the number of moves
+     */
+    public int size() {
+        return counts.length;
+    }
+
+    /**
+     * Returns the station giving vehicles in a move.
+     *
+     * @param move the position of the move
+     * @return the origin station
+     */
+    public Station<VehiculeComponent> getFrom(int move) {
+        return origins.get(move);
+    }
+
+    /**
+     * Returns the station receiving vehicles in a move.
+     *
+     * @param move the position of the move
+     * @return the destination station
+     */
+    public Station<VehiculeComponent> getTo(int move) {
+        return destinations.get(move);
+    }
+
+    /**
+     * Returns the number of vehicles of a move.
+     *
+     * @param move the position of the move
+     * @return the number of vehicles
+     */
+    public int getCount(int move) {
+        return counts[move];
+    }
+
+    /**
+     * Returns the number of vehicles moved by the whole plan.
+     *
+     * @return the total number of vehicles
+     */
+    public int getTotalMoves() {
+        return totalMoves;
+    }
+}
@@ -0,0 +1,16 @@
+package fil.l3.coo.control;
+
+/**
+ * Computes redistribution plans without touching the stations, so that
+ * planning can run on another thread than the simulation.
+ */
+public interface RedistributionPlanner {
+
+    /**
+     * Computes the moves balancing the stations of a snapshot.
+     *
+     * @param snapshot the occupancy to balance
+     * @return the plan, possibly empty
+     */
+    RedistributionPlan plan(OccupancySnapshot snapshot);
+}
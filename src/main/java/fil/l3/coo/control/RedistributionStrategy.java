@@ -19,4 +19,14 @@ public interface RedistributionStrategy {
      * @param stations the stations to balance
      */
     void redistribute(List<Station<VehiculeComponent>> stations);
+
+    /**
+     * Called at every simulation tick, whether a redistribution was triggered
+     * or not. Strategies spreading their moves over several ticks carry them
+     * out here; by default nothing happens.
+     *
+     * @param stations the stations being supervised
+     */
+    default void onTick(List<Station<VehiculeComponent>> stations) {
+    }
 }
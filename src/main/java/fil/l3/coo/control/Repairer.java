@@ -4,6 +4,7 @@ import fil.l3.coo.station.Station;
 import fil.l3.coo.vehicule.Vehicule;
 import fil.l3.coo.vehicule.VehiculeComponent;
 import fil.l3.coo.vehicule.state.EnMaintenanceState;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
 
 /**
  * Service de réparation autonome qui peut intervenir sur n'importe quel véhicule
@@ -34,7 +35,7 @@ public class Repairer implements VehicleService {
             return false;
         }
         
-        if (!"EN_MAINTENANCE".equals(vehicule.getStateName())) {
+        if (vehicule.getStateId() != VehiculeStateId.EN_MAINTENANCE) {
             return false;
         }
         
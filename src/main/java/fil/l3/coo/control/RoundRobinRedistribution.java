@@ -36,9 +36,8 @@ public class RoundRobinRedistribution implements RedistributionStrategy {
 
             if (!most.hasAvailableVehicules() || !least.hasAvailableSpace()) break;
 
-            List<VehiculeComponent> parked = most.getParkedVehicules();
-            if (parked.isEmpty()) break;
-            VehiculeComponent v = parked.get(0);
+            VehiculeComponent v = most.findParkedVehicule(parked -> true);
+            if (v == null) break;
 
             try {
                 most.removeVehicule(v);
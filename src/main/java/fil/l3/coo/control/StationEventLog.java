@@ -0,0 +1,192 @@
+package fil.l3.coo.control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Bounded, structured event history of one station.
+ * <p>
+ * Each event is a fixed-size record (type code, vehicle id, tick, price)
+ * stored in parallel arrays used as a ring buffer: once the log is full, the
+ * oldest event is overwritten. Recording an event only writes a few array
+ * cells; the text shown to users is built only when
+ * {@link #render(int)} or {@link #renderAll()} is called.
+ * <p>
+ * The vehicle itself is also kept, so that its description can be rendered
+ * later; it is released when its event is overwritten.
+ * <p>
+ * Recording and reading are synchronized on the log: events are recorded by
+ * station callbacks, which may run on any thread.
+ */
+public class StationEventLog {
+
+    /** A vehicle has been parked in the station. */
+    public static final byte PARKED = 0;
+    /** A vehicle has been removed from the station. */
+    public static final byte REMOVED = 1;
+    /** A parked vehicle has been sent to maintenance. */
+    public static final byte NEEDS_MAINTENANCE = 2;
+    /** A vehicle has been repaired in the station. */
+    public static final byte REPAIRED = 3;
+    /** A vehicle has been stolen from the station. */
+    public static final byte STOLEN = 4;
+
+    private final int stationId;
+    private final byte[] types;
+    private final int[] vehiculeIds;
+    private final long[] ticks;
+    private final double[] prices;
+    private final VehiculeComponent[] vehicules;
+    private long recorded;
+
+    /**
+     * Creates an empty log.
+     * 
+     * @param stationId the ID of the station this log belongs to
+     * @param capacity  the maximum number of events kept
+     */
+    public StationEventLog(int stationId, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacité du journal doit être positive");
+        }
+        this.stationId = stationId;
+        this.types = new byte[capacity];
+        this.vehiculeIds = new int[capacity];
+        this.ticks = new long[capacity];
+        this.prices = new double[capacity];
+        this.vehicules = new VehiculeComponent[capacity];
+    }
+
+    /**
+     * Records an event, overwriting the oldest one if the log is full.
+     * 
+     * @param type     the event type code
+     * @param vehicule the vehicle concerned
+     * @param tick     the simulation tick at which the event happened
+     */
+    synchronized void record(byte type, VehiculeComponent vehicule, long tick) {
+        int slot = (int) (recorded % types.length);
+        types[slot] = type;
+        vehiculeIds[slot] = vehicule.getId();
+        ticks[slot] = tick;
+        prices[slot] = vehicule.getPrice();
+        vehicules[slot] = vehicule;
+        recorded++;
+    }
+
+    /**
+     * Gets the ID of the station this log belongs to.
+     * 
+     * @return the station ID
+     */
+    public int getStationId() {
+        return stationId;
+    }
+
+    /**
+     * Gets the number of events currently kept.
+     * 
+     * @return the number of events, at most the capacity
+     */
+    public synchronized int size() {
+        return (int) Math.min(recorded, types.length);
+    }
+
+    /**
+     * Gets the total number of events recorded, including overwritten ones.
+     * 
+     * @return the total events count
+     */
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+
+    private int slotOf(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Événement " + index + " absent (taille: " + size() + ")");
+        }
+        long first = recorded - size();
+        return (int) ((first + index) % types.length);
+    }
+
+    /**
+     * Gets the type code of an event, index 0 being the oldest kept event.
+     * 
+     * @param index the event index
+     * @return the event type code
+     */
+    public synchronized byte getType(int index) {
+        return types[slotOf(index)];
+    }
+
+    /**
+     * Gets the vehicle ID of an event.
+     * 
+     * @param index the event index
+     * @return the vehicle ID
+     */
+    public synchronized int getVehiculeId(int index) {
+        return vehiculeIds[slotOf(index)];
+    }
+
+    /**
+     * Gets the tick of an event.
+     * 
+     * @param index the event index
+     * @return the tick at which the event happened
+     */
+    public synchronized long getTick(int index) {
+        return ticks[slotOf(index)];
+    }
+
+    /**
+     * Gets the vehicle price recorded with an event.
+     * 
+     * @param index the event index
+     * @return the price at the time of the event
+     */
+    public synchronized double getPrice(int index) {
+        return prices[slotOf(index)];
+    }
+
+    /**
+     * Builds the text of an event.
+     * 
+     * @param index the event index
+     * @return a human-readable description of the event
+     */
+    public synchronized String render(int index) {
+        int slot = slotOf(index);
+        String description = vehicules[slot].getDescription();
+        switch (types[slot]) {
+            case PARKED:
+                return String.format("Vehicle parked: %s (%.2f €)", description, prices[slot]);
+            case REMOVED:
+                return String.format("Vehicle removed: %s (%.2f €)", description, prices[slot]);
+            case NEEDS_MAINTENANCE:
+                return String.format("Vehicle needs maintenance: %s", description);
+            case REPAIRED:
+                return String.format("Vehicle repaired: %s", description);
+            case STOLEN:
+                return String.format("Vehicle stolen: %s", description);
+            default:
+                throw new IllegalStateException("Type d'événement inconnu : " + types[slot]);
+        }
+    }
+
+    /**
+     * Builds the text of every kept event, oldest first.
+     * 
+     * @return the rendered events
+     */
+    public synchronized List<String> renderAll() {
+        int size = size();
+        List<String> rendered = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rendered.add(render(i));
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,137 @@
+package fil.l3.coo.control;
+
+import java.util.Arrays;
+
+/**
+ * Maps station IDs to dense indexes, so that per-station counters can be
+ * kept in primitive arrays.
+ * <p>
+ * IDs are stored in an open-addressing table with linear probing (no boxing,
+ * no entry objects). Indexes freed by {@link #remove(int)} are reused first,
+ * so {@link #indexBound()} stays close to the number of stations.
+ */
+final class StationIndex {
+
+    private static final int NO_INDEX = -1;
+
+    private int[] keys;
+    /** Dense index + 1 of each table slot; 0 marks a free slot. */
+    private int[] values;
+    private int mask;
+    private int size;
+
+    private int[] freeIndexes;
+    private int freeCount;
+    private int indexBound;
+
+    StationIndex() {
+        this.keys = new int[16];
+        this.values = new int[16];
+        this.mask = 15;
+        this.freeIndexes = new int[8];
+    }
+
+    /**
+     * Returns the index of a station.
+     *
+     * @param id the ID of the station
+     * @return its index, or -1 if the station is not indexed
+     */
+    int get(int id) {
+        for (int slot = hash(id) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return values[slot] - 1;
+            }
+        }
+        return NO_INDEX;
+    }
+
+    /**
+     * Assigns an index to a station that is not indexed yet.
+     *
+     * @param id the ID of the station
+     * @return the new index
+     */
+    int add(int id) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int index = freeCount > 0 ? freeIndexes[--freeCount] : indexBound++;
+        int slot = hash(id) & mask;
+        while (values[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = index + 1;
+        size++;
+        return index;
+    }
+
+    /**
+     * Removes a station and frees its index.
+     *
+     * @param id the ID of the station
+     * @return the freed index, or -1 if the station was not indexed
+     */
+    int remove(int id) {
+        int slot = hash(id) & mask;
+        while (values[slot] != 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == 0) {
+            return NO_INDEX;
+        }
+        int index = values[slot] - 1;
+        size--;
+        if (freeCount == freeIndexes.length) {
+            freeIndexes = Arrays.copyOf(freeIndexes, freeCount * 2);
+        }
+        freeIndexes[freeCount++] = index;
+
+        // Suppression par décalage arrière : pas de pierre tombale à gérer
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = 0;
+        return index;
+    }
+
+    /**
+     * Returns an upper bound of the indexes handed out so far; arrays of this
+     * length can hold a value for every indexed station.
+     *
+     * @return the highest index ever assigned, plus one
+     */
+    int indexBound() {
+        return indexBound;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
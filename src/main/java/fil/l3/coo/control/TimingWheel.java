@@ -0,0 +1,241 @@
+package fil.l3.coo.control;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel counting time in simulation ticks.
+ * <p>
+ * Level 0 has one bucket per tick for the next {@value #SLOTS} ticks; each
+ * higher level covers {@value #SLOTS} times the span of the level below.
+ * When the wheel turns, the bucket of a higher level is cascaded down, so a
+ * timer is moved at most once per level before it expires. Buckets are
+ * doubly linked lists: scheduling and cancelling are O(1), and advancing by
+ * one tick only touches the buckets that are due.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <T> the type of the payload attached to the timers
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * A timer scheduled in a wheel. Instances are created by
+     * {@link TimingWheel#schedule(Object, long)} and can be scheduled again
+     * with {@link TimingWheel#reschedule(Timer, long)}.
+     *
+     * @param <T> the type of the payload
+     */
+    public static final class Timer<T> {
+
+        private final T payload;
+        private long deadline;
+        private int bucket = -1;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Returns the payload of this timer.
+         *
+         * @return the payload
+         */
+        public T getPayload() {
+            return payload;
+        }
+
+        /**
+         * Returns the tick at which this timer expires.
+         *
+         * @return the deadline
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Tells whether this timer is still waiting in its wheel.
+         *
+         * @return {@code true} if the timer has neither expired nor been cancelled
+         */
+        public boolean isScheduled() {
+            return bucket >= 0;
+        }
+    }
+
+    private final Timer<T>[] heads;
+    private final Timer<T>[] tails;
+    private long now;
+    private int size;
+
+    /**
+     * Creates a wheel whose current time is {@code startTick}.
+     *
+     * @param startTick the current tick
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTick) {
+        this.heads = (Timer<T>[]) new Timer<?>[LEVELS * SLOTS];
+        this.tails = (Timer<T>[]) new Timer<?>[LEVELS * SLOTS];
+        this.now = startTick;
+    }
+
+    /**
+     * Returns the current tick of the wheel.
+     *
+     * @return the last tick reached by {@link #advanceTo(long, Consumer)}
+     */
+    public long getCurrentTick() {
+        return now;
+    }
+
+    /**
+     * Returns the number of scheduled timers.
+     *
+     * @return the number of timers waiting in the wheel
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a timer. A deadline that is not in the future expires at the
+     * next tick.
+     *
+     * @param payload  the payload handed back when the timer expires
+     * @param deadline the tick at which the timer expires
+     * @return the timer, which can be cancelled
+     */
+    public Timer<T> schedule(T payload, long deadline) {
+        Timer<T> timer = new Timer<>(payload, Math.max(deadline, now + 1));
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Schedules an existing timer again, keeping its payload. A timer still
+     * waiting in this wheel is moved to its new deadline; an expired or
+     * cancelled timer is scheduled again. A deadline that is not in the
+     * future expires at the next tick.
+     *
+     * @param timer    a timer created by this wheel
+     * @param deadline the tick at which the timer expires
+     */
+    public void reschedule(Timer<T> timer, long deadline) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        } else {
+            size++;
+        }
+        timer.deadline = Math.max(deadline, now + 1);
+        insert(timer);
+    }
+
+    /**
+     * Cancels a timer.
+     *
+     * @param timer the timer to cancel
+     * @return {@code true} if the timer was scheduled, {@code false} if it had
+     *         already expired or been cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || !timer.isScheduled()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel tick by tick up to {@code tick} and hands the payload
+     * of every expired timer to {@code onExpire}, in deadline order. The
+     * callback may schedule or cancel timers.
+     *
+     * @param tick     the tick to reach
+     * @param onExpire the action applied to the expired payloads
+     */
+    public void advanceTo(long tick, Consumer<? super T> onExpire) {
+        while (now < tick) {
+            now++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((now & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    cascade(level * SLOTS + slotOf(now, level));
+                }
+            }
+
+            int bucket = slotOf(now, 0);
+            while (heads[bucket] != null) {
+                Timer<T> timer = heads[bucket];
+                unlink(timer);
+                size--;
+                onExpire.accept(timer.payload);
+            }
+        }
+    }
+
+    /**
+     * Moves the timers of a higher-level bucket to the level matching their
+     * remaining delay.
+     */
+    private void cascade(int bucket) {
+        Timer<T> timer = heads[bucket];
+        heads[bucket] = null;
+        tails[bucket] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        long delay = timer.deadline - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        int bucket = level * SLOTS + slotOf(timer.deadline, level);
+
+        timer.bucket = bucket;
+        timer.prev = tails[bucket];
+        if (tails[bucket] == null) {
+            heads[bucket] = timer;
+        } else {
+            tails[bucket].next = timer;
+        }
+        tails[bucket] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        int bucket = timer.bucket;
+        if (timer.prev == null) {
+            heads[bucket] = timer.next;
+        } else {
+            timer.prev.next = timer.next;
+        }
+        if (timer.next == null) {
+            tails[bucket] = timer.prev;
+        } else {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >>> (level * SLOT_BITS)) & SLOT_MASK;
+    }
+}
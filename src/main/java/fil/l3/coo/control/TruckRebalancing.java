@@ -0,0 +1,956 @@
+package fil.l3.coo.control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+
+/**
+ * Redistribution performed by a fleet of rebalancing trucks instead of moving
+ * vehicles instantly.
+ * <p>
+ * When a redistribution is triggered and every truck is back at the depot,
+ * stations above the network average fill level become pickup stops and
+ * stations below it become delivery stops. Routes are then planned as a
+ * vehicle routing problem: a truck leaves the depot empty, loads as many
+ * vehicles as it can at pickups, unloads as many as it carries at deliveries
+ * and comes back within {@link #setMaxRouteTicks(int) a travel time limit}.
+ * A route is worth a {@link #setRewardPerVehicle(double) reward} per delivered
+ * vehicle minus its length in meters.
+ * <p>
+ * Routes are built with the Clarke-Wright savings heuristic, then improved by
+ * local search (2-opt inside a route, relocation of a stop within or between
+ * routes). Several starts with randomly perturbed savings run in parallel on
+ * the common fork/join pool and the best plan is kept. Planned stops are
+ * carried out over the following ticks by {@link #onTick(List)}, through
+ * {@link Station#removeVehicule} and {@link Station#parkVehicule}; travel
+ * times follow the station coordinates and the truck speed.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class TruckRebalancing implements RedistributionStrategy {
+
+    /** Default maximum number of stations considered by one plan. */
+    public static final int DEFAULT_MAX_STOPS = 200;
+
+    /** Default value of a delivered vehicle, in meters of truck route. */
+    public static final double DEFAULT_REWARD_PER_VEHICLE = 1000.0;
+
+    /** Default travel time limit of a route, in ticks. */
+    public static final int DEFAULT_MAX_ROUTE_TICKS = 120;
+
+    private static final double EPSILON = 1e-9;
+    private static final double SAVINGS_NOISE = 0.3;
+
+    private static final Predicate<VehiculeComponent> MOVABLE =
+            v -> v.isAvailable() && v.getStateId() == VehiculeStateId.DISPONIBLE;
+
+    private final int truckCapacity;
+    private final double metersPerTick;
+    private final Truck[] trucks;
+
+    private double depotX;
+    private double depotY;
+    private int maxRouteTicks = DEFAULT_MAX_ROUTE_TICKS;
+    private int maxStops = DEFAULT_MAX_STOPS;
+    private double rewardPerVehicle = DEFAULT_REWARD_PER_VEHICLE;
+    private int starts = Runtime.getRuntime().availableProcessors();
+    private boolean localSearch = true;
+    private long timeBudgetNanos = 100_000_000L;
+
+    private int plannedMoves;
+    private double plannedDistance;
+    private double planValue;
+    private int executedMoves;
+    private long lastSolveNanos;
+
+    /**
+     * A truck and the route it is driving.
+     */
+    private static final class Truck {
+
+        private final List<VehiculeComponent> cargo = new ArrayList<>();
+        private List<Station<VehiculeComponent>> stops;
+        /** Vehicles to load (positive) or unload (negative) at each stop. */
+        private int[] quantities;
+        private int next;
+        private int remainingTicks;
+        private double x;
+        private double y;
+
+        boolean isBusy() {
+            return stops != null;
+        }
+    }
+
+    /**
+     * Creates a strategy.
+     *
+     * @param truckCount    the number of trucks
+     * @param truckCapacity the number of vehicles a truck can carry
+     * @param metersPerTick the distance a truck covers in one tick
+     */
+    public TruckRebalancing(int truckCount, int truckCapacity, double metersPerTick) {
+        if (truckCount < 1) {
+            throw new IllegalArgumentException("Il faut au moins un camion");
+        }
+        if (truckCapacity < 1) {
+            throw new IllegalArgumentException("La capacité d'un camion doit être positive");
+        }
+        if (!(metersPerTick > 0)) {
+            throw new IllegalArgumentException("La vitesse des camions doit être positive");
+        }
+        this.truckCapacity = truckCapacity;
+        this.metersPerTick = metersPerTick;
+        this.trucks = new Truck[truckCount];
+        for (int i = 0; i < truckCount; i++) {
+            trucks[i] = new Truck();
+        }
+    }
+
+    /**
+     * Sets the position of the depot the trucks leave from and return to.
+     * Trucks that are already back at the depot are moved there.
+     *
+     * @param x the x coordinate of the depot, in meters
+     * @param y the y coordinate of the depot, in meters
+     */
+    public void setDepot(double x, double y) {
+        this.depotX = x;
+        this.depotY = y;
+        for (Truck truck : trucks) {
+            if (!truck.isBusy()) {
+                truck.x = x;
+                truck.y = y;
+            }
+        }
+    }
+
+    /**
+     * Sets the travel time limit of a route, counting one tick per stop.
+     *
+     * @param maxRouteTicks the limit, in ticks
+     */
+    public void setMaxRouteTicks(int maxRouteTicks) {
+        if (maxRouteTicks < 1) {
+            throw new IllegalArgumentException("La durée maximale d'une tournée doit être positive");
+        }
+        this.maxRouteTicks = maxRouteTicks;
+    }
+
+    /**
+     * Sets the maximum number of stations considered by one plan; the most
+     * unbalanced ones are kept, half of them pickups and half deliveries.
+     *
+     * @param maxStops the maximum number of stops
+     */
+    public void setMaxStops(int maxStops) {
+        if (maxStops < 2) {
+            throw new IllegalArgumentException("Il faut au moins deux arrêts");
+        }
+        this.maxStops = maxStops;
+    }
+
+    /**
+     * Sets the value of a delivered vehicle, in meters of truck route: a
+     * detour is worth driving if it delivers vehicles worth more than its
+     * length.
+     *
+     * @param rewardPerVehicle the reward per delivered vehicle
+     */
+    public void setRewardPerVehicle(double rewardPerVehicle) {
+        if (!(rewardPerVehicle > 0)) {
+            throw new IllegalArgumentException("La récompense par véhicule doit être positive");
+        }
+        this.rewardPerVehicle = rewardPerVehicle;
+    }
+
+    /**
+     * Sets the number of starts run in parallel. The first start uses the
+     * plain savings heuristic, the others perturb the savings randomly.
+     *
+     * @param starts the number of starts
+     */
+    public void setStarts(int starts) {
+        if (starts < 1) {
+            throw new IllegalArgumentException("Il faut au moins un départ");
+        }
+        this.starts = starts;
+    }
+
+    /**
+     * Enables or disables the local search after the savings heuristic.
+     *
+     * @param localSearch {@code true} to improve the routes by local search
+     */
+    public void setLocalSearch(boolean localSearch) {
+        this.localSearch = localSearch;
+    }
+
+    /**
+     * Sets the time allowed to improve the routes; each start stops its local
+     * search once it is exceeded.
+     *
+     * @param millis the time budget in milliseconds
+     */
+    public void setTimeBudgetMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Le budget de temps doit être positif");
+        }
+        this.timeBudgetNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * Returns the number of vehicles the last plan delivers.
+     *
+     * @return the planned moves
+     */
+    public int getPlannedMoves() {
+        return plannedMoves;
+    }
+
+    /**
+     * Returns the total route length of the last plan.
+     *
+     * @return the planned distance, in meters
+     */
+    public double getPlannedDistance() {
+        return plannedDistance;
+    }
+
+    /**
+     * Returns the value of the last plan: the reward of the delivered
+     * vehicles minus the route length.
+     *
+     * @return the plan value
+     */
+    public double getPlanValue() {
+        return planValue;
+    }
+
+    /**
+     * Returns the time spent computing the last plan.
+     *
+     * @return the solve time, in nanoseconds
+     */
+    public long getLastSolveNanos() {
+        return lastSolveNanos;
+    }
+
+    /**
+     * Returns the number of vehicles delivered since the last plan.
+     *
+     * @return the executed moves
+     */
+    public int getExecutedMoves() {
+        return executedMoves;
+    }
+
+    /**
+     * Returns the number of vehicles currently loaded in the trucks.
+     *
+     * @return the vehicles in transit
+     */
+    public int getVehiclesInTransit() {
+        int total = 0;
+        for (Truck truck : trucks) {
+            total += truck.cargo.size();
+        }
+        return total;
+    }
+
+    /**
+     * Tells whether a truck is still on its route.
+     *
+     * @return {@code true} if at least one truck has not come back to the depot
+     */
+    public boolean isBusy() {
+        for (Truck truck : trucks) {
+            if (truck.isBusy()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plans new routes, unless a truck is still on its previous route. No
+     * vehicle is moved before the next tick.
+     */
+    @Override
+    public void redistribute(List<Station<VehiculeComponent>> stations) {
+        if (stations == null || stations.size() < 2 || isBusy()) return;
+
+        long start = System.nanoTime();
+        plannedMoves = 0;
+        plannedDistance = 0;
+        planValue = 0;
+        executedMoves = 0;
+
+        Problem problem = buildProblem(stations);
+        if (problem.size() >= 2) {
+            int[][] routes = solve(problem, start + timeBudgetNanos);
+            dispatch(problem, routes);
+        }
+        lastSolveNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Moves the trucks one tick forward and serves the stops they reach.
+     */
+    @Override
+    public void onTick(List<Station<VehiculeComponent>> stations) {
+        for (Truck truck : trucks) {
+            if (truck.isBusy() && --truck.remainingTicks <= 0) {
+                arrive(truck, stations);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Planning
+    // ------------------------------------------------------------------
+
+    /**
+     * Turns the most unbalanced stations within reach of the depot into
+     * pickup and delivery stops.
+     */
+    private Problem buildProblem(List<Station<VehiculeComponent>> stations) {
+        long total = 0;
+        long capacity = 0;
+        for (Station<VehiculeComponent> s : stations) {
+            total += s.getOccupiedSpaces();
+            capacity += s.getCapacity();
+        }
+        double fill = capacity == 0 ? 0 : (double) total / capacity;
+
+        // Clé = quantité << 32 | indice : un tri de longs suffit pour garder les plus déséquilibrées
+        long[] pickups = new long[stations.size()];
+        long[] deliveries = new long[stations.size()];
+        int pickupCount = 0;
+        int deliveryCount = 0;
+        double reach = (maxRouteTicks - 1) * metersPerTick / 2;
+        for (int i = 0; i < stations.size(); i++) {
+            Station<VehiculeComponent> s = stations.get(i);
+            if (s.distanceTo(depotX, depotY) > reach) continue; // aller-retour trop long
+
+            int diff = s.getOccupiedSpaces() - (int) Math.round(fill * s.getCapacity());
+            if (diff > 0) {
+                int quantity = Math.min(Math.min(diff, truckCapacity), s.countParkedVehicules(MOVABLE));
+                if (quantity > 0) {
+                    pickups[pickupCount++] = (long) quantity << 32 | i;
+                }
+            } else if (diff < 0) {
+                deliveries[deliveryCount++] = (long) Math.min(-diff, truckCapacity) << 32 | i;
+            }
+        }
+
+        int keptPickups = Math.min(pickupCount, maxStops / 2);
+        int keptDeliveries = Math.min(deliveryCount, maxStops - keptPickups);
+        keptPickups = Math.min(pickupCount, maxStops - keptDeliveries);
+        Arrays.sort(pickups, 0, pickupCount);
+        Arrays.sort(deliveries, 0, deliveryCount);
+
+        Problem problem = new Problem(keptPickups + keptDeliveries, this);
+        for (int k = 0; k < keptPickups; k++) {
+            long key = pickups[pickupCount - 1 - k];
+            problem.set(k, stations.get((int) key), (int) (key >>> 32));
+        }
+        for (int k = 0; k < keptDeliveries; k++) {
+            long key = deliveries[deliveryCount - 1 - k];
+            problem.set(keptPickups + k, stations.get((int) key), -(int) (key >>> 32));
+        }
+        return problem;
+    }
+
+    /**
+     * Runs the starts, in parallel when there are several, and returns the
+     * routes of the best plan.
+     */
+    private int[][] solve(Problem problem, long deadline) {
+        List<Callable<Solution>> searches = new ArrayList<>(starts);
+        for (int s = 0; s < starts; s++) {
+            searches.add(new Search(problem, s, trucks.length, localSearch, deadline));
+        }
+
+        Solution best = null;
+        if (searches.size() == 1) {
+            best = ((Search) searches.get(0)).call();
+        } else {
+            try {
+                for (Future<Solution> future : ForkJoinPool.commonPool().invokeAll(searches)) {
+                    Solution solution = future.get();
+                    if (best == null || solution.value > best.value + EPSILON) {
+                        best = solution;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new int[0][];
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Échec de la planification des tournées", e.getCause());
+            }
+        }
+        return best.routes;
+    }
+
+    /**
+     * Hands the planned routes to the trucks.
+     */
+    private void dispatch(Problem problem, int[][] routes) {
+        for (int r = 0; r < routes.length; r++) {
+            int[] route = routes[r];
+            plannedMoves += problem.moves(route, route.length);
+            plannedDistance += problem.length(route, route.length);
+            planValue += problem.value(route, route.length);
+
+            int[] quantities = problem.quantities(route);
+            List<Station<VehiculeComponent>> stops = new ArrayList<>(route.length);
+            int[] kept = new int[route.length];
+            for (int k = 0; k < route.length; k++) {
+                if (quantities[k] != 0) {
+                    kept[stops.size()] = quantities[k];
+                    stops.add(problem.stations[route[k]]);
+                }
+            }
+
+            Truck truck = trucks[r];
+            truck.stops = stops;
+            truck.quantities = Arrays.copyOf(kept, stops.size());
+            truck.next = 0;
+            truck.remainingTicks = travelTicks(truck.x, truck.y, stops.get(0));
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Execution
+    // ------------------------------------------------------------------
+
+    /**
+     * Serves the stop a truck has reached, or parks it at the depot at the end
+     * of its route. A truck still carrying vehicles after its last stop is
+     * sent to the nearest station with a free place; if every station is
+     * full, it waits where it is and tries again at the next tick, so that
+     * it stays busy until its load is empty.
+     */
+    private void arrive(Truck truck, List<Station<VehiculeComponent>> stations) {
+        if (truck.next < truck.stops.size()) {
+            Station<VehiculeComponent> station = truck.stops.get(truck.next);
+            int quantity = truck.quantities[truck.next];
+            if (quantity > 0) {
+                load(truck, station, quantity);
+            } else {
+                unload(truck, station, -quantity);
+            }
+            truck.x = station.getX();
+            truck.y = station.getY();
+            truck.next++;
+        } else if (truck.cargo.isEmpty()) {
+            truck.stops = null;
+            truck.quantities = null;
+            truck.x = depotX;
+            truck.y = depotY;
+            return;
+        }
+
+        // Des véhicules restent à bord si une station a changé depuis le plan
+        if (truck.next == truck.stops.size() && !truck.cargo.isEmpty()) {
+            Station<VehiculeComponent> fallback = nearestWithSpace(stations, truck.x, truck.y);
+            if (fallback == null) {
+                truck.remainingTicks = 1;
+                return;
+            }
+            truck.stops.add(fallback);
+            truck.quantities = Arrays.copyOf(truck.quantities, truck.stops.size());
+            truck.quantities[truck.next] = -truck.cargo.size();
+        }
+
+        truck.remainingTicks = truck.next < truck.stops.size()
+                ? travelTicks(truck.x, truck.y, truck.stops.get(truck.next))
+                : travelTicks(truck.x, truck.y, depotX, depotY);
+    }
+
+    private void load(Truck truck, Station<VehiculeComponent> station, int quantity) {
+        int taken = 0;
+        while (taken < quantity && truck.cargo.size() < truckCapacity) {
+            VehiculeComponent v = station.findParkedVehicule(MOVABLE);
+            if (v == null) break;
+            try {
+                station.removeVehicule(v);
+            } catch (NullVehiculeException | VehiculeNotFoundException e) {
+                break;
+            }
+            truck.cargo.add(v);
+            taken++;
+        }
+    }
+
+    private void unload(Truck truck, Station<VehiculeComponent> station, int quantity) {
+        int delivered = 0;
+        while (delivered < quantity && !truck.cargo.isEmpty() && station.hasAvailableSpace()) {
+            VehiculeComponent v = truck.cargo.get(truck.cargo.size() - 1);
+            try {
+                station.parkVehicule(v);
+            } catch (NullVehiculeException | StationFullException e) {
+                break;
+            }
+            truck.cargo.remove(truck.cargo.size() - 1);
+            delivered++;
+            executedMoves++;
+        }
+    }
+
+    private static Station<VehiculeComponent> nearestWithSpace(List<Station<VehiculeComponent>> stations,
+            double x, double y) {
+        Station<VehiculeComponent> best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (Station<VehiculeComponent> s : stations) {
+            if (s.hasAvailableSpace()) {
+                double distance = s.distanceTo(x, y);
+                if (distance < bestDistance) {
+                    best = s;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int travelTicks(double x, double y, Station<VehiculeComponent> to) {
+        return travelTicks(x, y, to.getX(), to.getY());
+    }
+
+    private int travelTicks(double x, double y, double toX, double toY) {
+        return Math.max(1, (int) Math.ceil(Math.hypot(toX - x, toY - y) / metersPerTick));
+    }
+
+    // ------------------------------------------------------------------
+    // Routing problem
+    // ------------------------------------------------------------------
+
+    /**
+     * Stops of a plan. Read-only once built, so the starts can share it.
+     */
+    private static final class Problem {
+
+        private final Station<VehiculeComponent>[] stations;
+        private final double[] x;
+        private final double[] y;
+        /** Vehicles to load (positive) or unload (negative) at each stop. */
+        private final int[] demand;
+        private final double depotX;
+        private final double depotY;
+        private final int capacity;
+        private final double metersPerTick;
+        private final int maxRouteTicks;
+        private final double reward;
+
+        @SuppressWarnings("unchecked")
+        Problem(int size, TruckRebalancing owner) {
+            this.stations = (Station<VehiculeComponent>[]) new Station<?>[size];
+            this.x = new double[size];
+            this.y = new double[size];
+            this.demand = new int[size];
+            this.depotX = owner.depotX;
+            this.depotY = owner.depotY;
+            this.capacity = owner.truckCapacity;
+            this.metersPerTick = owner.metersPerTick;
+            this.maxRouteTicks = owner.maxRouteTicks;
+            this.reward = owner.rewardPerVehicle;
+        }
+
+        void set(int node, Station<VehiculeComponent> station, int quantity) {
+            stations[node] = station;
+            x[node] = station.getX();
+            y[node] = station.getY();
+            demand[node] = quantity;
+        }
+
+        int size() {
+            return demand.length;
+        }
+
+        double distance(int a, int b) {
+            return Math.hypot(x[a] - x[b], y[a] - y[b]);
+        }
+
+        double fromDepot(int a) {
+            return Math.hypot(x[a] - depotX, y[a] - depotY);
+        }
+
+        double length(int[] route, int length) {
+            if (length == 0) return 0;
+            double total = fromDepot(route[0]) + fromDepot(route[length - 1]);
+            for (int k = 1; k < length; k++) {
+                total += distance(route[k - 1], route[k]);
+            }
+            return total;
+        }
+
+        /**
+         * Returns the vehicles delivered by a route when the truck loads and
+         * unloads as much as it can at each stop.
+         */
+        int moves(int[] route, int length) {
+            int load = 0;
+            int moved = 0;
+            for (int k = 0; k < length; k++) {
+                int d = demand[route[k]];
+                if (d > 0) {
+                    load += Math.min(d, capacity - load);
+                } else {
+                    int drop = Math.min(-d, load);
+                    load -= drop;
+                    moved += drop;
+                }
+            }
+            return moved;
+        }
+
+        /**
+         * Returns the value of a route, minus infinity if it is too long. A
+         * route worth nothing or less is not driven.
+         */
+        double value(int[] route, int length) {
+            if (length == 0) return 0;
+            int moved = moves(route, length);
+            double meters = length(route, length);
+            if (meters / metersPerTick + length > maxRouteTicks) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return reward * moved - meters;
+        }
+
+        /**
+         * Returns the quantity handled at each stop of a route. Loads are
+         * trimmed from the end so that the truck comes back empty.
+         */
+        int[] quantities(int[] route) {
+            int[] quantities = new int[route.length];
+            int[] loads = new int[route.length];
+            int load = 0;
+            for (int k = 0; k < route.length; k++) {
+                int d = demand[route[k]];
+                quantities[k] = d > 0 ? Math.min(d, capacity - load) : -Math.min(-d, load);
+                load += quantities[k];
+                loads[k] = load;
+            }
+
+            int excess = load;
+            int minSuffix = Integer.MAX_VALUE;
+            for (int k = route.length - 1; k >= 0 && excess > 0; k--) {
+                minSuffix = Math.min(minSuffix, loads[k]);
+                if (quantities[k] > 0) {
+                    int cut = Math.min(quantities[k], Math.min(minSuffix, excess));
+                    quantities[k] -= cut;
+                    excess -= cut;
+                    minSuffix -= cut;
+                }
+            }
+            return quantities;
+        }
+    }
+
+    /**
+     * Routes found by one start, best first, and their total value.
+     */
+    private static final class Solution {
+
+        private final int[][] routes;
+        private final double value;
+
+        Solution(int[][] routes, double value) {
+            this.routes = routes;
+            this.value = value;
+        }
+    }
+
+    /**
+     * One start: savings construction, then local search. The routes kept
+     * are the most valuable ones, one per truck.
+     */
+    private static final class Search implements Callable<Solution> {
+
+        private final Problem problem;
+        private final long seed;
+        private final int truckCount;
+        private final boolean localSearch;
+        private final long deadline;
+
+        private int[][] routes;
+        private double[] values;
+        private int routeCount;
+        private final int[] scratch;
+        private final int[] candidate;
+
+        Search(Problem problem, long seed, int truckCount, boolean localSearch, long deadline) {
+            this.problem = problem;
+            this.seed = seed;
+            this.truckCount = truckCount;
+            this.localSearch = localSearch;
+            this.deadline = deadline;
+            this.scratch = new int[problem.size()];
+            this.candidate = new int[problem.size()];
+        }
+
+        @Override
+        public Solution call() {
+            buildSavingsRoutes();
+            if (localSearch) {
+                improve(routeCount);
+            }
+            sortByValue();
+            int kept = Math.min(truckCount, routeCount);
+            if (localSearch && routeCount > kept) {
+                // Les arrêts des tournées écartées ne peuvent plus aller que dans celles gardées
+                improve(kept);
+                sortByValue();
+            }
+
+            int productive = 0;
+            double total = 0;
+            while (productive < kept && values[productive] > 0) {
+                total += values[productive++];
+            }
+            return new Solution(Arrays.copyOf(routes, productive), total);
+        }
+
+        private boolean timeIsUp() {
+            return System.nanoTime() >= deadline;
+        }
+
+        /**
+         * Clarke-Wright: starts with one route per stop and merges the end of
+         * a route with the start of another, by decreasing distance saving,
+         * when the merged route is worth more than the two routes apart.
+         */
+        private void buildSavingsRoutes() {
+            int n = problem.size();
+            routes = new int[n][];
+            values = new double[n];
+            int[] routeOf = new int[n];
+            for (int i = 0; i < n; i++) {
+                routes[i] = new int[] { i };
+                values[i] = problem.value(routes[i], 1);
+                routeOf[i] = i;
+            }
+
+            Random random = new Random(seed);
+            long[] savings = new long[n * (n - 1) / 2];
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    double saving = problem.fromDepot(i) + problem.fromDepot(j) - problem.distance(i, j);
+                    if (seed != 0) {
+                        saving *= 1 + SAVINGS_NOISE * random.nextDouble();
+                    }
+                    if (saving > 0) {
+                        // Un float positif se trie comme ses bits : tri de longs sans boxing
+                        savings[count++] = (long) Float.floatToIntBits((float) saving) << 32 | (i * n + j);
+                    }
+                }
+            }
+            Arrays.sort(savings, 0, count);
+
+            for (int k = count - 1; k >= 0; k--) {
+                int pair = (int) savings[k];
+                int i = pair / n;
+                int j = pair % n;
+                int a = routeOf[i];
+                int b = routeOf[j];
+                if (a == b) continue;
+
+                int[] first = null;
+                int[] second = null;
+                double bestGain = EPSILON;
+                double bestValue = 0;
+                for (int orientation = 0; orientation < 2; orientation++) {
+                    int[] ra = orientation == 0 ? routes[a] : routes[b];
+                    int[] rb = orientation == 0 ? routes[b] : routes[a];
+                    int tail = orientation == 0 ? i : j;
+                    int head = orientation == 0 ? j : i;
+                    if (ra[ra.length - 1] != tail || rb[0] != head) continue;
+
+                    System.arraycopy(ra, 0, scratch, 0, ra.length);
+                    System.arraycopy(rb, 0, scratch, ra.length, rb.length);
+                    double merged = problem.value(scratch, ra.length + rb.length);
+                    double gain = merged - values[a] - values[b];
+                    if (gain > bestGain) {
+                        bestGain = gain;
+                        bestValue = merged;
+                        first = ra;
+                        second = rb;
+                    }
+                }
+                if (first != null) {
+                    int[] merged = Arrays.copyOf(first, first.length + second.length);
+                    System.arraycopy(second, 0, merged, first.length, second.length);
+                    routes[a] = merged;
+                    values[a] = bestValue;
+                    routes[b] = null;
+                    for (int node : merged) {
+                        routeOf[node] = a;
+                    }
+                }
+            }
+
+            routeCount = 0;
+            for (int r = 0; r < n; r++) {
+                if (routes[r] != null) {
+                    routes[routeCount] = routes[r];
+                    values[routeCount++] = values[r];
+                }
+            }
+        }
+
+        /**
+         * Applies improving 2-opt and relocate moves until none is left or the
+         * time is up. Stops are only relocated into the first {@code targets}
+         * routes.
+         */
+        private void improve(int targets) {
+            boolean improved = true;
+            while (improved && !timeIsUp()) {
+                improved = false;
+                for (int r = 0; r < routeCount; r++) {
+                    improved |= twoOpt(r);
+                }
+                improved |= relocate(targets);
+            }
+        }
+
+        /**
+         * Reverses the segment of a route that improves it the most.
+         */
+        private boolean twoOpt(int r) {
+            int[] route = routes[r];
+            int length = route.length;
+            double best = values[r] + EPSILON;
+            int bestI = -1;
+            int bestJ = -1;
+            for (int i = 0; i < length - 1; i++) {
+                for (int j = i + 1; j < length; j++) {
+                    System.arraycopy(route, 0, scratch, 0, length);
+                    for (int lo = i, hi = j; lo < hi; lo++, hi--) {
+                        int tmp = scratch[lo];
+                        scratch[lo] = scratch[hi];
+                        scratch[hi] = tmp;
+                    }
+                    double value = problem.value(scratch, length);
+                    if (value > best) {
+                        best = value;
+                        bestI = i;
+                        bestJ = j;
+                    }
+                }
+            }
+            if (bestI < 0) return false;
+            int[] reversed = route.clone();
+            for (int lo = bestI, hi = bestJ; lo < hi; lo++, hi--) {
+                int tmp = reversed[lo];
+                reversed[lo] = reversed[hi];
+                reversed[hi] = tmp;
+            }
+            routes[r] = reversed;
+            values[r] = best;
+            return true;
+        }
+
+        /**
+         * Moves single stops to the position, in the same or another route,
+         * that improves the plan the most.
+         */
+        private boolean relocate(int targets) {
+            boolean improved = false;
+            for (int a = 0; a < routeCount && !timeIsUp(); a++) {
+                for (int p = 0; p < routes[a].length; p++) {
+                    int[] source = routes[a];
+                    int node = source[p];
+                    int remaining = source.length - 1;
+                    System.arraycopy(source, 0, scratch, 0, p);
+                    System.arraycopy(source, p + 1, scratch, p, remaining - p);
+                    double sourceValue = problem.value(scratch, remaining);
+
+                    double bestGain = EPSILON;
+                    int bestRoute = -1;
+                    int bestPosition = -1;
+                    double bestTargetValue = 0;
+                    for (int b = 0; b < targets; b++) {
+                        int[] target = b == a ? scratch : routes[b];
+                        int targetLength = b == a ? remaining : target.length;
+                        double before = b == a ? values[a] : values[a] + values[b];
+                        double base = b == a ? 0 : sourceValue;
+                        for (int q = 0; q <= targetLength; q++) {
+                            if (b == a && q == p) continue;
+                            System.arraycopy(target, 0, candidate, 0, q);
+                            candidate[q] = node;
+                            System.arraycopy(target, q, candidate, q + 1, targetLength - q);
+                            double value = problem.value(candidate, targetLength + 1);
+                            double gain = base + value - before;
+                            if (gain > bestGain) {
+                                bestGain = gain;
+                                bestRoute = b;
+                                bestPosition = q;
+                                bestTargetValue = value;
+                            }
+                        }
+                    }
+                    if (bestRoute < 0) continue;
+
+                    int[] shortened = Arrays.copyOf(scratch, remaining);
+                    int[] target = bestRoute == a ? shortened : routes[bestRoute];
+                    int[] extended = new int[target.length + 1];
+                    System.arraycopy(target, 0, extended, 0, bestPosition);
+                    extended[bestPosition] = node;
+                    System.arraycopy(target, bestPosition, extended, bestPosition + 1, target.length - bestPosition);
+                    if (bestRoute == a) {
+                        routes[a] = extended;
+                        values[a] = bestTargetValue;
+                    } else {
+                        routes[a] = shortened;
+                        values[a] = sourceValue;
+                        routes[bestRoute] = extended;
+                        values[bestRoute] = bestTargetValue;
+                    }
+                    improved = true;
+                }
+            }
+            return improved;
+        }
+
+        /**
+         * Sorts the routes by decreasing value, dropping empty ones.
+         */
+        private void sortByValue() {
+            List<Integer> order = new ArrayList<>(routeCount);
+            for (int r = 0; r < routeCount; r++) {
+                if (routes[r].length > 0) {
+                    order.add(r);
+                }
+            }
+            order.sort((r1, r2) -> Double.compare(values[r2], values[r1]));
+
+            int[][] sortedRoutes = new int[order.size()][];
+            double[] sortedValues = new double[order.size()];
+            for (int k = 0; k < order.size(); k++) {
+                sortedRoutes[k] = routes[order.get(k)];
+                sortedValues[k] = values[order.get(k)];
+            }
+            routes = sortedRoutes;
+            values = sortedValues;
+            routeCount = order.size();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package fil.l3.coo.rental;
+
+import fil.l3.coo.rental.exceptions.CannotAffordRentalException;
+import fil.l3.coo.rental.exceptions.VehiculeNotAvailableException;
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.VehiculeRegistry;
+import fil.l3.coo.user.User;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Rental system that can be used from many threads at once.
+ * <p>
+ * Stations are spread over a fixed array of lock stripes by identifier. A
+ * rental holds the stripe of its station for its whole duration: the
+ * removal, the payment and, when the payment fails, the park that undoes the
+ * removal. A return holds the stripe of its destination station. Rentals and
+ * returns at stations of different stripes therefore run in parallel, while
+ * no park of this system can take the dock freed by a rental that is about to
+ * be rolled back. Users need no lock: their wallet is checked and debited in
+ * one atomic step ({@link User#tryDebit(long)}), so the same user can rent
+ * at several stations at once. A thread holds at most one stripe, so the
+ * locking cannot deadlock.
+ * <p>
+ * Vehicles parked on the same stations without going through this system
+ * (redistribution, maintenance, ...) are not covered by the stripes; the
+ * vehicle itself is still claimed atomically, as in {@link RentalSystem}.
+ */
+public class ConcurrentRentalSystem extends RentalSystem {
+
+    /** Default number of stripes. */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final Object[] stationLocks;
+    private final int mask;
+
+    /**
+     * Creates a rental system with {@link #DEFAULT_STRIPES} stripes that does
+     * not record rentals in a registry.
+     */
+    public ConcurrentRentalSystem() {
+        this(null, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a rental system recording each rental in a fleet registry.
+     *
+     * @param registry the registry to update, or {@code null}
+     * @param stripes  the number of stripes, rounded up to a power of two
+     */
+    public ConcurrentRentalSystem(VehiculeRegistry<Location> registry, int stripes) {
+        super(registry);
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Le nombre de verrous doit être positif");
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.mask = size - 1;
+        this.stationLocks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            stationLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the number of station stripes.
+     *
+     * @return the number of stripes
+     */
+    public int getStripeCount() {
+        return stationLocks.length;
+    }
+
+    /**
+     * Rents a vehicle while holding the stripe of the station.
+     */
+    @Override
+    public <T extends VehiculeComponent> Location rentVehicule(User user, Station<T> station, T vehicule)
+            throws VehiculeNotAvailableException, CannotAffordRentalException {
+        synchronized (stationLock(station)) {
+            return super.rentVehicule(user, station, vehicule);
+        }
+    }
+
+    /**
+     * Chooses and rents a vehicle while holding the stripe of the station, so
+     * that no other rental of this system takes the chosen vehicle first.
+     */
+    @Override
+    public <T extends VehiculeComponent> Location rentBest(User user, Station<T> station, RentalCriteria criteria)
+            throws VehiculeNotAvailableException, CannotAffordRentalException {
+        synchronized (stationLock(station)) {
+            return super.rentBest(user, station, criteria);
+        }
+    }
+
+    /**
+     * Returns a vehicle while holding the stripe of the destination station.
+     */
+    @Override
+    public <T extends VehiculeComponent> boolean returnVehicule(Location location, Station<T> toStation) {
+        synchronized (stationLock(toStation)) {
+            return super.returnVehicule(location, toStation);
+        }
+    }
+
+    private Object stationLock(Station<?> station) {
+        // Les identifiants sont consécutifs : des stations voisines tombent sur des verrous différents
+        return stationLocks[station.getId() & mask];
+    }
+}
@@ -11,16 +11,30 @@ public class Location {
     
     private User user;
     private VehiculeComponent vehicule;
+    private double cost;
     
     /**
-     * Creates a new rental location.
+     * Creates a new rental location, costing the current price of the
+     * vehicle.
      * 
      * @param user the user renting the vehicle
      * @param vehicule the vehicle being rented
      */
     public Location(User user, VehiculeComponent vehicule) {
+        this(user, vehicule, vehicule.getPrice());
+    }
+    
+    /**
+     * Creates a new rental location.
+     * 
+     * @param user the user renting the vehicle
+     * @param vehicule the vehicle being rented
+     * @param cost the price charged for the rental
+     */
+    public Location(User user, VehiculeComponent vehicule, double cost) {
         this.user = user;
         this.vehicule = vehicule;
+        this.cost = cost;
     }
     
     /**
@@ -42,12 +56,13 @@ public class Location {
     }
     
     /**
-     * Calculates the cost of this rental based on the vehicle's price.
+     * Gets the cost of this rental, i.e. the price of the vehicle when it was
+     * rented.
      * 
      * @return the rental cost
      */
     public double getCost() {
-        return vehicule.getPrice();
+        return cost;
     }
     
     @Override
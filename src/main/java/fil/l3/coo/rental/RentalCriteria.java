@@ -0,0 +1,63 @@
+package fil.l3.coo.rental;
+
+import fil.l3.coo.vehicule.decorator.Accessory;
+
+/**
+ * What a user asks for when renting without choosing the vehicle: a vehicle
+ * type, some accessories, or both.
+ */
+public final class RentalCriteria {
+
+    /** Criteria matching any rentable vehicle. */
+    public static final RentalCriteria ANY = new RentalCriteria(null);
+
+    private final String type;
+    private final int accessories;
+
+    /**
+     * Creates criteria.
+     *
+     * @param type        the vehicle type, as returned by
+     *                    {@link fil.l3.coo.vehicule.VehiculeComponent#getType()},
+     *                    or {@code null} for any type
+     * @param accessories the accessories the vehicle must carry; it may carry
+     *                    others
+     */
+    public RentalCriteria(String type, Accessory... accessories) {
+        int mask = 0;
+        for (Accessory accessory : accessories) {
+            mask |= accessory.getBit();
+        }
+        this.type = type;
+        this.accessories = mask;
+    }
+
+    /**
+     * Gets the requested vehicle type.
+     *
+     * @return the type, or {@code null} for any type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the mask of the requested accessories.
+     *
+     * @return the accessory mask, 0 if no accessory is required
+     */
+    public int getAccessories() {
+        return accessories;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder(type == null ? "any vehicle" : type);
+        for (Accessory accessory : Accessory.values()) {
+            if (accessory.isIn(accessories)) {
+                description.append(" + ").append(accessory.getLabel());
+            }
+        }
+        return description.toString();
+    }
+}
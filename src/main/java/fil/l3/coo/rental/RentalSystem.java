@@ -1,11 +1,14 @@
 package fil.l3.coo.rental;
 
 import fil.l3.coo.user.User;
-import fil.l3.coo.user.exceptions.*;
+import fil.l3.coo.user.exceptions.NegativeAmountException;
 import fil.l3.coo.vehicule.VehiculeComponent;
 import fil.l3.coo.vehicule.Vehicule;
 import fil.l3.coo.vehicule.decorator.VehiculeDecorator;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+import fil.l3.coo.station.RentableIndex;
 import fil.l3.coo.station.Station;
+import fil.l3.coo.station.VehiculeRegistry;
 import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
 import fil.l3.coo.station.exceptions.NullVehiculeException;
 import fil.l3.coo.station.exceptions.StationFullException;
@@ -14,9 +17,54 @@ import fil.l3.coo.rental.exceptions.*;
 /**
  * Vehicle rental system.
  * Handles renting and returning vehicles between users and stations.
+ * <p>
+ * A vehicle is claimed by an atomic transition from {@code DISPONIBLE} to
+ * {@code EN_LOCATION}: when several users rent the same vehicle at the same
+ * time, exactly one of them gets it, the others get a
+ * {@link VehiculeNotAvailableException}.
  */
 public class RentalSystem {
     
+    private final VehiculeRegistry<Location> registry;
+    
+    /**
+     * Creates a rental system that does not record rentals in a registry.
+     */
+    public RentalSystem() {
+        this(null);
+    }
+    
+    /**
+     * Creates a rental system recording each rental in a fleet registry.
+     * The stations should be attached to the same registry, so that it also
+     * knows where returned vehicles are parked.
+     * 
+     * @param registry the registry to update, or {@code null}
+     */
+    public RentalSystem(VehiculeRegistry<Location> registry) {
+        this.registry = registry;
+    }
+    
+    /**
+     * Gets the registry where rentals are recorded.
+     * 
+     * @return the registry, or {@code null} if rentals are not recorded
+     */
+    public VehiculeRegistry<Location> getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * Finds the current rental of a vehicle.
+     * 
+     * @param vehiculeId the vehicle identifier
+     * @return the rental, or {@code null} if the vehicle is not rented or
+     *         rentals are not recorded
+     */
+    public Location findRental(int vehiculeId) {
+        return registry == null ? null : registry.getRental(vehiculeId);
+    }
+    
     /**
      * Gets the underlying Vehicule from a VehiculeComponent (unwraps decorators).
      * 
@@ -38,7 +86,8 @@ public class RentalSystem {
     
     /**
      * Attempts to rent a specific vehicle from a station for a user.
-     * The user must choose the vehicle from the available vehicles in the station.
+     * The user must choose the vehicle from the available vehicles in the station;
+     * see {@link #rentBest} to let the system choose it.
      * 
      * @param <T> the type of vehicle
      * @param user the user wanting to rent
@@ -64,20 +113,84 @@ public class RentalSystem {
                 "User cannot afford rental cost: " + cost + " (balance: " + user.getWallet() + ")"
             );
         }
+        T removedVehicule;
         try {
-            T removedVehicule = station.removeVehicule(vehicule); //TODO changer la maniere dont on choisit le velo.
-            user.deductMoney(cost);
-            removedVehicule.getState().rent(getUnderlyingVehicule(removedVehicule));
-            
-            return new Location(user, removedVehicule);
+            removedVehicule = station.removeVehicule(vehicule);
         } catch (NullVehiculeException | VehiculeNotFoundException e) {
             throw new VehiculeNotAvailableException("Vehicle not found in station: " + e.getMessage());
-        } catch (InsufficientFundsException | NegativeAmountException e) {
+        }
+        Vehicule base = getUnderlyingVehicule(removedVehicule);
+        if (!base.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION)) {
+            repark(station, removedVehicule);
+            throw new VehiculeNotAvailableException(
+                "Vehicle cannot be rented in state: " + removedVehicule.getStateName()
+            );
+        }
+        boolean paid;
+        try {
+            // Vérification du solde et débit en une seule opération atomique
+            paid = user.tryDebit(User.toCents(cost));
+        } catch (NegativeAmountException e) {
+            paid = false;
+        }
+        if (!paid) {
+            base.tryTransition(VehiculeStateId.EN_LOCATION, VehiculeStateId.DISPONIBLE);
+            repark(station, removedVehicule);
+            throw new CannotAffordRentalException(
+                "Failed to deduct rental cost: " + cost + " (balance: " + user.getWallet() + ")"
+            );
+        }
+        base.incrementRentalCount();
+        
+        Location location = new Location(user, removedVehicule, cost);
+        if (registry != null) {
+            registry.rented(removedVehicule, location);
+        }
+        return location;
+    }
+    
+    /**
+     * Rents the best vehicle of a station matching some criteria: among the
+     * rentable vehicles of the requested type carrying the requested
+     * accessories, the one with the lowest rental count, so that wear is
+     * spread over the fleet. The vehicle is found through the
+     * {@link Station#getRentableIndex() rentable index} of the station,
+     * without scanning its docks.
+     * 
+     * @param <T> the type of vehicle
+     * @param user the user wanting to rent
+     * @param station the station to rent from
+     * @param criteria the requested type and accessories
+     * @return the rental location if successful
+     * @throws VehiculeNotAvailableException if no vehicle of the station matches
+     * @throws CannotAffordRentalException if the user cannot afford the rental
+     */
+    public <T extends VehiculeComponent> Location rentBest(User user, Station<T> station, RentalCriteria criteria)
+            throws VehiculeNotAvailableException, CannotAffordRentalException {
+        RentableIndex<T> index = station.getRentableIndex();
+        while (true) {
+            T best = index.best(criteria.getType(), criteria.getAccessories());
+            if (best == null) {
+                throw new VehiculeNotAvailableException("No vehicle matching " + criteria + " in station " + station.getId());
+            }
             try {
-                station.parkVehicule(vehicule);
-            } catch (NullVehiculeException | StationFullException ex) {
+                return rentVehicule(user, station, best);
+            } catch (VehiculeNotAvailableException e) {
+                // Pris entre-temps par un autre thread : on passe au suivant
+                if (!station.containsVehicule(best)) {
+                    index.remove(best);
+                }
             }
-            throw new CannotAffordRentalException("Failed to deduct rental cost: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Puts back a vehicle removed for a rental that did not happen.
+     */
+    private <T extends VehiculeComponent> void repark(Station<T> station, T vehicule) {
+        try {
+            station.parkVehicule(vehicule);
+        } catch (NullVehiculeException | StationFullException e) {
         }
     }
     
@@ -97,7 +210,11 @@ public class RentalSystem {
         }
         try {
             vehicule.getState().returnVehicule(getUnderlyingVehicule(vehicule));
-            
+        } catch (IllegalStateException e) {
+            // Rendu entre-temps par un autre thread
+            return false;
+        }
+        try {
             toStation.parkVehicule(vehicule);
             return true;
         } catch (NullVehiculeException | StationFullException e) {
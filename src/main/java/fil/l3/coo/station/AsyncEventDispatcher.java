@@ -0,0 +1,298 @@
+package fil.l3.coo.station;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Asynchronous dispatcher for station notifications.
+ * <p>
+ * Stations attached to this dispatcher (see
+ * {@link Station#setEventDispatcher(AsyncEventDispatcher)}) only publish an
+ * event into a preallocated ring buffer and return; a single consumer thread
+ * drains the ring and calls the station observers, in publication order.
+ * Nothing is allocated per event: each slot of the ring is reused once the
+ * consumer has processed it.
+ * <p>
+ * Several threads may publish at the same time. Each event gets a sequence
+ * number; a slot is handed to the consumer by writing its sequence number in
+ * the {@code published} array once the slot has been filled. Closing the
+ * dispatcher sets a flag in the claim counter itself, so that a sequence is
+ * either claimed before the close, and then delivered, or refused.
+ * <p>
+ * Observers are called from the consumer thread, so they must not assume
+ * they run on the thread that parked or removed the vehicle. Call
+ * {@link #awaitDrained(long, TimeUnit)} before reading observer state (for
+ * example before a control center tick).
+ */
+public class AsyncEventDispatcher implements AutoCloseable {
+
+    /** Event type: a vehicle has been parked. */
+    public static final int PARKED = 0;
+    /** Event type: a vehicle has been removed. */
+    public static final int REMOVED = 1;
+
+    /**
+     * How a thread waits for the ring: the consumer when there is nothing to
+     * read, producers when the ring is full.
+     */
+    public enum WaitStrategy {
+        /** Spins on the CPU: lowest latency, keeps one core busy. */
+        BUSY_SPIN,
+        /** Spins a little, then yields the CPU to other threads. */
+        YIELDING,
+        /** Spins, yields, then parks for short periods: lowest CPU usage. */
+        SLEEPING;
+
+        void idle(int attempt) {
+            if (this == BUSY_SPIN || attempt < 100) {
+                Thread.onSpinWait();
+            } else if (this == YIELDING || attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(50_000L);
+            }
+        }
+    }
+
+    /**
+     * What a producer does when the ring is full.
+     */
+    public enum Backpressure {
+        /** Waits (with the wait strategy) until the consumer frees a slot. */
+        BLOCK,
+        /** Drops the event and counts it, see {@link #getDroppedEvents()}. */
+        DROP
+    }
+
+    // Bit du compteur de réservations qui marque la fermeture
+    private static final long CLOSED = 1L << 62;
+
+    private static final class EventSlot {
+        private Station<?> station;
+        private VehiculeComponent vehicule;
+        private int type;
+    }
+
+    private final EventSlot[] ring;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed;
+    private final AtomicLong consumed;
+    private final AtomicLong dropped;
+    private final AtomicLong failed;
+    private final WaitStrategy waitStrategy;
+    private final Backpressure backpressure;
+    private final Thread consumer;
+
+    /**
+     * Creates a dispatcher and starts its consumer thread.
+     * 
+     * @param bufferSize   number of event slots, rounded up to a power of two
+     * @param waitStrategy how producers and consumer wait on the ring
+     * @param backpressure what producers do when the ring is full
+     */
+    public AsyncEventDispatcher(int bufferSize, WaitStrategy waitStrategy, Backpressure backpressure) {
+        if (bufferSize < 1 || bufferSize > (1 << 30)) {
+            throw new IllegalArgumentException("Taille de buffer invalide : " + bufferSize);
+        }
+        int size = Integer.highestOneBit(bufferSize);
+        if (size < bufferSize) {
+            size <<= 1;
+        }
+        this.ring = new EventSlot[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            ring[i] = new EventSlot();
+            published.set(i, -1L);
+        }
+        this.mask = size - 1;
+        this.claimed = new AtomicLong();
+        this.consumed = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.failed = new AtomicLong();
+        this.waitStrategy = waitStrategy;
+        this.backpressure = backpressure;
+        this.consumer = new Thread(this::consume, "station-event-dispatcher");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Creates a blocking dispatcher with a yielding wait strategy.
+     * 
+     * @param bufferSize number of event slots, rounded up to a power of two
+     */
+    public AsyncEventDispatcher(int bufferSize) {
+        this(bufferSize, WaitStrategy.YIELDING, Backpressure.BLOCK);
+    }
+
+    /**
+     * Publishes an event for the consumer thread.
+     * 
+     * @param station  the station where the event happened
+     * @param vehicule the vehicle concerned
+     * @param type     {@link #PARKED} or {@link #REMOVED}
+     * @return true if the event was published, false if it was dropped
+     * @throws IllegalStateException if the dispatcher is closed
+     */
+    public boolean publish(Station<?> station, VehiculeComponent vehicule, int type) {
+        long sequence = backpressure == Backpressure.BLOCK ? claimBlocking() : claimOrDrop();
+        if (sequence < 0) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int index = (int) sequence & mask;
+        EventSlot slot = ring[index];
+        slot.station = station;
+        slot.vehicule = vehicule;
+        slot.type = type;
+        published.set(index, sequence);
+        return true;
+    }
+
+    private long claimBlocking() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            checkOpen(sequence);
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        // Réservé avant la fermeture : le consommateur ira jusqu'à cet événement
+        int attempt = 0;
+        while (sequence - consumed.get() >= ring.length) {
+            waitStrategy.idle(attempt++);
+        }
+        return sequence;
+    }
+
+    private long claimOrDrop() {
+        while (true) {
+            long sequence = claimed.get();
+            checkOpen(sequence);
+            if (sequence - consumed.get() >= ring.length) {
+                return -1L;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private static void checkOpen(long claims) {
+        if ((claims & CLOSED) != 0) {
+            throw new IllegalStateException("Le dispatcher est arrêté");
+        }
+    }
+
+    private void consume() {
+        long next = 0;
+        int attempt = 0;
+        while (true) {
+            long claims = claimed.get();
+            if (next == (claims & ~CLOSED)) {
+                if ((claims & CLOSED) != 0) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            int index = (int) next & mask;
+            if (published.get(index) != next) {
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            EventSlot slot = ring[index];
+            Station<?> station = slot.station;
+            VehiculeComponent vehicule = slot.vehicule;
+            int type = slot.type;
+            slot.station = null;
+            slot.vehicule = null;
+            deliver(station, vehicule, type);
+            consumed.lazySet(++next);
+        }
+    }
+
+    private void deliver(Station<?> station, VehiculeComponent vehicule, int type) {
+        try {
+            if (type == PARKED) {
+                station.deliverVehicleParked(vehicule);
+            } else {
+                station.deliverVehicleRemoved(vehicule);
+            }
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until every event published so far has been handed to the observers.
+     * 
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if the ring was drained, false if the timeout elapsed first
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) {
+        long target = claimed.get() & ~CLOSED;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        while (consumed.get() < target) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            waitStrategy.idle(attempt++);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of events waiting in the ring.
+     * 
+     * @return the number of published but not yet consumed events
+     */
+    public long getPendingEvents() {
+        return (claimed.get() & ~CLOSED) - consumed.get();
+    }
+
+    /**
+     * Gets the number of events dropped because the ring was full.
+     * 
+     * @return the dropped events count
+     */
+    public long getDroppedEvents() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of events for which an observer threw an exception.
+     * 
+     * @return the failed deliveries count
+     */
+    public long getFailedDeliveries() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting events, delivers the remaining ones and stops the
+     * consumer thread. Every event claimed before the close is delivered,
+     * including those of producers still waiting for room in the ring; later
+     * publications fail with an {@link IllegalStateException}. Stations
+     * should stop publishing (or be detached) before the dispatcher is
+     * closed.
+     */
+    @Override
+    public void close() {
+        long claims;
+        do {
+            claims = claimed.get();
+        } while ((claims & CLOSED) == 0 && !claimed.compareAndSet(claims, claims | CLOSED));
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
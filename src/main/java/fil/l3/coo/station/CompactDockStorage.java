@@ -0,0 +1,155 @@
+package fil.l3.coo.station;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Single-threaded dock storage of a {@link Station}.
+ * <p>
+ * Vehicles are stored in a fixed array of dock slots, kept compact (slots
+ * {@code 0..occupied-1} are in use), together with an index from each
+ * vehicle to its slot. Parking, removing and membership checks are therefore
+ * constant time: removing a vehicle moves the vehicle of the last used slot
+ * into the freed one.
+ *
+ * @param <T> the type of vehicle stored
+ */
+final class CompactDockStorage<T extends VehiculeComponent> implements DockStorage<T> {
+
+    private final T[] slots;
+    private final Map<T, Integer> slotIndex;
+    private int occupied;
+    private final List<T> view;
+
+    @SuppressWarnings("unchecked")
+    CompactDockStorage(int capacity) {
+        this.slots = (T[]) new VehiculeComponent[capacity];
+        this.slotIndex = new HashMap<>(capacity * 2);
+        this.view = new ParkedView();
+    }
+
+    @Override
+    public int occupied() {
+        return occupied;
+    }
+
+    @Override
+    public boolean hasSpace() {
+        return occupied < slots.length;
+    }
+
+    @Override
+    public boolean contains(T vehicule) {
+        return slotIndex.containsKey(vehicule);
+    }
+
+    @Override
+    public void park(T vehicule) throws StationFullException {
+        if (occupied == slots.length) {
+            throw new StationFullException("La station est pleine (capacité: " + slots.length + ")");
+        }
+        if (slotIndex.putIfAbsent(vehicule, occupied) != null) {
+            throw new IllegalStateException("Ce véhicule est déjà garé dans cette station");
+        }
+        slots[occupied++] = vehicule;
+    }
+
+    /**
+     * Frees the slot of a vehicle by moving the vehicle of the last used
+     * slot into it, so that used slots stay contiguous.
+     */
+    @Override
+    public boolean remove(T vehicule) {
+        Integer slot = slotIndex.remove(vehicule);
+        if (slot == null) {
+            return false;
+        }
+        int last = --occupied;
+        if (slot != last) {
+            T moved = slots[last];
+            slots[slot] = moved;
+            slotIndex.put(moved, slot);
+        }
+        slots[last] = null;
+        return true;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= occupied) {
+            throw new IndexOutOfBoundsException("Emplacement " + index + " inoccupé (occupés: " + occupied + ")");
+        }
+        return slots[index];
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < occupied; i++) {
+            action.accept(slots[i]);
+        }
+    }
+
+    @Override
+    public int count(Predicate<? super T> filter) {
+        int count = 0;
+        for (int i = 0; i < occupied; i++) {
+            if (filter.test(slots[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public T find(Predicate<? super T> filter) {
+        for (int i = 0; i < occupied; i++) {
+            if (filter.test(slots[i])) {
+                return slots[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<T> copy() {
+        List<T> copy = new ArrayList<>(occupied);
+        for (int i = 0; i < occupied; i++) {
+            copy.add(slots[i]);
+        }
+        return copy;
+    }
+
+    @Override
+    public List<T> view() {
+        return view;
+    }
+
+    /**
+     * Unmodifiable list backed directly by the slot array.
+     */
+    private class ParkedView extends AbstractList<T> {
+
+        @Override
+        public T get(int index) {
+            return CompactDockStorage.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return occupied;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && slotIndex.containsKey(o);
+        }
+    }
+}
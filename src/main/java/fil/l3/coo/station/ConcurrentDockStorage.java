@@ -0,0 +1,198 @@
+package fil.l3.coo.station;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Lock-free dock storage of a {@link ConcurrentStation}.
+ * <p>
+ * A park first reserves a place by incrementing a reservation counter with a
+ * compare-and-set (this is what enforces the capacity), then claims a free
+ * dock slot with a compare-and-set on that slot. A removal releases the slot
+ * of the vehicle and then the reservation. The occupancy is a separate
+ * counter of the filled docks, so parks still in progress are not counted.
+ * The vehicle-to-slot index is a {@link ConcurrentHashMap}, so that only one
+ * thread can win the removal of a given vehicle.
+ *
+ * @param <T> the type of vehicle stored
+ */
+final class ConcurrentDockStorage<T extends VehiculeComponent> implements DockStorage<T> {
+
+    /** Index value of a vehicle whose park is still in progress. */
+    private static final int PARKING = -1;
+
+    private final AtomicReferenceArray<T> docks;
+    private final AtomicInteger reserved;
+    private final AtomicInteger filled;
+    private final ConcurrentHashMap<T, Integer> slotIndex;
+
+    ConcurrentDockStorage(int capacity) {
+        this.docks = new AtomicReferenceArray<>(capacity);
+        this.reserved = new AtomicInteger();
+        this.filled = new AtomicInteger();
+        this.slotIndex = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    /**
+     * Gets the number of filled docks. Parks still in progress are not
+     * counted, although their place is already reserved.
+     */
+    @Override
+    public int occupied() {
+        return filled.get();
+    }
+
+    /**
+     * Counts the places reserved by parks still in progress as taken.
+     */
+    @Override
+    public boolean hasSpace() {
+        return reserved.get() < docks.length();
+    }
+
+    @Override
+    public boolean contains(T vehicule) {
+        Integer slot = slotIndex.get(vehicule);
+        return slot != null && slot != PARKING;
+    }
+
+    @Override
+    public void park(T vehicule) throws StationFullException {
+        reservePlace();
+        if (slotIndex.putIfAbsent(vehicule, PARKING) != null) {
+            reserved.decrementAndGet();
+            throw new IllegalStateException("Ce véhicule est déjà garé dans cette station");
+        }
+
+        int slot = claimSlot(vehicule);
+        filled.incrementAndGet();
+        slotIndex.put(vehicule, slot);
+    }
+
+    @Override
+    public boolean remove(T vehicule) {
+        Integer slot = slotIndex.get(vehicule);
+        if (slot == null || slot == PARKING || !slotIndex.remove(vehicule, slot)) {
+            return false;
+        }
+
+        // Le slot appartient au thread qui a retiré l'entrée de l'index ; le
+        // véhicule garé peut être une autre vue, égale, de celui demandé
+        docks.set(slot, null);
+        filled.decrementAndGet();
+        reserved.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Takes one place in the reservation counter, failing if the station is
+     * full.
+     *
+     * @throws StationFullException if every place is already taken
+     */
+    private void reservePlace() throws StationFullException {
+        int capacity = docks.length();
+        while (true) {
+            int current = reserved.get();
+            if (current >= capacity) {
+                throw new StationFullException("La station est pleine (capacité: " + capacity + ")");
+            }
+            if (reserved.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts a vehicle in a free dock slot. A place has already been reserved,
+     * so there is always at least one free slot left for this thread; the
+     * scan starts at a random slot to spread contention between threads.
+     *
+     * @param vehicule the vehicle to store
+     * @return the slot where the vehicle has been stored
+     */
+    private int claimSlot(T vehicule) {
+        int capacity = docks.length();
+        int slot = ThreadLocalRandom.current().nextInt(capacity);
+        while (!docks.compareAndSet(slot, null, vehicule)) {
+            slot = (slot + 1) % capacity;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the {@code index}-th vehicle found in the dock slots.
+     */
+    @Override
+    public T get(int index) {
+        if (index >= 0) {
+            int seen = 0;
+            for (int i = 0; i < docks.length(); i++) {
+                T vehicule = docks.get(i);
+                if (vehicule != null && seen++ == index) {
+                    return vehicule;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Emplacement " + index + " inoccupé");
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < docks.length(); i++) {
+            T vehicule = docks.get(i);
+            if (vehicule != null) {
+                action.accept(vehicule);
+            }
+        }
+    }
+
+    @Override
+    public int count(Predicate<? super T> filter) {
+        int count = 0;
+        for (int i = 0; i < docks.length(); i++) {
+            T vehicule = docks.get(i);
+            if (vehicule != null && filter.test(vehicule)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public T find(Predicate<? super T> filter) {
+        for (int i = 0; i < docks.length(); i++) {
+            T vehicule = docks.get(i);
+            if (vehicule != null && filter.test(vehicule)) {
+                return vehicule;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<T> copy() {
+        List<T> copy = new ArrayList<>(docks.length());
+        forEach(copy::add);
+        return copy;
+    }
+
+    /**
+     * A live view cannot be both indexed and consistent under concurrent
+     * updates, so this storage returns a snapshot instead.
+     */
+    @Override
+    public List<T> view() {
+        return Collections.unmodifiableList(copy());
+    }
+}
@@ -0,0 +1,51 @@
+package fil.l3.coo.station;
+
+import java.util.function.Consumer;
+
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Thread-safe station where vehicles can be parked and removed from many
+ * threads at once, without any global lock.
+ * <p>
+ * Its docks are a {@code ConcurrentDockStorage}: a park first reserves a
+ * place by incrementing a private reservation counter with a compare-and-set
+ * (this is what enforces the capacity), then claims a free dock slot with a
+ * compare-and-set on that slot. A removal releases the slot of the vehicle
+ * and then the reservation. The occupancy reported by
+ * {@link #getOccupiedSpaces()} is a separate counter of the filled docks, so
+ * parks still in progress are not counted, while
+ * {@link #hasAvailableSpace()} counts them as taken.
+ * <p>
+ * Read operations ({@link #getParkedVehicule(int)},
+ * {@link #forEachParkedVehicule(Consumer)}, ...) are weakly consistent: they
+ * never fail because of concurrent modifications, but may or may not see
+ * parks and removals that happen while they run. {@link #getParkedView()}
+ * returns a snapshot rather than a live view.
+ * 
+ * @param <T> the type of vehicle this station can handle
+ */
+public class ConcurrentStation<T extends VehiculeComponent> extends Station<T> {
+
+    /**
+     * Creates a new concurrent station with the specified capacity.
+     * The capacity is constrained between 10 and 20, as for {@link Station}.
+     * 
+     * @param capacity the desired capacity (will be clamped between 10 and 20)
+     */
+    public ConcurrentStation(int capacity) {
+        this(capacity, 0, 0);
+    }
+
+    /**
+     * Creates a new concurrent station with the specified capacity and
+     * location.
+     * 
+     * @param capacity the desired capacity (will be clamped between 10 and 20)
+     * @param x        the east coordinate of the station, in meters
+     * @param y        the north coordinate of the station, in meters
+     */
+    public ConcurrentStation(int capacity, double x, double y) {
+        super(capacity, x, y, ConcurrentDockStorage::new);
+    }
+}
@@ -0,0 +1,106 @@
+package fil.l3.coo.station;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Dock structure holding the vehicles parked in a station.
+ * <p>
+ * A {@link Station} delegates the placement of its vehicles to exactly one
+ * storage, chosen when it is created: the storage enforces the capacity and
+ * keeps each vehicle at most once, while the station handles availability
+ * and notifications.
+ *
+ * @param <T> the type of vehicle stored
+ */
+interface DockStorage<T extends VehiculeComponent> {
+
+    /**
+     * Gets the number of stored vehicles.
+     *
+     * @return the number of occupied docks
+     */
+    int occupied();
+
+    /**
+     * Checks if a park started now would find a place.
+     *
+     * @return true if a place is left
+     */
+    boolean hasSpace();
+
+    /**
+     * Checks if a vehicle is stored.
+     *
+     * @param vehicule the vehicle to look for, not {@code null}
+     * @return true if the vehicle occupies a dock
+     */
+    boolean contains(T vehicule);
+
+    /**
+     * Stores a vehicle in a free dock.
+     *
+     * @param vehicule the vehicle to store, not {@code null}
+     * @throws StationFullException if every place is taken
+     * @throws IllegalStateException if the vehicle is already stored
+     */
+    void park(T vehicule) throws StationFullException;
+
+    /**
+     * Frees the dock of a vehicle.
+     *
+     * @param vehicule the vehicle to remove, not {@code null}
+     * @return false if the vehicle was not stored
+     */
+    boolean remove(T vehicule);
+
+    /**
+     * Gets the {@code index}-th stored vehicle.
+     *
+     * @param index the position among the stored vehicles
+     * @return the vehicle at this position
+     * @throws IndexOutOfBoundsException if fewer vehicles are stored
+     */
+    T get(int index);
+
+    /**
+     * Applies an action to every stored vehicle.
+     *
+     * @param action the action to apply
+     */
+    void forEach(Consumer<? super T> action);
+
+    /**
+     * Counts the stored vehicles matching a predicate.
+     *
+     * @param filter the predicate to test
+     * @return the number of vehicles accepted by the predicate
+     */
+    int count(Predicate<? super T> filter);
+
+    /**
+     * Finds the first stored vehicle matching a predicate.
+     *
+     * @param filter the predicate to test
+     * @return the first vehicle accepted by the predicate, or {@code null}
+     */
+    T find(Predicate<? super T> filter);
+
+    /**
+     * Copies the stored vehicles.
+     *
+     * @return a new list of the stored vehicles
+     */
+    List<T> copy();
+
+    /**
+     * Gets a read-only list of the stored vehicles.
+     *
+     * @return an unmodifiable view or snapshot of the stored vehicles
+     */
+    List<T> view();
+}
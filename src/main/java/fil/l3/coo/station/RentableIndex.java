@@ -0,0 +1,233 @@
+package fil.l3.coo.station;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+
+/**
+ * Index of the vehicles parked at one station, answering "the best rentable
+ * vehicle of this type with these accessories" without scanning the docks.
+ * <p>
+ * Vehicles are bucketed by type and accessory mask, and within a bucket by
+ * state and rental count: one level per rental count, from 0 up to the
+ * {@link Vehicule#getMaintenanceThreshold() maintenance threshold}, for the
+ * rentable vehicles, and one level for those that cannot be rented or are
+ * due for maintenance. A query
+ * visits the matching buckets level by level and returns the first rentable
+ * vehicle, so the least worn vehicles go out first. The number of buckets
+ * and levels is bounded by the number of types, accessory masks and rental
+ * counts, not by the number of vehicles.
+ * <p>
+ * States and rental counts change without the station being told (a vehicle
+ * is sent to maintenance or repaired while parked), so they are checked
+ * during queries: a vehicle met in a rentable level that cannot be rented
+ * any more moves to the other level, and each query first moves the vehicles
+ * of that level that became rentable again to the level of their current
+ * rental count. Since a vehicle is only repaired after being due for
+ * maintenance, its rental count never goes down while it sits in a rentable
+ * level. The index is kept up to date by its
+ * {@link Station#getRentableIndex() station}; its methods are synchronized,
+ * so that a {@link ConcurrentStation} can update it from several threads.
+ *
+ * @param <T> the type of vehicle handled by the station
+ */
+public class RentableIndex<T extends VehiculeComponent> {
+
+    private static final int LEVELS = Vehicule.getMaintenanceThreshold();
+    private static final int UNAVAILABLE = LEVELS;
+
+    private final List<Bucket<T>> buckets = new ArrayList<>();
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+
+    /**
+     * Vehicles of one type and accessory mask, by rental count, the last
+     * level holding those that cannot be rented.
+     */
+    private static final class Bucket<T> {
+
+        private final String type;
+        private final int accessories;
+        private final List<List<T>> levels;
+
+        Bucket(String type, int accessories) {
+            this.type = type;
+            this.accessories = accessories;
+            this.levels = new ArrayList<>(LEVELS + 1);
+            for (int i = 0; i <= LEVELS; i++) {
+                levels.add(new ArrayList<>(2));
+            }
+        }
+
+        boolean matches(String type, int accessories) {
+            return (type == null || type.equals(this.type)) && (this.accessories & accessories) == accessories;
+        }
+    }
+
+    /**
+     * Position of an indexed vehicle.
+     */
+    private static final class Entry<T> {
+
+        private final Bucket<T> bucket;
+        private int level;
+        private int position;
+
+        Entry(Bucket<T> bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    /**
+     * Adds a parked vehicle. Adding a vehicle already indexed has no effect.
+     *
+     * @param vehicule the parked vehicle
+     */
+    public synchronized void add(T vehicule) {
+        if (entries.containsKey(vehicule)) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(bucket(vehicule.getType(), vehicule.getAccessories()));
+        entries.put(vehicule, entry);
+        insert(vehicule, entry, levelOf(vehicule));
+    }
+
+    /**
+     * Removes a vehicle that left the station.
+     *
+     * @param vehicule the removed vehicle
+     * @return {@code true} if the vehicle was indexed
+     */
+    public synchronized boolean remove(T vehicule) {
+        Entry<T> entry = entries.remove(vehicule);
+        if (entry == null) {
+            return false;
+        }
+        detach(entry);
+        return true;
+    }
+
+    /**
+     * Returns the number of indexed vehicles, rentable or not.
+     *
+     * @return the number of vehicles
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all the vehicles.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        buckets.clear();
+    }
+
+    /**
+     * Finds the rentable vehicle with the lowest rental count among those of
+     * a type carrying some accessories. The vehicle stays indexed until it
+     * is removed from the station.
+     *
+     * @param type        the vehicle type, as returned by
+     *                    {@link VehiculeComponent#getType()}, or {@code null}
+     *                    for any type
+     * @param accessories the mask of the accessories the vehicle must carry,
+     *                    0 for none required
+     * @return the vehicle, or {@code null} if no rentable vehicle matches
+     */
+    public synchronized T best(String type, int accessories) {
+        for (Bucket<T> bucket : buckets) {
+            if (bucket.matches(type, accessories)) {
+                refresh(bucket);
+            }
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            for (Bucket<T> bucket : buckets) {
+                if (!bucket.matches(type, accessories)) {
+                    continue;
+                }
+                List<T> vehicles = bucket.levels.get(level);
+                for (int i = 0; i < vehicles.size(); i++) {
+                    T vehicule = vehicles.get(i);
+                    int current = levelOf(vehicule);
+                    if (current == level) {
+                        return vehicule;
+                    }
+                    move(vehicule, current);
+                    if (current < level) {
+                        return vehicule;
+                    }
+                    // Le dernier véhicule du niveau a pris sa place
+                    i--;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves the vehicles of a bucket that became rentable again to the level
+     * of their rental count, which maintenance may have reset.
+     */
+    private void refresh(Bucket<T> bucket) {
+        List<T> unavailable = bucket.levels.get(UNAVAILABLE);
+        for (int i = unavailable.size() - 1; i >= 0; i--) {
+            T vehicule = unavailable.get(i);
+            int level = levelOf(vehicule);
+            if (level != UNAVAILABLE) {
+                move(vehicule, level);
+            }
+        }
+    }
+
+    private void move(T vehicule, int level) {
+        Entry<T> entry = entries.get(vehicule);
+        detach(entry);
+        insert(vehicule, entry, level);
+    }
+
+    /**
+     * Level of a vehicle: its rental count if it can be rented, the last
+     * level otherwise. A vehicle due for maintenance is not offered, since
+     * the control center is about to take it.
+     */
+    private static int levelOf(VehiculeComponent vehicule) {
+        if (!vehicule.isAvailable() || vehicule.getStateId() != VehiculeStateId.DISPONIBLE
+                || vehicule.needsMaintenance()) {
+            return UNAVAILABLE;
+        }
+        return Math.min(Math.max(vehicule.getRentalCount(), 0), LEVELS - 1);
+    }
+
+    private Bucket<T> bucket(String type, int accessories) {
+        for (Bucket<T> bucket : buckets) {
+            if (bucket.accessories == accessories && bucket.type.equals(type)) {
+                return bucket;
+            }
+        }
+        Bucket<T> bucket = new Bucket<>(type, accessories);
+        buckets.add(bucket);
+        return bucket;
+    }
+
+    private void insert(T vehicule, Entry<T> entry, int level) {
+        List<T> vehicles = entry.bucket.levels.get(level);
+        entry.level = level;
+        entry.position = vehicles.size();
+        vehicles.add(vehicule);
+    }
+
+    private void detach(Entry<T> entry) {
+        List<T> vehicles = entry.bucket.levels.get(entry.level);
+        T last = vehicles.remove(vehicles.size() - 1);
+        if (entry.position < vehicles.size()) {
+            vehicles.set(entry.position, last);
+            entries.get(last).position = entry.position;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package fil.l3.coo.station;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import fil.l3.coo.vehicule.Vehicule;
 import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.decorator.VehiculeDecorator;
+import fil.l3.coo.vehicule.store.OffHeapFleetStore;
 import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
 import fil.l3.coo.station.exceptions.NullVehiculeException;
 import fil.l3.coo.station.exceptions.StationFullException;
@@ -10,30 +17,75 @@ import fil.l3.coo.station.exceptions.StationFullException;
 /**
  * Generic station that can park and manage vehicles of a specific type.
  * Type parameter T must extend VehiculeComponent to ensure type safety.
+ * <p>
+ * Parked vehicles are kept in a single dock structure, a
+ * {@code DockStorage} chosen by the concrete station. A plain station uses
+ * a {@code CompactDockStorage}: a fixed array of dock slots kept compact
+ * (slots {@code 0..occupied-1} are in use), together with an index from each
+ * vehicle to its slot. Parking, removing and membership checks are therefore
+ * constant time: removing a vehicle moves the vehicle of the last used slot
+ * into the freed one.
+ * <p>
+ * This class is not thread-safe; use {@link ConcurrentStation} when vehicles
+ * are parked and removed from several threads.
  * 
  * @param <T> the type of vehicle this station can handle
  */
 public class Station<T extends VehiculeComponent> {
 
-    private static int nextId = 1;
+    private static final AtomicInteger nextId = new AtomicInteger(1);
 
     private final int id;
     private final int capacity;
-    private final List<T> parkedVehicules;
+    private final double x;
+    private final double y;
+    private final DockStorage<T> docks;
     private final List<StationObserver> observers;
+    private volatile AsyncEventDispatcher dispatcher;
+    private volatile VehiculeRegistry<?> registry;
+    private volatile RentableIndex<T> rentableIndex;
 
     /**
-     * Creates a new station with the specified capacity.
+     * Creates a new station with the specified capacity, located at the
+     * origin of the city plane.
      * The capacity is automatically constrained between 10 and 20.
      * The station starts empty with no vehicles parked.
      * 
      * @param capacity the desired capacity (will be clamped between 10 and 20)
      */
     public Station(int capacity) {
-        this.id = nextId++;
+        this(capacity, 0, 0);
+    }
+
+    /**
+     * Creates a new station with the specified capacity and location.
+     * The capacity is automatically constrained between 10 and 20.
+     * The station starts empty with no vehicles parked.
+     * 
+     * @param capacity the desired capacity (will be clamped between 10 and 20)
+     * @param x        the east coordinate of the station, in meters
+     * @param y        the north coordinate of the station, in meters
+     */
+    public Station(int capacity, double x, double y) {
+        this(capacity, x, y, CompactDockStorage::new);
+    }
+
+    /**
+     * Creates a new station whose docks are built by the given factory,
+     * called with the clamped capacity.
+     * 
+     * @param capacity the desired capacity (will be clamped between 10 and 20)
+     * @param x        the east coordinate of the station, in meters
+     * @param y        the north coordinate of the station, in meters
+     * @param storage  the factory of the dock structure
+     */
+    Station(int capacity, double x, double y, IntFunction<DockStorage<T>> storage) {
+        this.id = nextId.getAndIncrement();
         this.capacity = Math.max(10, Math.min(20, capacity));
-        this.parkedVehicules = new ArrayList<>();
-        this.observers = new ArrayList<>();
+        this.x = x;
+        this.y = y;
+        this.docks = storage.apply(this.capacity);
+        this.observers = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -45,13 +97,42 @@ public class Station<T extends VehiculeComponent> {
         return id;
     }
 
+    /**
+     * Gets the east coordinate of this station in the city plane.
+     * 
+     * @return the x coordinate, in meters
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the north coordinate of this station in the city plane.
+     * 
+     * @return the y coordinate, in meters
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Computes the straight-line distance from this station to a point.
+     * 
+     * @param x the x coordinate of the point, in meters
+     * @param y the y coordinate of the point, in meters
+     * @return the distance, in meters
+     */
+    public double distanceTo(double x, double y) {
+        return Math.hypot(this.x - x, this.y - y);
+    }
+
     /**
      * Gets the number of vehicles currently parked in this station.
      * 
      * @return the number of parked vehicles
      */
     public int getOccupiedSpaces() {
-        return parkedVehicules.size();
+        return docks.occupied();
     }
 
     /**
@@ -60,7 +141,7 @@ public class Station<T extends VehiculeComponent> {
      * @return the number of free spaces for parking vehicles
      */
     public int getAvailableSpaces() {
-        return capacity - parkedVehicules.size();
+        return capacity - getOccupiedSpaces();
     }
 
     /**
@@ -92,13 +173,149 @@ public class Station<T extends VehiculeComponent> {
         observers.remove(observer);
     }
 
-    private void notifyVehicleParked(T vehicule) {
+    /**
+     * Switches this station to asynchronous notifications: parks and removals
+     * only publish an event to the dispatcher, whose consumer thread then calls
+     * the observers. Passing {@code null} restores synchronous notifications.
+     * 
+     * @param dispatcher the dispatcher to publish to, or {@code null}
+     */
+    public void setEventDispatcher(AsyncEventDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Gets the dispatcher used for asynchronous notifications.
+     * 
+     * @return the dispatcher, or {@code null} if observers are notified synchronously
+     */
+    public AsyncEventDispatcher getEventDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Attaches a fleet registry, which then records every park and removal
+     * of this station synchronously, even when observers are notified
+     * asynchronously. Passing {@code null} detaches the registry.
+     * 
+     * @param registry the registry to keep up to date, or {@code null}
+     */
+    public void setRegistry(VehiculeRegistry<?> registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Gets the fleet registry attached to this station.
+     * 
+     * @return the registry, or {@code null} if none is attached
+     */
+    public VehiculeRegistry<?> getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the index of the rentable vehicles of this station, creating it
+     * on first use. Once created, the index is updated with every park and
+     * removal, before the observers are notified.
+     * 
+     * @return the index of the parked vehicles
+     */
+    public RentableIndex<T> getRentableIndex() {
+        RentableIndex<T> index = rentableIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = rentableIndex;
+                if (index == null) {
+                    index = new RentableIndex<>();
+                    // Publié avant d'être rempli, pour ne manquer aucun dépôt concurrent
+                    rentableIndex = index;
+                    forEachParkedVehicule(index::add);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Notifies all observers that a vehicle has been parked, either directly
+     * or through the asynchronous dispatcher. The attached registry, the
+     * station field of an off-heap record and the rentable index, if any,
+     * are updated first.
+     * 
+     * @param vehicule the parked vehicle
+     */
+    protected void notifyVehicleParked(T vehicule) {
+        VehiculeRegistry<?> fleet = registry;
+        if (fleet != null) {
+            fleet.parked(vehicule, this);
+        }
+        recordStation(vehicule, true);
+        RentableIndex<T> index = rentableIndex;
+        if (index != null) {
+            index.add(vehicule);
+        }
+        AsyncEventDispatcher async = dispatcher;
+        if (async != null) {
+            async.publish(this, vehicule, AsyncEventDispatcher.PARKED);
+        } else {
+            deliverVehicleParked(vehicule);
+        }
+    }
+
+    /**
+     * Notifies all observers that a vehicle has been removed, either directly
+     * or through the asynchronous dispatcher. The attached registry, the
+     * station field of an off-heap record and the rentable index, if any,
+     * are updated first.
+     * 
+     * @param vehicule the removed vehicle
+     */
+    protected void notifyVehicleRemoved(T vehicule) {
+        VehiculeRegistry<?> fleet = registry;
+        if (fleet != null) {
+            fleet.removed(vehicule, this);
+        }
+        recordStation(vehicule, false);
+        RentableIndex<T> index = rentableIndex;
+        if (index != null) {
+            index.remove(vehicule);
+        }
+        AsyncEventDispatcher async = dispatcher;
+        if (async != null) {
+            async.publish(this, vehicule, AsyncEventDispatcher.REMOVED);
+        } else {
+            deliverVehicleRemoved(vehicule);
+        }
+    }
+
+    /**
+     * Keeps the station field of a vehicle stored in an
+     * {@link OffHeapFleetStore} up to date. A removal only clears the field
+     * if the vehicle has not been parked elsewhere since.
+     */
+    private void recordStation(VehiculeComponent vehicule, boolean parked) {
+        VehiculeComponent base = vehicule;
+        while (base instanceof VehiculeDecorator) {
+            base = ((VehiculeDecorator) base).getWrappedVehicule();
+        }
+        if (base instanceof Vehicule && ((Vehicule) base).getStore() instanceof OffHeapFleetStore) {
+            OffHeapFleetStore store = (OffHeapFleetStore) ((Vehicule) base).getStore();
+            int slot = ((Vehicule) base).getSlot();
+            if (parked) {
+                store.setStationId(slot, id);
+            } else {
+                store.clearStationId(slot, id);
+            }
+        }
+    }
+
+    void deliverVehicleParked(VehiculeComponent vehicule) {
         for (StationObserver observer : observers) {
             observer.onVehicleParked(this, vehicule);
         }
     }
 
-    private void notifyVehicleRemoved(T vehicule) {
+    void deliverVehicleRemoved(VehiculeComponent vehicule) {
         for (StationObserver observer : observers) {
             observer.onVehicleRemoved(this, vehicule);
         }
@@ -110,7 +327,7 @@ public class Station<T extends VehiculeComponent> {
      * @return true if at least one space is available, false otherwise
      */
     public boolean hasAvailableSpace() {
-        return parkedVehicules.size() < capacity;
+        return docks.hasSpace();
     }
 
     /**
@@ -119,7 +336,7 @@ public class Station<T extends VehiculeComponent> {
      * @return true if at least one vehicle is parked, false otherwise
      */
     public boolean hasAvailableVehicules() {
-        return !parkedVehicules.isEmpty();
+        return getOccupiedSpaces() > 0;
     }
 
     /**
@@ -128,7 +345,7 @@ public class Station<T extends VehiculeComponent> {
      * @return true if no vehicles are parked, false otherwise
      */
     public boolean isEmpty() {
-        return parkedVehicules.isEmpty();
+        return getOccupiedSpaces() == 0;
     }
 
     /**
@@ -137,7 +354,17 @@ public class Station<T extends VehiculeComponent> {
      * @return true if the station is at full capacity, false otherwise
      */
     public boolean isFull() {
-        return parkedVehicules.size() == capacity;
+        return getOccupiedSpaces() == capacity;
+    }
+
+    /**
+     * Checks if a vehicle is currently parked in this station.
+     * 
+     * @param vehicule the vehicle to look for
+     * @return true if the vehicle occupies one of the station's slots, false otherwise
+     */
+    public boolean containsVehicule(T vehicule) {
+        return vehicule != null && docks.contains(vehicule);
     }
 
     /**
@@ -147,17 +374,14 @@ public class Station<T extends VehiculeComponent> {
      * @param vehicule the vehicle to park
      * @throws NullVehiculeException if the vehicle is null
      * @throws StationFullException if the station is full
+     * @throws IllegalStateException if the vehicle is already parked in this station
      */
     public void parkVehicule(T vehicule) throws NullVehiculeException, StationFullException {
         if (vehicule == null) {
             throw new NullVehiculeException();
         }
-        
-        if (!hasAvailableSpace()) {
-            throw new StationFullException("La station est pleine (capacité: " + capacity + ")");
-        }
-        
-        parkedVehicules.add(vehicule);
+
+        docks.park(vehicule);
         vehicule.setAvailable(true);
         notifyVehicleParked(vehicule);
     }
@@ -175,12 +399,11 @@ public class Station<T extends VehiculeComponent> {
         if (vehicule == null) {
             throw new NullVehiculeException();
         }
-        
-        if (!parkedVehicules.contains(vehicule)) {
+
+        if (!docks.remove(vehicule)) {
             throw new VehiculeNotFoundException("Ce véhicule n'est pas dans cette station");
         }
-        
-        parkedVehicules.remove(vehicule);
+
         vehicule.setAvailable(false);
         notifyVehicleRemoved(vehicule);
         return vehicule;
@@ -189,10 +412,69 @@ public class Station<T extends VehiculeComponent> {
     /**
      * Gets all parked vehicles in this station.
      * 
-     * @return a copy of the list of parked vehicles
+     * @return a copy of the list of parked vehicles, in slot order
      */
     public List<T> getParkedVehicules() {
-        return new ArrayList<>(parkedVehicules);
+        return docks.copy();
+    }
+
+    /**
+     * Gets the vehicle parked in the given slot, without copying anything.
+     * In a plain station, slots {@code 0} to {@code getOccupiedSpaces() - 1}
+     * are always in use.
+     * 
+     * @param index the slot index
+     * @return the vehicle parked in this slot
+     * @throws IndexOutOfBoundsException if the index is not a used slot
+     */
+    public T getParkedVehicule(int index) {
+        return docks.get(index);
+    }
+
+    /**
+     * Applies an action to every parked vehicle, in slot order.
+     * The action must not park or remove vehicles in this station.
+     * 
+     * @param action the action to apply
+     */
+    public void forEachParkedVehicule(Consumer<? super T> action) {
+        docks.forEach(action);
+    }
+
+    /**
+     * Counts the parked vehicles matching a predicate.
+     * 
+     * @param filter the predicate to test
+     * @return the number of parked vehicles accepted by the predicate
+     */
+    public int countParkedVehicules(Predicate<? super T> filter) {
+        return docks.count(filter);
+    }
+
+    /**
+     * Finds the first parked vehicle matching a predicate, in slot order.
+     * Unlike an index checked against {@link #getOccupiedSpaces()} first,
+     * this cannot point past the last vehicle if the station changes in
+     * between.
+     * 
+     * @param filter the predicate to test
+     * @return the first parked vehicle accepted by the predicate, or
+     *         {@code null} if there is none
+     */
+    public T findParkedVehicule(Predicate<? super T> filter) {
+        return docks.find(filter);
+    }
+
+    /**
+     * Gets a read-only view of the parked vehicles.
+     * Unlike {@link #getParkedVehicules()}, nothing is copied by a plain
+     * station: the view reflects later parks and removals, so it should not
+     * be iterated while the station is being modified.
+     * 
+     * @return an unmodifiable view of the parked vehicles, in slot order
+     */
+    public List<T> getParkedView() {
+        return docks.view();
     }
 
     /**
@@ -204,7 +486,7 @@ public class Station<T extends VehiculeComponent> {
     public String toString() {
         return "Station{" +
             "id=" + id +
-            ", occupiedSpaces=" + parkedVehicules.size() +
+            ", occupiedSpaces=" + getOccupiedSpaces() +
             ", capacity=" + capacity +
             '}';
     }
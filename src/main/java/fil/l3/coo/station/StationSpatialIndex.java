@@ -0,0 +1,319 @@
+package fil.l3.coo.station;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Grid hash of stations answering nearest-station queries.
+ * <p>
+ * The city plane is cut into square cells; each non-empty cell keeps the
+ * stations located in it. A k-nearest query scans the cells ring by ring
+ * around the query point and stops as soon as no unvisited cell can hold a
+ * closer match than the k best found, so its cost depends on the local
+ * density of stations rather than on their total number.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <T> the type of vehicle handled by the indexed stations
+ */
+public class StationSpatialIndex<T extends VehiculeComponent> {
+
+    /** Default side of a grid cell, in meters. */
+    public static final double DEFAULT_CELL_SIZE = 250.0;
+
+    private final double cellSize;
+    private final Map<Long, Cell<T>> cells;
+    private int size;
+    private int minCellX = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    /**
+     * Stations of one grid cell.
+     */
+    private static final class Cell<T extends VehiculeComponent> {
+
+        private Station<T>[] stations;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        Cell() {
+            this.stations = (Station<T>[]) new Station<?>[4];
+        }
+    }
+
+    /**
+     * Creates an index with {@link #DEFAULT_CELL_SIZE} cells.
+     */
+    public StationSpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates an index.
+     *
+     * @param cellSize the side of a grid cell, in meters; about the typical
+     *                 distance between neighbouring stations works best
+     */
+    public StationSpatialIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("La taille des cellules doit être positive");
+        }
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+    }
+
+    /**
+     * Returns stations that have at least one free dock.
+     *
+     * @param <T> the type of vehicle handled by the stations
+     * @return the filter
+     */
+    public static <T extends VehiculeComponent> Predicate<Station<T>> withFreeDock() {
+        return Station::hasAvailableSpace;
+    }
+
+    /**
+     * Returns stations that hold at least one available vehicle.
+     *
+     * @param <T> the type of vehicle handled by the stations
+     * @return the filter
+     */
+    public static <T extends VehiculeComponent> Predicate<Station<T>> withAvailableVehicule() {
+        return s -> s.countParkedVehicules(VehiculeComponent::isAvailable) > 0;
+    }
+
+    /**
+     * Returns stations that hold at least one available vehicle of a type.
+     *
+     * @param <T>  the type of vehicle handled by the stations
+     * @param type the vehicle type, as returned by {@link VehiculeComponent#getType()}
+     * @return the filter
+     */
+    public static <T extends VehiculeComponent> Predicate<Station<T>> withAvailableVehicule(String type) {
+        return s -> s.countParkedVehicules(v -> v.isAvailable() && type.equals(v.getType())) > 0;
+    }
+
+    /**
+     * Adds a station to the index.
+     *
+     * @param station the station to add
+     */
+    public void add(Station<T> station) {
+        int cx = cellOf(station.getX());
+        int cy = cellOf(station.getY());
+        Cell<T> cell = cells.computeIfAbsent(key(cx, cy), k -> new Cell<>());
+        if (cell.size == cell.stations.length) {
+            cell.stations = Arrays.copyOf(cell.stations, cell.size * 2);
+        }
+        cell.stations[cell.size++] = station;
+        size++;
+        minCellX = Math.min(minCellX, cx);
+        maxCellX = Math.max(maxCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellY = Math.max(maxCellY, cy);
+    }
+
+    /**
+     * Removes a station from the index.
+     *
+     * @param station the station to remove
+     * @return {@code true} if the station was indexed
+     */
+    public boolean remove(Station<T> station) {
+        long key = key(cellOf(station.getX()), cellOf(station.getY()));
+        Cell<T> cell = cells.get(key);
+        if (cell == null) {
+            return false;
+        }
+        for (int i = 0; i < cell.size; i++) {
+            if (cell.stations[i] == station) {
+                cell.stations[i] = cell.stations[--cell.size];
+                cell.stations[cell.size] = null;
+                if (cell.size == 0) {
+                    cells.remove(key);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of indexed stations.
+     *
+     * @return the number of stations
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the station closest to a point among those accepted by a filter.
+     *
+     * @param x      the x coordinate of the point, in meters
+     * @param y      the y coordinate of the point, in meters
+     * @param filter the condition the station must meet
+     * @return the closest matching station, or {@code null} if none matches
+     */
+    public Station<T> nearest(double x, double y, Predicate<? super Station<T>> filter) {
+        List<Station<T>> result = nearest(x, y, 1, filter);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Finds the k stations closest to a point among those accepted by a
+     * filter.
+     *
+     * @param x      the x coordinate of the point, in meters
+     * @param y      the y coordinate of the point, in meters
+     * @param k      the maximum number of stations to return
+     * @param filter the condition the stations must meet
+     * @return the matching stations, closest first; fewer than k if not
+     *         enough stations match
+     */
+    public List<Station<T>> nearest(double x, double y, int k, Predicate<? super Station<T>> filter) {
+        if (k <= 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        Best<T> best = new Best<>(Math.min(k, size));
+        int cx = cellOf(x);
+        int cy = cellOf(y);
+        int maxRing = Math.max(Math.max(cx - minCellX, maxCellX - cx), Math.max(cy - minCellY, maxCellY - cy));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Aucune cellule de cet anneau n'est à moins de cette distance du point
+            if (best.isFull() && ringDistance(x, y, cx, cy, ring) > best.worstDistance()) {
+                break;
+            }
+            for (int i = cx - ring; i <= cx + ring; i++) {
+                boolean edgeColumn = i == cx - ring || i == cx + ring;
+                int step = edgeColumn ? 1 : 2 * ring;
+                for (int j = cy - ring; j <= cy + ring; j += step) {
+                    Cell<T> cell = cells.get(key(i, j));
+                    if (cell != null) {
+                        for (int s = 0; s < cell.size; s++) {
+                            Station<T> station = cell.stations[s];
+                            double distance = station.distanceTo(x, y);
+                            if (best.accepts(distance) && filter.test(station)) {
+                                best.offer(station, distance);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return best.toSortedList();
+    }
+
+    /**
+     * Lower bound of the distance from a point to the cells of a ring.
+     */
+    private double ringDistance(double x, double y, int cx, int cy, int ring) {
+        if (ring == 0) {
+            return 0;
+        }
+        double left = x - (cx - ring + 1) * cellSize;
+        double right = (cx + ring) * cellSize - x;
+        double bottom = y - (cy - ring + 1) * cellSize;
+        double top = (cy + ring) * cellSize - y;
+        return Math.min(Math.min(left, right), Math.min(bottom, top));
+    }
+
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Bounded max-heap keeping the k closest stations seen so far.
+     */
+    private static final class Best<T extends VehiculeComponent> {
+
+        private final Station<T>[] stations;
+        private final double[] distances;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        Best(int k) {
+            this.stations = (Station<T>[]) new Station<?>[k];
+            this.distances = new double[k];
+        }
+
+        boolean isFull() {
+            return size == stations.length;
+        }
+
+        double worstDistance() {
+            return distances[0];
+        }
+
+        boolean accepts(double distance) {
+            return !isFull() || distance < distances[0];
+        }
+
+        void offer(Station<T> station, double distance) {
+            if (isFull()) {
+                siftDown(station, distance, size);
+                return;
+            }
+            int position = size++;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (distances[parent] >= distance) break;
+                stations[position] = stations[parent];
+                distances[position] = distances[parent];
+                position = parent;
+            }
+            stations[position] = station;
+            distances[position] = distance;
+        }
+
+        /**
+         * Places an entry at the root of the first {@code length} entries and
+         * sifts it down.
+         */
+        private void siftDown(Station<T> station, double distance, int length) {
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= length) break;
+                if (child + 1 < length && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) break;
+                stations[position] = stations[child];
+                distances[position] = distances[child];
+                position = child;
+            }
+            stations[position] = station;
+            distances[position] = distance;
+        }
+
+        /**
+         * Empties the heap, farthest first, into a list sorted closest first.
+         */
+        List<Station<T>> toSortedList() {
+            Station<T>[] sorted = Arrays.copyOf(stations, size);
+            for (int length = size; length > 0; length--) {
+                sorted[length - 1] = stations[0];
+                if (length > 1) {
+                    siftDown(stations[length - 1], distances[length - 1], length - 1);
+                }
+            }
+            size = 0;
+            return Arrays.asList(sorted);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package fil.l3.coo.station;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Fleet-wide registry telling where each vehicle is: parked in a station or
+ * rented.
+ * <p>
+ * Vehicle identifiers are dense (they are handed out in sequence from 1), so
+ * the registry keeps its entries in arrays indexed by identifier and answers
+ * every lookup in constant time. Stations attached with
+ * {@link Station#setRegistry(VehiculeRegistry)} record their parks and
+ * removals as they happen, before any observer is notified; the rental
+ * system records rentals. A returned vehicle is recorded by the park in its
+ * return station.
+ * <p>
+ * The entries are updated atomically, so that a removal never erases a park
+ * made meanwhile in another station. The arrays are cut into pages that
+ * never move; growing the registry is synchronized.
+ *
+ * @param <R> the type of the rental records
+ */
+public class VehiculeRegistry<R> {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * One page of entries.
+     */
+    private static final class Page {
+
+        private final AtomicReferenceArray<VehiculeComponent> vehicules = new AtomicReferenceArray<>(PAGE_SIZE);
+        // Station où le véhicule est garé, ou location en cours
+        private final AtomicReferenceArray<Object> holders = new AtomicReferenceArray<>(PAGE_SIZE);
+        private final AtomicReferenceArray<Station<?>> lastStations = new AtomicReferenceArray<>(PAGE_SIZE);
+    }
+
+    private volatile Page[] pages = new Page[0];
+
+    /**
+     * Records a vehicle parked in a station.
+     *
+     * @param vehicule the parked vehicle
+     * @param station  the station
+     */
+    public void parked(VehiculeComponent vehicule, Station<?> station) {
+        int id = vehicule.getId();
+        Page page = pageForWrite(id);
+        int offset = id & PAGE_MASK;
+        page.vehicules.set(offset, vehicule);
+        page.lastStations.set(offset, station);
+        page.holders.set(offset, station);
+    }
+
+    /**
+     * Records a vehicle removed from a station. Nothing changes if the
+     * vehicle has been recorded elsewhere since.
+     *
+     * @param vehicule the removed vehicle
+     * @param station  the station it left
+     */
+    public void removed(VehiculeComponent vehicule, Station<?> station) {
+        Page page = page(vehicule.getId());
+        if (page != null) {
+            page.holders.compareAndSet(vehicule.getId() & PAGE_MASK, station, null);
+        }
+    }
+
+    /**
+     * Records a vehicle rented, once it has left its station.
+     *
+     * @param vehicule the rented vehicle
+     * @param rental   the rental record
+     */
+    public void rented(VehiculeComponent vehicule, R rental) {
+        int id = vehicule.getId();
+        Page page = pageForWrite(id);
+        int offset = id & PAGE_MASK;
+        page.vehicules.set(offset, vehicule);
+        page.holders.set(offset, rental);
+    }
+
+    /**
+     * Returns the vehicle of an identifier, as last parked or rented.
+     *
+     * @param vehiculeId the vehicle identifier
+     * @return the vehicle, or {@code null} if it was never recorded
+     */
+    public VehiculeComponent getVehicule(int vehiculeId) {
+        Page page = page(vehiculeId);
+        return page == null ? null : page.vehicules.get(vehiculeId & PAGE_MASK);
+    }
+
+    /**
+     * Returns the station where a vehicle is parked.
+     *
+     * @param vehiculeId the vehicle identifier
+     * @return the station, or {@code null} if the vehicle is not parked
+     */
+    public Station<?> getStation(int vehiculeId) {
+        Object holder = holder(vehiculeId);
+        return holder instanceof Station ? (Station<?>) holder : null;
+    }
+
+    /**
+     * Returns the last station where a vehicle was parked, even if it has
+     * left it since (rented, stolen, moved by a truck).
+     *
+     * @param vehiculeId the vehicle identifier
+     * @return the station, or {@code null} if the vehicle was never parked
+     */
+    public Station<?> getLastStation(int vehiculeId) {
+        Page page = page(vehiculeId);
+        return page == null ? null : page.lastStations.get(vehiculeId & PAGE_MASK);
+    }
+
+    /**
+     * Returns the current rental of a vehicle.
+     *
+     * @param vehiculeId the vehicle identifier
+     * @return the rental record, or {@code null} if the vehicle is not rented
+     */
+    @SuppressWarnings("unchecked")
+    public R getRental(int vehiculeId) {
+        Object holder = holder(vehiculeId);
+        return holder == null || holder instanceof Station ? null : (R) holder;
+    }
+
+    /**
+     * Tells whether a vehicle is parked in a station.
+     *
+     * @param vehiculeId the vehicle identifier
+     * @return {@code true} if the vehicle is parked
+     */
+    public boolean isParked(int vehiculeId) {
+        return holder(vehiculeId) instanceof Station;
+    }
+
+    /**
+     * Tells whether a vehicle is rented.
+     *
+     * @param vehiculeId the vehicle identifier
+     * @return {@code true} if the vehicle is rented
+     */
+    public boolean isRented(int vehiculeId) {
+        Object holder = holder(vehiculeId);
+        return holder != null && !(holder instanceof Station);
+    }
+
+    private Object holder(int vehiculeId) {
+        Page page = page(vehiculeId);
+        return page == null ? null : page.holders.get(vehiculeId & PAGE_MASK);
+    }
+
+    private Page page(int vehiculeId) {
+        Page[] directory = pages;
+        int index = vehiculeId >>> PAGE_BITS;
+        return vehiculeId < 0 || index >= directory.length ? null : directory[index];
+    }
+
+    private Page pageForWrite(int vehiculeId) {
+        if (vehiculeId < 0) {
+            throw new IllegalArgumentException("Identifiant de véhicule invalide : " + vehiculeId);
+        }
+        Page page = page(vehiculeId);
+        return page != null ? page : grow(vehiculeId >>> PAGE_BITS);
+    }
+
+    private synchronized Page grow(int index) {
+        Page[] directory = pages;
+        if (index >= directory.length) {
+            directory = Arrays.copyOf(directory, Math.max(index + 1, directory.length * 2));
+            for (int i = pages.length; i < directory.length; i++) {
+                directory[i] = new Page();
+            }
+            pages = directory;
+        }
+        return directory[index];
+    }
+}
@@ -1,10 +1,20 @@
 package fil.l3.coo.user;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import fil.l3.coo.user.exceptions.*;
 
+/**
+ * A user of the rental service, with a wallet.
+ * <p>
+ * The wallet holds a whole number of cents in an atomic field, so that
+ * amounts add up without rounding drift and the wallet can be credited and
+ * debited from several threads without losing updates. Amounts given in
+ * euros are rounded to the nearest cent.
+ */
 public class User {
 
-    private double wallet = 0.0;
+    private final AtomicLong walletCents = new AtomicLong();
 
     /**
      * Creates a new user with an empty wallet.
@@ -19,48 +29,109 @@ public class User {
      */
     public User(double initialAmount) {
         if (initialAmount > 0) {
-            this.wallet = initialAmount;
+            walletCents.set(toCents(initialAmount));
         }
     }
 
+    /**
+     * Converts an amount in euros to cents, rounded to the nearest cent.
+     * 
+     * @param amount the amount in euros
+     * @return the amount in cents
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
     /**
      * Gets the current amount of money in the user's wallet.
      * 
-     * @return the wallet balance
+     * @return the wallet balance, in euros
      */
     public double getWallet() {
-        return wallet;
+        return walletCents.get() / 100.0;
+    }
+
+    /**
+     * Gets the current amount of money in the user's wallet, in cents.
+     * 
+     * @return the wallet balance, in cents
+     */
+    public long getWalletCents() {
+        return walletCents.get();
+    }
+
+    /**
+     * Converts an amount in euros given to the wallet to cents. The amount
+     * is checked before the conversion: it must be positive, and at least
+     * half a cent so that it does not round to zero.
+     * 
+     * @param amount the amount in euros
+     * @return the amount in cents, at least one
+     * @throws NegativeAmountException if the amount is negative or zero
+     * @throws IllegalArgumentException if the amount rounds to zero cents
+     */
+    private static long checkedCents(double amount) throws NegativeAmountException {
+        if (!(amount > 0)) {
+            throw new NegativeAmountException("Le montant doit être positif");
+        }
+        long cents = toCents(amount);
+        if (cents == 0) {
+            throw new IllegalArgumentException("Le montant doit valoir au moins un centime : " + amount);
+        }
+        return cents;
     }
 
     /**
      * Adds money to the user's wallet.
-     * Only positive amounts are accepted; negative or zero amounts are ignored.
+     * The amount is rounded to the nearest cent.
      * 
      * @param amount the amount of money to add (must be positive)
+     * @throws NegativeAmountException if the amount is negative or zero
+     * @throws IllegalArgumentException if the amount is under half a cent
      */
     public void addMoney(double amount) throws NegativeAmountException{
-        if (amount > 0) {
-            wallet += amount;
-        } else { 
+        walletCents.addAndGet(checkedCents(amount));
+    }
+
+    /**
+     * Deducts an amount from the wallet if it holds enough money. The check
+     * and the deduction are a single atomic step: of several concurrent
+     * debits, only those the balance can cover succeed.
+     * 
+     * @param cents the amount to deduct, in cents (must be positive)
+     * @return {@code true} if the amount was deducted, {@code false} if the
+     *         funds are insufficient
+     * @throws NegativeAmountException if the amount is negative or zero
+     */
+    public boolean tryDebit(long cents) throws NegativeAmountException {
+        if (cents <= 0) {
             throw new NegativeAmountException("Le montant doit être positif");
         }
+        long balance;
+        do {
+            balance = walletCents.get();
+            if (balance < cents) {
+                return false;
+            }
+        } while (!walletCents.compareAndSet(balance, balance - cents));
+        return true;
     }
 
     /**
      * Deducts money from the user's wallet.
      * The deduction only succeeds if the amount is positive and the user has sufficient funds.
+     * The amount is rounded to the nearest cent.
      * 
      * @param amount the amount of money to deduct (must be positive)
-     * @throws InsufficientFundsException if the amount is negative or zero, or if there are insufficient funds
+     * @throws InsufficientFundsException if there are insufficient funds
+     * @throws NegativeAmountException if the amount is negative or zero
+     * @throws IllegalArgumentException if the amount is under half a cent
      */
     public void deductMoney(double amount) throws InsufficientFundsException, NegativeAmountException {
-        if (amount <= 0) {
-            throw new NegativeAmountException("Le montant doit être positif");
-        }
-        if (wallet < amount) {
+        if (!tryDebit(checkedCents(amount))) {
             throw new InsufficientFundsException("Solde insuffisant");
         }
-        wallet -= amount;
     }
 
     /**
@@ -69,16 +140,18 @@ public class User {
      * @return a string containing the wallet balance
      */
     public String toString() {
-        return "User{wallet=" + wallet + '}';
+        return "User{wallet=" + getWallet() + '}';
     }
 
     /**
-     * Checks if the user can afford a specific amount.
+     * Checks if the user can afford a specific amount. The answer may be
+     * outdated as soon as it is returned; use {@link #tryDebit(long)} to
+     * check and pay at once.
      * 
      * @param amount the amount to check
      * @return true if the user has sufficient funds, false otherwise
      */
     public boolean canAfford(double amount) {
-        return amount >= 0 && wallet >= amount;
+        return amount >= 0 && walletCents.get() >= toCents(amount);
     }
 }
@@ -1,35 +1,148 @@
 package fil.l3.coo.vehicule;
 
+import java.lang.ref.Cleaner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fil.l3.coo.vehicule.state.StateTransitions;
 import fil.l3.coo.vehicule.state.VehiculeState;
-import fil.l3.coo.vehicule.state.DisponibleState;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+import fil.l3.coo.vehicule.store.FleetStorage;
+import fil.l3.coo.vehicule.store.FleetStore;
 
 /**
  * Abstract class representing a vehicle for urban transportation.
  * This can be extended for bikes, scooters, or other modes of transport.
  * Implements the State pattern for managing vehicle lifecycle.
+ * <p>
+ * The mutable fields of a vehicle (availability, state, counters) are kept
+ * in a {@link FleetStorage}; the vehicle object is a handle on its slot.
+ * A vehicle that allocated its slot gives it back to the store when it is
+ * {@link #retire() retired}, or at the latest once it is garbage collected.
  */
 public abstract class Vehicule {
     
-    private boolean available;
-    private VehiculeState state;
-    private int rentalCount;
-    private int idleTimeIntervals;
-    private boolean inMaintenanceSinceOneTick;
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+    private static final Cleaner SLOTS = Cleaner.create();
+
+    private final FleetStorage store;
+    private final int slot;
+    private final Cleaner.Cleanable release;
     private static final int MAX_RENTALS_BEFORE_MAINTENANCE = 10;
     private static final int MAX_IDLE_TIME_BEFORE_THEFT = 2;
     
     /**
-     * Creates a new vehicle.
+     * Creates a new vehicle in the {@link FleetStore#getDefault() default store}.
      * By default, the vehicle is available and in DISPONIBLE state.
      */
     public Vehicule() {
-        this.available = true;
-        this.state = new DisponibleState();
-        this.rentalCount = 0;
-        this.idleTimeIntervals = 0;
-        this.inMaintenanceSinceOneTick = false;
+        this(FleetStore.getDefault());
+    }
+
+    /**
+     * Creates a new vehicle whose fields are kept in a given store.
+     * By default, the vehicle is available and in DISPONIBLE state.
+     * 
+     * @param store the store holding the fields of the vehicle
+     */
+    public Vehicule(FleetStorage store) {
+        this.store = store;
+        this.slot = store.allocate(reserveId());
+        this.release = SLOTS.register(this, new SlotRelease(store, slot));
+    }
+
+    /**
+     * Creates a handle on a vehicle already recorded in a store, e.g. a view
+     * of an {@link fil.l3.coo.vehicule.store.OffHeapFleetStore off-heap}
+     * record. No slot is allocated and the vehicle keeps its identifier; the
+     * slot is not released by this handle.
+     * <p>
+     * The handle does not keep the vehicle owning the slot reachable. On a
+     * {@link FleetStore}, once the owner is garbage collected its slot is
+     * released and may be given to a new vehicle: the surviving handle then
+     * designates, and is {@link #equals(Object) equal} to, that new vehicle.
+     * Keep the owner reachable for as long as such a handle is used.
+     * 
+     * @param store the store holding the fields of the vehicle
+     * @param slot  the slot of the vehicle in the store
+     */
+    public Vehicule(FleetStorage store, int slot) {
+        if (slot < 0 || slot >= store.size()) {
+            throw new IllegalArgumentException("Emplacement inexistant : " + slot);
+        }
+        this.store = store;
+        this.slot = slot;
+        this.release = null;
+    }
+
+    /**
+     * Gives a slot back to its store. Must not refer to the vehicle, so that
+     * the vehicle can become unreachable.
+     */
+    private static final class SlotRelease implements Runnable {
+
+        private final FleetStorage store;
+        private final int slot;
+
+        SlotRelease(FleetStorage store, int slot) {
+            this.store = store;
+            this.slot = slot;
+        }
+
+        @Override
+        public void run() {
+            store.release(slot);
+        }
+    }
+
+    /**
+     * Withdraws this vehicle from the fleet: its slot is given back to its
+     * store and may be reused by another vehicle, so this vehicle must not be
+     * used afterwards. Retiring a vehicle twice has no further effect; a
+     * handle created on an existing slot does not release it.
+     */
+    public void retire() {
+        if (release != null) {
+            release.clean();
+        }
+    }
+
+    /**
+     * Reserves a new vehicle identifier, for vehicles recorded in a store
+     * without a handle.
+     * 
+     * @return a fresh identifier
+     */
+    public static int reserveId() {
+        return nextId.getAndIncrement();
     }
     
+    /**
+     * Gets the unique identifier of this vehicle.
+     * 
+     * @return the vehicle's ID
+     */
+    public int getId() {
+        return store.getVehiculeId(slot);
+    }
+
+    /**
+     * Gets the store holding the fields of this vehicle.
+     * 
+     * @return the fleet store
+     */
+    public FleetStorage getStore() {
+        return store;
+    }
+
+    /**
+     * Gets the slot of this vehicle in its store.
+     * 
+     * @return the slot number
+     */
+    public int getSlot() {
+        return slot;
+    }
+
     /**
      * Gets the rental price for this vehicle.
      * 
@@ -57,7 +170,7 @@ public abstract class Vehicule {
      * @return true if available, false otherwise
      */
     public boolean isAvailable() {
-        return available;
+        return store.isAvailable(slot);
     }
     
     /**
@@ -66,7 +179,7 @@ public abstract class Vehicule {
      * @param available the new availability status
      */
     public void setAvailable(boolean available) {
-        this.available = available;
+        store.setAvailable(slot, available);
     }
         
     /**
@@ -75,16 +188,53 @@ public abstract class Vehicule {
      * @return the vehicle state
      */
     public VehiculeState getState() {
-        return state;
+        return store.getStateId(slot).getState();
     }
     
     /**
-     * Sets the state of this vehicle.
+     * Sets the state of this vehicle, whatever its current state. The
+     * transition is counted in {@link StateTransitions}.
      * 
      * @param state the new state
      */
     public void setState(VehiculeState state) {
-        this.state = state;
+        VehiculeStateId next = state.getStateId();
+        VehiculeStateId previous;
+        do {
+            previous = store.getStateId(slot);
+        } while (!store.compareAndSetStateId(slot, previous, next));
+        StateTransitions.record(previous, next);
+    }
+    
+    /**
+     * Atomically moves this vehicle from one state to another. Of several
+     * threads attempting a transition from the same state, only one
+     * succeeds. Only the transitions of the lifecycle
+     * ({@link StateTransitions#isAllowed}) can be made this way; other
+     * states must be forced with {@link #setState(VehiculeState)}. The
+     * transition is counted in {@link StateTransitions}.
+     * 
+     * @param from the state the vehicle must be in
+     * @param to   the new state
+     * @return {@code true} if the vehicle was in state {@code from} and is now
+     *         in state {@code to}; {@code false} if it was in another state
+     *         or if the lifecycle has no such transition
+     */
+    public boolean tryTransition(VehiculeStateId from, VehiculeStateId to) {
+        if (!StateTransitions.isAllowed(from, to) || !store.compareAndSetStateId(slot, from, to)) {
+            return false;
+        }
+        StateTransitions.record(from, to);
+        return true;
+    }
+    
+    /**
+     * Gets the state identifier of this vehicle.
+     * 
+     * @return the state identifier
+     */
+    public VehiculeStateId getStateId() {
+        return store.getStateId(slot);
     }
     
     /**
@@ -93,7 +243,7 @@ public abstract class Vehicule {
      * @return the state name
      */
     public String getStateName() {
-        return state.getStateName();
+        return store.getStateId(slot).name();
     }
     
     
@@ -103,7 +253,7 @@ public abstract class Vehicule {
      * @return the rental count
      */
     public int getRentalCount() {
-        return rentalCount;
+        return store.getRentalCount(slot);
     }
     
     /**
@@ -111,7 +261,7 @@ public abstract class Vehicule {
      * Called each time the vehicle is rented.
      */
     public void incrementRentalCount() {
-        this.rentalCount++;
+        store.incrementRentalCount(slot);
     }
     
     /**
@@ -119,7 +269,7 @@ public abstract class Vehicule {
      * Called after maintenance is completed.
      */
     public void resetRentalCount() {
-        this.rentalCount = 0;
+        store.setRentalCount(slot, 0);
     }
     
     /**
@@ -128,19 +278,19 @@ public abstract class Vehicule {
      * @return true if rental count exceeds threshold, false otherwise
      */
     public boolean needsMaintenance() {
-        return rentalCount >= MAX_RENTALS_BEFORE_MAINTENANCE;
+        return store.getRentalCount(slot) >= MAX_RENTALS_BEFORE_MAINTENANCE;
     }
 
     public boolean isInMaintenanceSinceOneTick(){
-        return this.inMaintenanceSinceOneTick;
+        return store.isInMaintenanceSinceOneTick(slot);
     }
 
     public void resetMaintenanceTick(){
-        this.inMaintenanceSinceOneTick = false;
+        store.setInMaintenanceSinceOneTick(slot, false);
     }
 
     public void addTickToMaintenance(){
-        this.inMaintenanceSinceOneTick = true;
+        store.setInMaintenanceSinceOneTick(slot, true);
     }
     
     
@@ -150,7 +300,7 @@ public abstract class Vehicule {
      * @return the idle time in intervals
      */
     public int getIdleTimeIntervals() {
-        return idleTimeIntervals;
+        return store.getIdleTime(slot);
     }
     
     /**
@@ -158,7 +308,18 @@ public abstract class Vehicule {
      * Called at each time interval when vehicle is alone in station.
      */
     public void incrementIdleTime() {
-        this.idleTimeIntervals++;
+        store.incrementIdleTime(slot);
+    }
+    
+    /**
+     * Adds several intervals at once to the idle time counter.
+     * Called when a theft deadline settles the intervals the vehicle spent
+     * alone in its station.
+     * 
+     * @param intervals the number of intervals spent idle
+     */
+    public void addIdleTime(int intervals) {
+        store.setIdleTime(slot, store.getIdleTime(slot) + intervals);
     }
     
     /**
@@ -166,7 +327,7 @@ public abstract class Vehicule {
      * Called when vehicle is rented or moved.
      */
     public void resetIdleTime() {
-        this.idleTimeIntervals = 0;
+        store.setIdleTime(slot, 0);
     }
     
     /**
@@ -175,7 +336,32 @@ public abstract class Vehicule {
      * @return true if idle time exceeds theft threshold, false otherwise
      */
     public boolean isAtRiskOfTheft() {
-        return idleTimeIntervals >= MAX_IDLE_TIME_BEFORE_THEFT;
+        return store.getIdleTime(slot) >= MAX_IDLE_TIME_BEFORE_THEFT;
+    }
+    
+    /**
+     * Tells whether another object is a handle on the same slot of the same
+     * store, i.e. the same vehicle: two views of an off-heap record are
+     * equal.
+     * 
+     * @param o the object to compare with
+     * @return true if both handles designate the same vehicle
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Vehicule other = (Vehicule) o;
+        return slot == other.slot && store == other.store;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) + slot;
     }
     
     /**
@@ -1,6 +1,7 @@
 package fil.l3.coo.vehicule;
 
 import fil.l3.coo.vehicule.state.VehiculeState;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
 
 /**
  * Component interface for the Decorator pattern.
@@ -9,6 +10,14 @@ import fil.l3.coo.vehicule.state.VehiculeState;
  */
 public interface VehiculeComponent {
     
+    /**
+     * Gets the unique identifier of the underlying vehicle.
+     * Decorators share the identifier of the vehicle they wrap.
+     * 
+     * @return the vehicle ID
+     */
+    int getId();
+
     /**
      * Gets the total price including all decorations.
      * 
@@ -23,6 +32,16 @@ public interface VehiculeComponent {
      */
     String getDescription();
     
+    /**
+     * Gets the accessories of the vehicle, as a mask of
+     * {@link fil.l3.coo.vehicule.decorator.Accessory} bits.
+     * 
+     * @return the accessory mask, 0 for a vehicle without accessories
+     */
+    default int getAccessories() {
+        return 0;
+    }
+    
     /**
      * Checks if the vehicle is available for rental.
      * 
@@ -58,6 +77,32 @@ public interface VehiculeComponent {
      */
     void setState(VehiculeState state);
     
+    /**
+     * Atomically moves this vehicle from one state to another, along a
+     * transition of the lifecycle.
+     * 
+     * @param from the state the vehicle must be in
+     * @param to   the new state
+     * @return {@code true} if the transition was made, {@code false} if the
+     *         vehicle was not in state {@code from} or if the transition is
+     *         not part of the lifecycle
+     */
+    boolean tryTransition(VehiculeStateId from, VehiculeStateId to);
+    
+    /**
+     * Withdraws this vehicle from the fleet and gives its storage slot back.
+     * The vehicle must not be used afterwards.
+     */
+    void retire();
+    
+    /**
+     * Gets the state identifier of this vehicle. Prefer it to the state name
+     * for state checks.
+     * 
+     * @return the state identifier
+     */
+    VehiculeStateId getStateId();
+    
     /**
      * Gets the state name of this vehicle.
      * 
@@ -108,6 +153,13 @@ public interface VehiculeComponent {
      */
     void incrementIdleTime();
     
+    /**
+     * Adds several intervals at once to the idle time counter.
+     * 
+     * @param intervals the number of intervals spent idle
+     */
+    void addIdleTime(int intervals);
+    
     /**
      * Resets the idle time counter to zero.
      */
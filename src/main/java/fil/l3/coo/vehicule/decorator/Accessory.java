@@ -0,0 +1,96 @@
+package fil.l3.coo.vehicule.decorator;
+
+import fil.l3.coo.vehicule.VehiculeComponent;
+
+/**
+ * Accessories that can be added to a vehicle, with their rental price, their
+ * label in the vehicle description and their bit in an accessory mask.
+ * <p>
+ * The mask is the compact form of a decorator chain, used where vehicles
+ * are stored as records rather than objects.
+ */
+public enum Accessory {
+
+    BASKET(1, 0.5, "Basket"),
+    BAGGAGE(2, 0.3, "Baggage");
+
+    private final int bit;
+    private final double price;
+    private final String label;
+
+    Accessory(int bit, double price, String label) {
+        this.bit = bit;
+        this.price = price;
+        this.label = label;
+    }
+
+    /**
+     * Returns the bit of this accessory in an accessory mask.
+     *
+     * @return the bit
+     */
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * Returns the price added by this accessory.
+     *
+     * @return the price in euros
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Returns the label of this accessory in a vehicle description.
+     *
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Tells whether an accessory mask contains this accessory.
+     *
+     * @param mask the accessory mask
+     * @return {@code true} if the bit of this accessory is set
+     */
+    public boolean isIn(int mask) {
+        return (mask & bit) != 0;
+    }
+
+    /**
+     * Wraps a vehicle in the decorator of this accessory.
+     *
+     * @param vehicule the vehicle to decorate
+     * @return the decorated vehicle
+     */
+    public VehiculeComponent decorate(VehiculeComponent vehicule) {
+        switch (this) {
+            case BASKET:
+                return new BasketDecorator(vehicule);
+            default:
+                return new BaggageDecorator(vehicule);
+        }
+    }
+
+    /**
+     * Decorates a vehicle with the accessories of a mask, in declaration
+     * order.
+     *
+     * @param vehicule the vehicle to decorate
+     * @param mask     the accessory mask
+     * @return the decorated vehicle
+     */
+    public static VehiculeComponent decorateAll(VehiculeComponent vehicule, int mask) {
+        VehiculeComponent decorated = vehicule;
+        for (Accessory accessory : values()) {
+            if (accessory.isIn(mask)) {
+                decorated = accessory.decorate(decorated);
+            }
+        }
+        return decorated;
+    }
+}
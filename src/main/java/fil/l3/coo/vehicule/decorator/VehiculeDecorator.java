@@ -2,23 +2,51 @@ package fil.l3.coo.vehicule.decorator;
 
 import fil.l3.coo.vehicule.VehiculeComponent;
 import fil.l3.coo.vehicule.state.VehiculeState;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
 
 /**
  * Abstract decorator class for vehicle accessories.
  * This class implements the VehiculeComponent interface and contains a reference
  * to another VehiculeComponent, allowing for flexible composition of vehicle features.
+ * <p>
+ * The price, description and accessory mask of a decorated vehicle do not
+ * change once it is built: they are computed at construction from the
+ * wrapped component, so reading them costs the same whatever the number of
+ * accessories.
  */
 public abstract class VehiculeDecorator implements VehiculeComponent {
     
-    protected VehiculeComponent vehicule;
+    protected final VehiculeComponent vehicule;
+    private final int accessories;
+    private final double price;
+    private final String description;
     
     /**
-     * Creates a new vehicle decorator wrapping the given vehicle component.
+     * Creates a new vehicle decorator wrapping the given vehicle component,
+     * without adding an accessory. Subclasses override {@link #getPrice()}
+     * and {@link #getDescription()} to add their own costs and labels.
      * 
      * @param vehicule the vehicle component to decorate
      */
     public VehiculeDecorator(VehiculeComponent vehicule) {
         this.vehicule = vehicule;
+        this.accessories = vehicule.getAccessories();
+        this.price = vehicule.getPrice();
+        this.description = vehicule.getDescription();
+    }
+    
+    /**
+     * Creates a new vehicle decorator adding an accessory to the given
+     * vehicle component.
+     * 
+     * @param vehicule  the vehicle component to decorate
+     * @param accessory the accessory added by this decorator
+     */
+    protected VehiculeDecorator(VehiculeComponent vehicule, Accessory accessory) {
+        this.vehicule = vehicule;
+        this.accessories = vehicule.getAccessories() | accessory.getBit();
+        this.price = vehicule.getPrice() + accessory.getPrice();
+        this.description = (vehicule.getDescription() + " + " + accessory.getLabel()).intern();
     }
     
     /**
@@ -31,6 +59,16 @@ public abstract class VehiculeDecorator implements VehiculeComponent {
         return vehicule;
     }
     
+    /**
+     * Delegates identifier retrieval to the wrapped component.
+     * 
+     * @return the ID of the base vehicle
+     */
+    @Override
+    public int getId() {
+        return vehicule.getId();
+    }
+
     /**
      * Delegates availability check to the wrapped component.
      * 
@@ -62,25 +100,36 @@ public abstract class VehiculeDecorator implements VehiculeComponent {
     }
     
     /**
-     * Default implementation delegates to wrapped component.
-     * Concrete decorators should override this to add accessory costs.
+     * Returns the price computed at construction: the price of the wrapped
+     * component plus the price of the accessory, if any.
      * 
-     * @return the price of the wrapped component
+     * @return the total price
      */
     @Override
     public double getPrice() {
-        return vehicule.getPrice();
+        return price;
     }
     
     /**
-     * Default implementation delegates to wrapped component.
-     * Concrete decorators should override this to add accessory descriptions.
+     * Returns the description computed at construction: the description of
+     * the wrapped component followed by the label of the accessory, if any.
      * 
-     * @return the description of the wrapped component
+     * @return the full description
      */
     @Override
     public String getDescription() {
-        return vehicule.getDescription();
+        return description;
+    }
+    
+    /**
+     * Returns the accessories of the wrapped component and of this
+     * decorator.
+     * 
+     * @return the accessory mask
+     */
+    @Override
+    public int getAccessories() {
+        return accessories;
     }
         
     @Override
@@ -93,6 +142,21 @@ public abstract class VehiculeDecorator implements VehiculeComponent {
         vehicule.setState(state);
     }
     
+    @Override
+    public boolean tryTransition(VehiculeStateId from, VehiculeStateId to) {
+        return vehicule.tryTransition(from, to);
+    }
+
+    @Override
+    public void retire() {
+        vehicule.retire();
+    }
+    
+    @Override
+    public VehiculeStateId getStateId() {
+        return vehicule.getStateId();
+    }
+    
     @Override
     public String getStateName() {
         return vehicule.getStateName();
@@ -128,6 +192,11 @@ public abstract class VehiculeDecorator implements VehiculeComponent {
         vehicule.incrementIdleTime();
     }
     
+    @Override
+    public void addIdleTime(int intervals) {
+        vehicule.addIdleTime(intervals);
+    }
+    
     @Override
     public void resetIdleTime() {
         vehicule.resetIdleTime();
@@ -137,4 +206,27 @@ public abstract class VehiculeDecorator implements VehiculeComponent {
     public boolean isAtRiskOfTheft() {
         return vehicule.isAtRiskOfTheft();
     }
+    
+    /**
+     * Tells whether another object is the same decorator around the same
+     * vehicle.
+     * 
+     * @param o the object to compare with
+     * @return true if both decorate the same vehicle the same way
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return vehicule.equals(((VehiculeDecorator) o).vehicule);
+    }
+    
+    @Override
+    public int hashCode() {
+        return vehicule.hashCode();
+    }
 }
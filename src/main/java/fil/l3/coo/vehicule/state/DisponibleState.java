@@ -6,6 +6,9 @@ import fil.l3.coo.vehicule.Vehicule;
  * State representing a vehicle that is available for rental.
  */
 public class DisponibleState implements VehiculeState {
+
+    /** Shared instance: the state holds no data. */
+    public static final DisponibleState INSTANCE = new DisponibleState();
     
     @Override
     public boolean canBeRented() {
@@ -24,7 +27,11 @@ public class DisponibleState implements VehiculeState {
     
     @Override
     public void rent(Vehicule vehicule) {
-        vehicule.setState(new EnLocationState());
+        if (!vehicule.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION)) {
+            // Un autre thread a changé l'état entre-temps : c'est le nouvel état qui décide
+            vehicule.getState().rent(vehicule);
+            return;
+        }
         vehicule.incrementRentalCount();
     }
     
@@ -35,17 +42,26 @@ public class DisponibleState implements VehiculeState {
     
     @Override
     public void sendToMaintenance(Vehicule vehicule) {
-        vehicule.setState(new EnMaintenanceState());
+        if (!vehicule.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_MAINTENANCE)) {
+            vehicule.getState().sendToMaintenance(vehicule);
+        }
     }
     
     @Override
     public void markAsStolen(Vehicule vehicule) {
-        vehicule.setState(new VoleState());
+        if (!vehicule.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.VOLE)) {
+            vehicule.getState().markAsStolen(vehicule);
+        }
     }
     
+    @Override
+    public VehiculeStateId getStateId() {
+        return VehiculeStateId.DISPONIBLE;
+    }
+
     @Override
     public String getStateName() {
-        return "DISPONIBLE";
+        return VehiculeStateId.DISPONIBLE.name();
     }
     
     @Override
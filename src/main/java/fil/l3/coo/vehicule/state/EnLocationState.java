@@ -6,6 +6,9 @@ import fil.l3.coo.vehicule.Vehicule;
  * State representing a vehicle that is currently rented.
  */
 public class EnLocationState implements VehiculeState {
+
+    /** Shared instance: the state holds no data. */
+    public static final EnLocationState INSTANCE = new EnLocationState();
     
     @Override
     public boolean canBeRented() {
@@ -29,10 +32,11 @@ public class EnLocationState implements VehiculeState {
     
     @Override
     public void returnVehicule(Vehicule vehicule) {
-        if (vehicule.needsMaintenance()) {
-            vehicule.setState(new HorsServiceState());
-        } else {
-            vehicule.setState(new DisponibleState());
+        VehiculeStateId next = vehicule.needsMaintenance()
+                ? VehiculeStateId.HORS_SERVICE : VehiculeStateId.DISPONIBLE;
+        if (!vehicule.tryTransition(VehiculeStateId.EN_LOCATION, next)) {
+            vehicule.getState().returnVehicule(vehicule);
+            return;
         }
         vehicule.resetIdleTime();
     }
@@ -47,9 +51,14 @@ public class EnLocationState implements VehiculeState {
         throw new IllegalStateException("Cannot mark as stolen a vehicle that is rented");
     }
     
+    @Override
+    public VehiculeStateId getStateId() {
+        return VehiculeStateId.EN_LOCATION;
+    }
+
     @Override
     public String getStateName() {
-        return "EN_LOCATION";
+        return VehiculeStateId.EN_LOCATION.name();
     }
     
     @Override
@@ -6,6 +6,9 @@ import fil.l3.coo.vehicule.Vehicule;
  * State representing a vehicle that is being maintained by a repairman.
  */
 public class EnMaintenanceState implements VehiculeState {
+
+    /** Shared instance: the state holds no data. */
+    public static final EnMaintenanceState INSTANCE = new EnMaintenanceState();
     
     @Override
     public boolean canBeRented() {
@@ -43,17 +46,27 @@ public class EnMaintenanceState implements VehiculeState {
     
     /**
      * Completes the maintenance and returns the vehicle to available state.
+     * The rental count is only reset once the vehicle has left maintenance.
      * 
      * @param vehicule the vehicle that has been repaired
+     * @throws IllegalStateException if the vehicle is no longer under
+     *                               maintenance
      */
     public void completeMaintenance(Vehicule vehicule) {
+        if (!vehicule.tryTransition(VehiculeStateId.EN_MAINTENANCE, VehiculeStateId.DISPONIBLE)) {
+            throw new IllegalStateException("Cannot complete the maintenance of a vehicle that is not under maintenance");
+        }
         vehicule.resetRentalCount();
-        vehicule.setState(new DisponibleState());
     }
     
+    @Override
+    public VehiculeStateId getStateId() {
+        return VehiculeStateId.EN_MAINTENANCE;
+    }
+
     @Override
     public String getStateName() {
-        return "EN_MAINTENANCE";
+        return VehiculeStateId.EN_MAINTENANCE.name();
     }
     
     @Override
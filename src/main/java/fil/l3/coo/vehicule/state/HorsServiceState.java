@@ -6,6 +6,9 @@ import fil.l3.coo.vehicule.Vehicule;
  * State representing a vehicle that is out of service and needs maintenance.
  */
 public class HorsServiceState implements VehiculeState {
+
+    /** Shared instance: the state holds no data. */
+    public static final HorsServiceState INSTANCE = new HorsServiceState();
     
     @Override
     public boolean canBeRented() {
@@ -34,17 +37,26 @@ public class HorsServiceState implements VehiculeState {
     
     @Override
     public void sendToMaintenance(Vehicule vehicule) {
-        vehicule.setState(new EnMaintenanceState());
+        if (!vehicule.tryTransition(VehiculeStateId.HORS_SERVICE, VehiculeStateId.EN_MAINTENANCE)) {
+            vehicule.getState().sendToMaintenance(vehicule);
+        }
     }
     
     @Override
     public void markAsStolen(Vehicule vehicule) {
-        vehicule.setState(new VoleState());
+        if (!vehicule.tryTransition(VehiculeStateId.HORS_SERVICE, VehiculeStateId.VOLE)) {
+            vehicule.getState().markAsStolen(vehicule);
+        }
     }
     
+    @Override
+    public VehiculeStateId getStateId() {
+        return VehiculeStateId.HORS_SERVICE;
+    }
+
     @Override
     public String getStateName() {
-        return "HORS_SERVICE";
+        return VehiculeStateId.HORS_SERVICE.name();
     }
     
     @Override
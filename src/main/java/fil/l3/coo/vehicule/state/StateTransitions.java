@@ -0,0 +1,131 @@
+package fil.l3.coo.vehicule.state;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transition table of the vehicle lifecycle, with a counter per transition.
+ * <p>
+ * The table is compiled once into a flat array indexed by the ordinals of the
+ * source and target states; it lists the transitions made by the states
+ * themselves (rental, return, maintenance, repair, theft), and is enforced by
+ * {@link fil.l3.coo.vehicule.Vehicule#tryTransition(VehiculeStateId, VehiculeStateId)}.
+ * A state can still be forced with
+ * {@link fil.l3.coo.vehicule.Vehicule#setState(VehiculeState)};
+ * such a transition is counted like the others and can be spotted with
+ * {@link #isAllowed(VehiculeStateId, VehiculeStateId)}.
+ * <p>
+ * Recording a transition is a single increment: it neither allocates nor
+ * compares state names. The counters are shared by all the vehicles and
+ * safe to update from several threads; each one is a {@link LongAdder}, so
+ * that threads renting and returning vehicles at the same time do not all
+ * contend on the same word.
+ */
+public final class StateTransitions {
+
+    private static final int STATES = VehiculeStateId.count();
+    private static final boolean[] ALLOWED = compile();
+    private static final LongAdder[] COUNTS = new LongAdder[STATES * STATES];
+
+    static {
+        for (int i = 0; i < COUNTS.length; i++) {
+            COUNTS[i] = new LongAdder();
+        }
+    }
+
+    private StateTransitions() {
+    }
+
+    private static boolean[] compile() {
+        boolean[] allowed = new boolean[STATES * STATES];
+        allow(allowed, VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION);
+        allow(allowed, VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_MAINTENANCE);
+        allow(allowed, VehiculeStateId.DISPONIBLE, VehiculeStateId.VOLE);
+        allow(allowed, VehiculeStateId.EN_LOCATION, VehiculeStateId.DISPONIBLE);
+        allow(allowed, VehiculeStateId.EN_LOCATION, VehiculeStateId.HORS_SERVICE);
+        allow(allowed, VehiculeStateId.EN_MAINTENANCE, VehiculeStateId.DISPONIBLE);
+        allow(allowed, VehiculeStateId.HORS_SERVICE, VehiculeStateId.EN_MAINTENANCE);
+        allow(allowed, VehiculeStateId.HORS_SERVICE, VehiculeStateId.VOLE);
+        return allowed;
+    }
+
+    private static void allow(boolean[] allowed, VehiculeStateId from, VehiculeStateId to) {
+        allowed[index(from, to)] = true;
+    }
+
+    private static int index(VehiculeStateId from, VehiculeStateId to) {
+        return from.ordinal() * STATES + to.ordinal();
+    }
+
+    /**
+     * Tells whether a transition is part of the vehicle lifecycle.
+     *
+     * @param from the source state
+     * @param to   the target state
+     * @return {@code true} if the states make this transition themselves
+     */
+    public static boolean isAllowed(VehiculeStateId from, VehiculeStateId to) {
+        return ALLOWED[index(from, to)];
+    }
+
+    /**
+     * Counts a transition. Setting a vehicle to its current state is not a
+     * transition and is ignored.
+     *
+     * @param from the source state
+     * @param to   the target state
+     */
+    public static void record(VehiculeStateId from, VehiculeStateId to) {
+        if (from != to) {
+            COUNTS[index(from, to)].increment();
+        }
+    }
+
+    /**
+     * Returns the number of transitions recorded between two states.
+     *
+     * @param from the source state
+     * @param to   the target state
+     * @return the number of transitions
+     */
+    public static long getCount(VehiculeStateId from, VehiculeStateId to) {
+        return COUNTS[index(from, to)].sum();
+    }
+
+    /**
+     * Returns the number of transitions recorded, all states included.
+     *
+     * @return the total number of transitions
+     */
+    public static long getTotal() {
+        long total = 0;
+        for (int i = 0; i < COUNTS.length; i++) {
+            total += COUNTS[i].sum();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of recorded transitions that are not part of the
+     * lifecycle, i.e. states forced from outside.
+     *
+     * @return the number of forced transitions
+     */
+    public static long getForcedCount() {
+        long forced = 0;
+        for (int i = 0; i < COUNTS.length; i++) {
+            if (!ALLOWED[i]) {
+                forced += COUNTS[i].sum();
+            }
+        }
+        return forced;
+    }
+
+    /**
+     * Resets all the counters.
+     */
+    public static void reset() {
+        for (int i = 0; i < COUNTS.length; i++) {
+            COUNTS[i].reset();
+        }
+    }
+}
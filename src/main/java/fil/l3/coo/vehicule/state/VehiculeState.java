@@ -5,6 +5,10 @@ import fil.l3.coo.vehicule.Vehicule;
 /**
  * Interface representing the state of a vehicle.
  * Implements the State pattern to manage vehicle lifecycle.
+ * <p>
+ * The state changes are made with {@link Vehicule#tryTransition}: when
+ * another thread changed the state of the vehicle first, the action is
+ * handed to the new state, which applies or rejects it.
  */
 public interface VehiculeState {
     
@@ -59,6 +63,14 @@ public interface VehiculeState {
      */
     void markAsStolen(Vehicule vehicule);
     
+    /**
+     * Gets the identifier of this state. Cheaper than the name for state
+     * checks: identifiers compare by reference.
+     * 
+     * @return the state identifier
+     */
+    VehiculeStateId getStateId();
+    
     /**
      * Gets the name of this state.
      * 
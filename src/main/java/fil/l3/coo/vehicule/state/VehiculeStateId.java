@@ -0,0 +1,74 @@
+package fil.l3.coo.vehicule.state;
+
+/**
+ * Identifiers of the vehicle states.
+ * <p>
+ * Each identifier is bound to the shared instance of its state, so that
+ * transitions and state checks compare identifiers (or their ordinals)
+ * instead of state names, and never allocate.
+ */
+public enum VehiculeStateId {
+
+    DISPONIBLE,
+    EN_LOCATION,
+    EN_MAINTENANCE,
+    HORS_SERVICE,
+    VOLE;
+
+    private static final VehiculeStateId[] VALUES = values();
+
+    /**
+     * Returns the number of states.
+     *
+     * @return the number of identifiers
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Returns the identifier of a given ordinal, without copying
+     * {@link #values()}.
+     *
+     * @param ordinal the ordinal of the identifier
+     * @return the identifier
+     */
+    public static VehiculeStateId fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Returns the identifier of a state name.
+     *
+     * @param stateName the state name, as returned by {@link VehiculeState#getStateName()}
+     * @return the identifier, or {@code null} if no state has this name
+     */
+    public static VehiculeStateId fromName(String stateName) {
+        for (VehiculeStateId id : VALUES) {
+            if (id.name().equals(stateName)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the shared instance of this state.
+     *
+     * @return the state instance
+     */
+    public VehiculeState getState() {
+        switch (this) {
+            case DISPONIBLE:
+                return DisponibleState.INSTANCE;
+            case EN_LOCATION:
+                return EnLocationState.INSTANCE;
+            case EN_MAINTENANCE:
+                return EnMaintenanceState.INSTANCE;
+            case HORS_SERVICE:
+                return HorsServiceState.INSTANCE;
+            default:
+                return VoleState.INSTANCE;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import fil.l3.coo.vehicule.Vehicule;
  * This is a terminal state - the vehicle cannot be used anymore.
  */
 public class VoleState implements VehiculeState {
+
+    /** Shared instance: the state holds no data. */
+    public static final VoleState INSTANCE = new VoleState();
     
     @Override
     public boolean canBeRented() {
@@ -42,9 +45,14 @@ public class VoleState implements VehiculeState {
     public void markAsStolen(Vehicule vehicule) {
     }
     
+    @Override
+    public VehiculeStateId getStateId() {
+        return VehiculeStateId.VOLE;
+    }
+
     @Override
     public String getStateName() {
-        return "VOLE";
+        return VehiculeStateId.VOLE.name();
     }
     
     @Override
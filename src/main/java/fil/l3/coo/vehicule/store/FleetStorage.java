@@ -0,0 +1,199 @@
+package fil.l3.coo.vehicule.store;
+
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+
+/**
+ * Storage of the mutable fields of vehicles, one record per slot.
+ * <p>
+ * A {@link Vehicule} is a handle on one slot of a storage. Implementations
+ * keep the records in primitive arrays ({@link FleetStore}) or outside the
+ * Java heap ({@link OffHeapFleetStore}); in both cases the operations on
+ * many vehicles work on the records directly, without the vehicle objects.
+ */
+public interface FleetStorage {
+
+    /**
+     * Allocates the slot of a new vehicle: available, in state
+     * {@code DISPONIBLE}, never rented and not idle.
+     *
+     * @param vehiculeId the identifier of the vehicle
+     * @return the slot number
+     */
+    int allocate(int vehiculeId);
+
+    /**
+     * Frees the slot of a vehicle that left the fleet. The slot is skipped by
+     * the operations on many vehicles and may be returned by a later
+     * {@link #allocate(int)}; handles on it must no longer be used.
+     *
+     * @param slot the slot of the vehicle
+     */
+    void release(int slot);
+
+    /**
+     * Returns the number of slots, including the released ones that have not
+     * been allocated again. Valid slots range from 0 to this number excluded.
+     *
+     * @return the number of slots of this storage
+     */
+    int size();
+
+    /**
+     * Returns the identifier of the vehicle of a slot.
+     *
+     * @param slot the slot of the vehicle
+     * @return the vehicle identifier
+     */
+    int getVehiculeId(int slot);
+
+    /**
+     * Tells whether a vehicle is available.
+     *
+     * @param slot the slot of the vehicle
+     * @return the availability flag
+     */
+    boolean isAvailable(int slot);
+
+    /**
+     * Sets the availability of a vehicle.
+     *
+     * @param slot      the slot of the vehicle
+     * @param available the availability flag
+     */
+    void setAvailable(int slot, boolean available);
+
+    /**
+     * Returns the state of a vehicle.
+     *
+     * @param slot the slot of the vehicle
+     * @return the state identifier
+     * @throws IllegalStateException if the slot has been released
+     */
+    VehiculeStateId getStateId(int slot);
+
+    /**
+     * Sets the state of a vehicle.
+     *
+     * @param slot  the slot of the vehicle
+     * @param state the state identifier
+     */
+    void setStateId(int slot, VehiculeStateId state);
+
+    /**
+     * Atomically changes the state of a vehicle if it is still in an
+     * expected state.
+     *
+     * @param slot     the slot of the vehicle
+     * @param expected the state the vehicle must be in
+     * @param next     the new state
+     * @return {@code true} if the state was changed, {@code false} if the
+     *         vehicle was no longer in the expected state
+     */
+    boolean compareAndSetStateId(int slot, VehiculeStateId expected, VehiculeStateId next);
+
+    /**
+     * Returns the number of rentals of a vehicle since its last maintenance.
+     *
+     * @param slot the slot of the vehicle
+     * @return the rental count
+     */
+    int getRentalCount(int slot);
+
+    /**
+     * Sets the rental count of a vehicle.
+     *
+     * @param slot        the slot of the vehicle
+     * @param rentalCount the rental count
+     */
+    void setRentalCount(int slot, int rentalCount);
+
+    /**
+     * Increments the rental count of a vehicle.
+     *
+     * @param slot the slot of the vehicle
+     */
+    void incrementRentalCount(int slot);
+
+    /**
+     * Returns the idle time of a vehicle.
+     *
+     * @param slot the slot of the vehicle
+     * @return the idle time, in intervals
+     */
+    int getIdleTime(int slot);
+
+    /**
+     * Sets the idle time of a vehicle.
+     *
+     * @param slot     the slot of the vehicle
+     * @param idleTime the idle time, in intervals
+     */
+    void setIdleTime(int slot, int idleTime);
+
+    /**
+     * Increments the idle time of a vehicle.
+     *
+     * @param slot the slot of the vehicle
+     */
+    void incrementIdleTime(int slot);
+
+    /**
+     * Tells whether a vehicle has spent a tick in maintenance.
+     *
+     * @param slot the slot of the vehicle
+     * @return the maintenance flag
+     */
+    boolean isInMaintenanceSinceOneTick(int slot);
+
+    /**
+     * Sets the maintenance flag of a vehicle.
+     *
+     * @param slot          the slot of the vehicle
+     * @param inMaintenance the maintenance flag
+     */
+    void setInMaintenanceSinceOneTick(int slot, boolean inMaintenance);
+
+    /**
+     * Increments the idle time of several vehicles.
+     *
+     * @param slots the slots of the vehicles
+     * @param count the number of slots to read from {@code slots}
+     */
+    void incrementIdleTime(int[] slots, int count);
+
+    /**
+     * Resets the idle time of several vehicles.
+     *
+     * @param slots the slots of the vehicles
+     * @param count the number of slots to read from {@code slots}
+     */
+    void resetIdleTime(int[] slots, int count);
+
+    /**
+     * Finds the vehicles rented at least a given number of times since their
+     * last maintenance.
+     *
+     * @param threshold the minimum rental count
+     * @return the slots of these vehicles, in increasing order
+     */
+    int[] findNeedingMaintenance(int threshold);
+
+    /**
+     * Finds the vehicles that reached the rental threshold of
+     * {@link Vehicule#getMaintenanceThreshold()}.
+     *
+     * @return the slots of these vehicles, in increasing order
+     */
+    default int[] findNeedingMaintenance() {
+        return findNeedingMaintenance(Vehicule.getMaintenanceThreshold());
+    }
+
+    /**
+     * Counts the vehicles in a given state.
+     *
+     * @param state the state identifier
+     * @return the number of vehicles of this storage in this state
+     */
+    int countInState(VehiculeStateId state);
+}
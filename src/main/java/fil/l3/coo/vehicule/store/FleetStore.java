@@ -0,0 +1,266 @@
+package fil.l3.coo.vehicule.store;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+
+/**
+ * Storage of the mutable fields of the vehicles on the Java heap, laid out
+ * as parallel primitive arrays (one per field) indexed by a dense slot
+ * number.
+ * <p>
+ * A {@link Vehicule} is a handle on one slot: its availability, state,
+ * rental count, idle time and maintenance flag live here rather than in the
+ * vehicle object. Operations on many vehicles, such as
+ * {@link #incrementIdleTime(int[], int)} or
+ * {@link #findNeedingMaintenance(int)}, are plain loops over the arrays and do
+ * not go through the vehicle objects or their decorators.
+ * <p>
+ * The arrays are cut into fixed-size pages that never move, so a store grows
+ * without copying the fields and a slot can be written while another vehicle
+ * is being allocated. Allocating a slot is thread-safe; the fields of a slot
+ * have the same guarantees as the fields of a plain object, i.e. none beyond
+ * those given by the caller's synchronization, except for the state, which
+ * can be changed by {@link #compareAndSetStateId compare-and-set}.
+ * Released slots are kept in a free list and handed out again before the
+ * store grows, so a simulation creating many short-lived vehicles reuses the
+ * slots of the retired ones.
+ */
+public class FleetStore implements FleetStorage {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final FleetStore DEFAULT = new FleetStore();
+
+    private static final byte DISPONIBLE = (byte) VehiculeStateId.DISPONIBLE.ordinal();
+    // Un slot libéré n'a aucun état : il n'est compté dans aucun état
+    private static final byte FREE = -1;
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    /**
+     * One page of slots: a fixed-length array per field.
+     */
+    private static final class Page {
+
+        private final int[] ids = new int[PAGE_SIZE];
+        private final boolean[] available = new boolean[PAGE_SIZE];
+        private final byte[] states = new byte[PAGE_SIZE];
+        private final int[] rentalCounts = new int[PAGE_SIZE];
+        private final int[] idleTimes = new int[PAGE_SIZE];
+        private final boolean[] maintenanceTicks = new boolean[PAGE_SIZE];
+    }
+
+    private volatile Page[] pages = new Page[0];
+    private volatile int size;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Returns the store used by vehicles created without an explicit store.
+     *
+     * @return the shared store
+     */
+    public static FleetStore getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public synchronized int allocate(int vehiculeId) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = size;
+            int page = slot >>> PAGE_BITS;
+            if (page == pages.length) {
+                Page[] grown = Arrays.copyOf(pages, page + 1);
+                grown[page] = new Page();
+                pages = grown;
+            }
+        }
+        Page p = page(slot);
+        int offset = slot & PAGE_MASK;
+        p.ids[offset] = vehiculeId;
+        p.available[offset] = true;
+        p.states[offset] = DISPONIBLE;
+        p.rentalCounts[offset] = 0;
+        p.idleTimes[offset] = 0;
+        p.maintenanceTicks[offset] = false;
+        if (slot == size) {
+            size = slot + 1;
+        }
+        return slot;
+    }
+
+    @Override
+    public synchronized void release(int slot) {
+        Page p = page(slot);
+        int offset = slot & PAGE_MASK;
+        if (p.states[offset] == FREE) {
+            return;
+        }
+        p.available[offset] = false;
+        p.states[offset] = FREE;
+        p.rentalCounts[offset] = 0;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Returns the number of released slots waiting to be allocated again.
+     *
+     * @return the number of free slots
+     */
+    public synchronized int getFreeSlotCount() {
+        return freeCount;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private Page page(int slot) {
+        return pages[slot >>> PAGE_BITS];
+    }
+
+    @Override
+    public int getVehiculeId(int slot) {
+        return page(slot).ids[slot & PAGE_MASK];
+    }
+
+    @Override
+    public boolean isAvailable(int slot) {
+        return page(slot).available[slot & PAGE_MASK];
+    }
+
+    @Override
+    public void setAvailable(int slot, boolean available) {
+        page(slot).available[slot & PAGE_MASK] = available;
+    }
+
+    @Override
+    public VehiculeStateId getStateId(int slot) {
+        byte state = page(slot).states[slot & PAGE_MASK];
+        if (state == FREE) {
+            throw new IllegalStateException("Emplacement " + slot + " libéré : le véhicule a quitté la flotte");
+        }
+        return VehiculeStateId.fromOrdinal(state);
+    }
+
+    @Override
+    public void setStateId(int slot, VehiculeStateId state) {
+        page(slot).states[slot & PAGE_MASK] = (byte) state.ordinal();
+    }
+
+    @Override
+    public boolean compareAndSetStateId(int slot, VehiculeStateId expected, VehiculeStateId next) {
+        return STATES.compareAndSet(page(slot).states, slot & PAGE_MASK,
+                (byte) expected.ordinal(), (byte) next.ordinal());
+    }
+
+    @Override
+    public int getRentalCount(int slot) {
+        return page(slot).rentalCounts[slot & PAGE_MASK];
+    }
+
+    @Override
+    public void setRentalCount(int slot, int rentalCount) {
+        page(slot).rentalCounts[slot & PAGE_MASK] = rentalCount;
+    }
+
+    @Override
+    public void incrementRentalCount(int slot) {
+        page(slot).rentalCounts[slot & PAGE_MASK]++;
+    }
+
+    @Override
+    public int getIdleTime(int slot) {
+        return page(slot).idleTimes[slot & PAGE_MASK];
+    }
+
+    @Override
+    public void setIdleTime(int slot, int idleTime) {
+        page(slot).idleTimes[slot & PAGE_MASK] = idleTime;
+    }
+
+    @Override
+    public void incrementIdleTime(int slot) {
+        page(slot).idleTimes[slot & PAGE_MASK]++;
+    }
+
+    @Override
+    public boolean isInMaintenanceSinceOneTick(int slot) {
+        return page(slot).maintenanceTicks[slot & PAGE_MASK];
+    }
+
+    @Override
+    public void setInMaintenanceSinceOneTick(int slot, boolean inMaintenance) {
+        page(slot).maintenanceTicks[slot & PAGE_MASK] = inMaintenance;
+    }
+
+    @Override
+    public void incrementIdleTime(int[] slots, int count) {
+        Page[] directory = pages;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            directory[slot >>> PAGE_BITS].idleTimes[slot & PAGE_MASK]++;
+        }
+    }
+
+    @Override
+    public void resetIdleTime(int[] slots, int count) {
+        Page[] directory = pages;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            directory[slot >>> PAGE_BITS].idleTimes[slot & PAGE_MASK] = 0;
+        }
+    }
+
+    @Override
+    public int[] findNeedingMaintenance(int threshold) {
+        Page[] directory = pages;
+        int total = size;
+        int[] found = new int[16];
+        int count = 0;
+        for (int p = 0; p < directory.length; p++) {
+            int[] rentalCounts = directory[p].rentalCounts;
+            byte[] states = directory[p].states;
+            int length = Math.min(PAGE_SIZE, total - (p << PAGE_BITS));
+            for (int i = 0; i < length; i++) {
+                if (rentalCounts[i] >= threshold && states[i] != FREE) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = (p << PAGE_BITS) | i;
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    @Override
+    public int countInState(VehiculeStateId state) {
+        Page[] directory = pages;
+        int total = size;
+        byte ordinal = (byte) state.ordinal();
+        int count = 0;
+        for (int p = 0; p < directory.length; p++) {
+            byte[] states = directory[p].states;
+            int length = Math.min(PAGE_SIZE, total - (p << PAGE_BITS));
+            for (int i = 0; i < length; i++) {
+                if (states[i] == ordinal) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,484 @@
+package fil.l3.coo.vehicule.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.decorator.Accessory;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+
+/**
+ * Storage of vehicle records outside the Java heap, for simulations of
+ * millions of vehicles.
+ * <p>
+ * Each vehicle is a fixed-width record of {@value #RECORD_SIZE} bytes in a
+ * direct {@link ByteBuffer}, or in a memory-mapped file with
+ * {@link #map(Path, int)}:
+ * <pre>
+ *  0  int   vehicle identifier
+ *  4  byte  vehicle type ({@link VehiculeType} ordinal, -1 if unknown)
+ *  5  byte  accessory mask ({@link Accessory} bits)
+ *  6  byte  state ({@link VehiculeStateId} ordinal)
+ *  7  byte  flags (available, in maintenance since one tick)
+ *  8  int   rental count
+ * 12  int   idle time
+ * 16  int   station identifier (-1 if none)
+ * </pre>
+ * Vehicles are added with {@link #add(VehiculeType, int)} without creating
+ * any object; {@link #view(int)} materializes a {@link VehiculeComponent}
+ * (the vehicle handle and its decorators) on demand. Views are not cached:
+ * two views of a slot are different objects sharing the same record, but
+ * they are {@link Vehicule#equals(Object) equal}, so that the stations, the
+ * indexes and the control center see them as one vehicle.
+ * <p>
+ * The station identifier is kept up to date by the stations themselves,
+ * when they park and remove a vehicle of this store, so that
+ * {@link #getStationId(int)} and {@link #countAtStation(int)} answer without
+ * materializing any view.
+ * <p>
+ * Records are grouped in chunks allocated as the store fills up, up to a
+ * capacity fixed at creation; released slots are reused before the store
+ * grows. The thread-safety guarantees are those of
+ * {@link FleetStore}: allocation is synchronized and the state can be
+ * changed by compare-and-set (on the aligned word holding it), the other
+ * fields are plain. A
+ * mapped file is only a spill area: its previous content is not read back.
+ */
+public class OffHeapFleetStore implements FleetStorage, Closeable {
+
+    /** Size of a vehicle record, in bytes. */
+    public static final int RECORD_SIZE = 20;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_RECORDS - 1;
+    private static final int CHUNK_BYTES = CHUNK_RECORDS * RECORD_SIZE;
+
+    private static final int ID = 0;
+    private static final int TYPE = 4;
+    private static final int ACCESSORIES = 5;
+    private static final int STATE = 6;
+    private static final int FLAGS = 7;
+    private static final int RENTAL_COUNT = 8;
+    private static final int IDLE_TIME = 12;
+    private static final int STATION = 16;
+
+    private static final byte AVAILABLE = 1;
+    private static final byte MAINTENANCE_TICK = 2;
+    private static final byte UNKNOWN_TYPE = -1;
+    private static final byte FREE = -1;
+
+    // L'état est modifié par compare-and-set sur le mot aligné qui le contient
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final int STATE_SHIFT = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN
+            ? (STATE - TYPE) * 8 : (3 - (STATE - TYPE)) * 8;
+
+    private final int capacity;
+    private final FileChannel channel;
+    private final ByteBuffer[] chunks;
+    private volatile int size;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Creates a store backed by direct buffers.
+     *
+     * @param capacity the maximum number of vehicles
+     */
+    public OffHeapFleetStore(int capacity) {
+        this(capacity, null);
+    }
+
+    private OffHeapFleetStore(int capacity, FileChannel channel) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacité doit être positive");
+        }
+        this.capacity = capacity;
+        this.channel = channel;
+        this.chunks = new ByteBuffer[(capacity + CHUNK_RECORDS - 1) >>> CHUNK_BITS];
+    }
+
+    /**
+     * Creates a store backed by a memory-mapped file. The file is created if
+     * needed and overwritten as vehicles are added.
+     *
+     * @param file     the file holding the records
+     * @param capacity the maximum number of vehicles
+     * @return the store, to be closed once no longer used
+     * @throws IOException if the file cannot be opened
+     */
+    public static OffHeapFleetStore map(Path file, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new OffHeapFleetStore(capacity, channel);
+    }
+
+    /**
+     * Returns the maximum number of vehicles of this store.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Records a new vehicle of a given type, without creating any object.
+     *
+     * @param type        the type of the vehicle
+     * @param accessories the accessory mask of the vehicle
+     * @return the slot of the vehicle
+     * @throws IllegalStateException if the store is full
+     */
+    public int add(VehiculeType type, int accessories) {
+        int slot = allocate(Vehicule.reserveId());
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        chunk.put(offset + TYPE, (byte) type.ordinal());
+        chunk.put(offset + ACCESSORIES, (byte) accessories);
+        return slot;
+    }
+
+    /**
+     * Records a new vehicle. Handles created on this store with
+     * {@code new VeloClassique(store)} go through this method: their type is
+     * not recorded and they cannot be {@link #view(int) viewed}.
+     *
+     * @throws IllegalStateException if the store is full
+     */
+    @Override
+    public synchronized int allocate(int vehiculeId) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = size;
+            if (slot == capacity) {
+                throw new IllegalStateException("Stockage de flotte plein (" + capacity + " véhicules)");
+            }
+            int index = slot >>> CHUNK_BITS;
+            if (chunks[index] == null) {
+                chunks[index] = newChunk(index);
+            }
+        }
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        chunk.putInt(offset + ID, vehiculeId);
+        chunk.put(offset + TYPE, UNKNOWN_TYPE);
+        chunk.put(offset + ACCESSORIES, (byte) 0);
+        chunk.put(offset + STATE, (byte) VehiculeStateId.DISPONIBLE.ordinal());
+        chunk.put(offset + FLAGS, AVAILABLE);
+        chunk.putInt(offset + RENTAL_COUNT, 0);
+        chunk.putInt(offset + IDLE_TIME, 0);
+        chunk.putInt(offset + STATION, -1);
+        if (slot == size) {
+            size = slot + 1;
+        }
+        return slot;
+    }
+
+    @Override
+    public synchronized void release(int slot) {
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        if (chunk.get(offset + STATE) == FREE) {
+            return;
+        }
+        chunk.put(offset + TYPE, UNKNOWN_TYPE);
+        chunk.put(offset + STATE, FREE);
+        chunk.put(offset + FLAGS, (byte) 0);
+        chunk.putInt(offset + RENTAL_COUNT, 0);
+        chunk.putInt(offset + STATION, -1);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private ByteBuffer newChunk(int index) {
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(CHUNK_BYTES + 3).alignedSlice(4).order(ByteOrder.nativeOrder());
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) index * CHUNK_BYTES, CHUNK_BYTES)
+                    .order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot >>> CHUNK_BITS];
+    }
+
+    private static int offset(int slot) {
+        return (slot & CHUNK_MASK) * RECORD_SIZE;
+    }
+
+    /**
+     * Materializes a vehicle: a handle on its record, wrapped in the
+     * decorators of its accessories.
+     *
+     * @param slot the slot of the vehicle
+     * @return a view of the vehicle
+     * @throws IllegalStateException if the type of the vehicle is not recorded
+     */
+    public VehiculeComponent view(int slot) {
+        VehiculeType type = getType(slot);
+        if (type == null) {
+            throw new IllegalStateException("Type du véhicule non enregistré : emplacement " + slot);
+        }
+        return Accessory.decorateAll(type.attach(this, slot), getAccessories(slot));
+    }
+
+    /**
+     * Returns the type of a vehicle.
+     *
+     * @param slot the slot of the vehicle
+     * @return the type, or {@code null} if it is not recorded
+     */
+    public VehiculeType getType(int slot) {
+        byte type = chunk(slot).get(offset(slot) + TYPE);
+        return type == UNKNOWN_TYPE ? null : VehiculeType.fromOrdinal(type);
+    }
+
+    /**
+     * Returns the accessory mask of a vehicle.
+     *
+     * @param slot the slot of the vehicle
+     * @return the accessory mask
+     */
+    public int getAccessories(int slot) {
+        return chunk(slot).get(offset(slot) + ACCESSORIES);
+    }
+
+    /**
+     * Returns the station where a vehicle is parked.
+     *
+     * @param slot the slot of the vehicle
+     * @return the station identifier, or -1 if none
+     */
+    public int getStationId(int slot) {
+        return (int) WORDS.getVolatile(chunk(slot), offset(slot) + STATION);
+    }
+
+    /**
+     * Records the station where a vehicle is parked.
+     *
+     * @param slot      the slot of the vehicle
+     * @param stationId the station identifier, or -1 if none
+     */
+    public void setStationId(int slot, int stationId) {
+        WORDS.setVolatile(chunk(slot), offset(slot) + STATION, stationId);
+    }
+
+    /**
+     * Records that a vehicle has left a station, unless it has been recorded
+     * at another station since.
+     *
+     * @param slot      the slot of the vehicle
+     * @param stationId the station the vehicle has left
+     * @return {@code true} if the record still pointed to this station
+     */
+    public boolean clearStationId(int slot, int stationId) {
+        return WORDS.compareAndSet(chunk(slot), offset(slot) + STATION, stationId, -1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getVehiculeId(int slot) {
+        return chunk(slot).getInt(offset(slot) + ID);
+    }
+
+    @Override
+    public boolean isAvailable(int slot) {
+        return (chunk(slot).get(offset(slot) + FLAGS) & AVAILABLE) != 0;
+    }
+
+    @Override
+    public void setAvailable(int slot, boolean available) {
+        setFlag(slot, AVAILABLE, available);
+    }
+
+    @Override
+    public VehiculeStateId getStateId(int slot) {
+        byte state = chunk(slot).get(offset(slot) + STATE);
+        if (state == FREE) {
+            throw new IllegalStateException("Emplacement " + slot + " libéré : le véhicule a quitté la flotte");
+        }
+        return VehiculeStateId.fromOrdinal(state);
+    }
+
+    @Override
+    public void setStateId(int slot, VehiculeStateId state) {
+        chunk(slot).put(offset(slot) + STATE, (byte) state.ordinal());
+    }
+
+    @Override
+    public boolean compareAndSetStateId(int slot, VehiculeStateId expected, VehiculeStateId next) {
+        ByteBuffer chunk = chunk(slot);
+        int position = offset(slot) + TYPE;
+        int expectedByte = expected.ordinal();
+        int mask = 0xFF << STATE_SHIFT;
+        while (true) {
+            int word = (int) WORDS.getVolatile(chunk, position);
+            if (((word & mask) >>> STATE_SHIFT) != expectedByte) {
+                return false;
+            }
+            int updated = (word & ~mask) | (next.ordinal() << STATE_SHIFT);
+            if (WORDS.compareAndSet(chunk, position, word, updated)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int getRentalCount(int slot) {
+        return chunk(slot).getInt(offset(slot) + RENTAL_COUNT);
+    }
+
+    @Override
+    public void setRentalCount(int slot, int rentalCount) {
+        chunk(slot).putInt(offset(slot) + RENTAL_COUNT, rentalCount);
+    }
+
+    @Override
+    public void incrementRentalCount(int slot) {
+        ByteBuffer chunk = chunk(slot);
+        int position = offset(slot) + RENTAL_COUNT;
+        chunk.putInt(position, chunk.getInt(position) + 1);
+    }
+
+    @Override
+    public int getIdleTime(int slot) {
+        return chunk(slot).getInt(offset(slot) + IDLE_TIME);
+    }
+
+    @Override
+    public void setIdleTime(int slot, int idleTime) {
+        chunk(slot).putInt(offset(slot) + IDLE_TIME, idleTime);
+    }
+
+    @Override
+    public void incrementIdleTime(int slot) {
+        ByteBuffer chunk = chunk(slot);
+        int position = offset(slot) + IDLE_TIME;
+        chunk.putInt(position, chunk.getInt(position) + 1);
+    }
+
+    @Override
+    public boolean isInMaintenanceSinceOneTick(int slot) {
+        return (chunk(slot).get(offset(slot) + FLAGS) & MAINTENANCE_TICK) != 0;
+    }
+
+    @Override
+    public void setInMaintenanceSinceOneTick(int slot, boolean inMaintenance) {
+        setFlag(slot, MAINTENANCE_TICK, inMaintenance);
+    }
+
+    private void setFlag(int slot, byte flag, boolean set) {
+        ByteBuffer chunk = chunk(slot);
+        int position = offset(slot) + FLAGS;
+        byte flags = chunk.get(position);
+        chunk.put(position, (byte) (set ? flags | flag : flags & ~flag));
+    }
+
+    @Override
+    public void incrementIdleTime(int[] slots, int count) {
+        for (int i = 0; i < count; i++) {
+            incrementIdleTime(slots[i]);
+        }
+    }
+
+    @Override
+    public void resetIdleTime(int[] slots, int count) {
+        for (int i = 0; i < count; i++) {
+            setIdleTime(slots[i], 0);
+        }
+    }
+
+    @Override
+    public int[] findNeedingMaintenance(int threshold) {
+        int total = size;
+        int[] found = new int[16];
+        int count = 0;
+        for (int c = 0; c << CHUNK_BITS < total; c++) {
+            ByteBuffer chunk = chunks[c];
+            int length = Math.min(CHUNK_RECORDS, total - (c << CHUNK_BITS));
+            for (int i = 0, position = RENTAL_COUNT; i < length; i++, position += RECORD_SIZE) {
+                if (chunk.getInt(position) >= threshold && chunk.get(position - RENTAL_COUNT + STATE) != FREE) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = (c << CHUNK_BITS) | i;
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    @Override
+    public int countInState(VehiculeStateId state) {
+        int total = size;
+        byte ordinal = (byte) state.ordinal();
+        int count = 0;
+        for (int c = 0; c << CHUNK_BITS < total; c++) {
+            ByteBuffer chunk = chunks[c];
+            int length = Math.min(CHUNK_RECORDS, total - (c << CHUNK_BITS));
+            for (int i = 0, position = STATE; i < length; i++, position += RECORD_SIZE) {
+                if (chunk.get(position) == ordinal) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the vehicles parked at a station.
+     *
+     * @param stationId the station identifier
+     * @return the number of vehicles recorded at this station
+     */
+    public int countAtStation(int stationId) {
+        int total = size;
+        int count = 0;
+        for (int c = 0; c << CHUNK_BITS < total; c++) {
+            ByteBuffer chunk = chunks[c];
+            int length = Math.min(CHUNK_RECORDS, total - (c << CHUNK_BITS));
+            for (int i = 0, position = STATION; i < length; i++, position += RECORD_SIZE) {
+                if (chunk.getInt(position) == stationId) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Closes the mapped file, if any. Direct buffers are released by the
+     * garbage collector once the store is unreachable.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
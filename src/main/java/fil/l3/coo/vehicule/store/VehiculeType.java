@@ -0,0 +1,46 @@
+package fil.l3.coo.vehicule.store;
+
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.trottinette.TrottinetteElectrique;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+import fil.l3.coo.vehicule.velo.VeloElectrique;
+
+/**
+ * Concrete vehicle types, as recorded in an {@link OffHeapFleetStore}.
+ */
+public enum VehiculeType {
+
+    VELO_CLASSIQUE,
+    VELO_ELECTRIQUE,
+    TROTTINETTE_ELECTRIQUE;
+
+    private static final VehiculeType[] VALUES = values();
+
+    /**
+     * Returns the type of a given ordinal.
+     *
+     * @param ordinal the ordinal of the type
+     * @return the type
+     */
+    public static VehiculeType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Creates a handle of this type on a recorded vehicle.
+     *
+     * @param store the store holding the vehicle
+     * @param slot  the slot of the vehicle
+     * @return the vehicle handle
+     */
+    public VehiculeComponent attach(FleetStorage store, int slot) {
+        switch (this) {
+            case VELO_CLASSIQUE:
+                return new VeloClassique(store, slot);
+            case VELO_ELECTRIQUE:
+                return new VeloElectrique(store, slot);
+            default:
+                return new TrottinetteElectrique(store, slot);
+        }
+    }
+}
@@ -1,18 +1,47 @@
 package fil.l3.coo.vehicule.trottinette;
 
 import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.store.FleetStorage;
 
 /**
  * Simple example of a new type of vehicle.
  * <p>
  * This electric scooter reuses the generic {@link Vehicule} lifecycle
- * (State pattern) and can be stored in stations like bikes. It mainly
- * serves to illustrate the extensibility requirement of the project.
+ * (State pattern) and can be stored in stations and decorated like bikes.
+ * It mainly serves to illustrate the extensibility requirement of the
+ * project.
  */
-public class TrottinetteElectrique extends Vehicule {
+public class TrottinetteElectrique extends Vehicule implements VehiculeComponent {
 
     private static final double BASE_PRICE = 1.5;
 
+    /**
+     * Creates a new electric scooter.
+     */
+    public TrottinetteElectrique() {
+        super();
+    }
+
+    /**
+     * Creates a new electric scooter whose fields are kept in a given store.
+     *
+     * @param store the store holding the fields of the scooter
+     */
+    public TrottinetteElectrique(FleetStorage store) {
+        super(store);
+    }
+
+    /**
+     * Creates a view of an electric scooter already recorded in a store.
+     * 
+     * @param store the store holding the fields of the scooter
+     * @param slot  the slot of the scooter in the store
+     */
+    public TrottinetteElectrique(FleetStorage store, int slot) {
+        super(store, slot);
+    }
+
     @Override
     public double getPrice() {
         return BASE_PRICE;
@@ -2,6 +2,7 @@ package fil.l3.coo.vehicule.velo;
 
 import fil.l3.coo.vehicule.Vehicule;
 import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.store.FleetStorage;
 
 /**
  * Abstract class representing a bike (Velo).
@@ -17,6 +18,25 @@ public abstract class Velo extends Vehicule implements VehiculeComponent {
         super();
     }
 
+    /**
+     * Creates a new bike whose fields are kept in a given store.
+     * 
+     * @param store the store holding the fields of the bike
+     */
+    public Velo(FleetStorage store) {
+        super(store);
+    }
+
+    /**
+     * Creates a view of a bike already recorded in a store.
+     * 
+     * @param store the store holding the fields of the bike
+     * @param slot  the slot of the bike in the store
+     */
+    public Velo(FleetStorage store, int slot) {
+        super(store, slot);
+    }
+
     /**
      * Gets the description of this bike.
      * Default implementation returns the type.
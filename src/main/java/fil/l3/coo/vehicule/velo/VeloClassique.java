@@ -1,5 +1,7 @@
 package fil.l3.coo.vehicule.velo;
 
+import fil.l3.coo.vehicule.store.FleetStorage;
+
 public class VeloClassique extends Velo {
     private static final double BASE_PRICE = 1.0;
 
@@ -10,6 +12,26 @@ public class VeloClassique extends Velo {
         super();
     }
 
+    /**
+     * Creates a new classic bike without accessories, whose fields are kept in a
+     * given store.
+     * 
+     * @param store the store holding the fields of the bike
+     */
+    public VeloClassique(FleetStorage store) {
+        super(store);
+    }
+
+    /**
+     * Creates a view of a classic bike already recorded in a store.
+     * 
+     * @param store the store holding the fields of the bike
+     * @param slot  the slot of the bike in the store
+     */
+    public VeloClassique(FleetStorage store, int slot) {
+        super(store, slot);
+    }
+
 
     /**
      * Gets the rental price of this classic bike.
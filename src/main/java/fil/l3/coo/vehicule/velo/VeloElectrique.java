@@ -1,5 +1,7 @@
 package fil.l3.coo.vehicule.velo;
 
+import fil.l3.coo.vehicule.store.FleetStorage;
+
 public class VeloElectrique extends Velo {
     private static final double BASE_PRICE = 2.0;
 
@@ -10,6 +12,26 @@ public class VeloElectrique extends Velo {
         super();
     }
 
+    /**
+     * Creates a new electric bike without accessories, whose fields are kept in a
+     * given store.
+     * 
+     * @param store the store holding the fields of the bike
+     */
+    public VeloElectrique(FleetStorage store) {
+        super(store);
+    }
+
+    /**
+     * Creates a view of an electric bike already recorded in a store.
+     * 
+     * @param store the store holding the fields of the bike
+     * @param slot  the slot of the bike in the store
+     */
+    public VeloElectrique(FleetStorage store, int slot) {
+        super(store, slot);
+    }
+
     /**
      * Gets the rental price of this electric bike.
      * Base price is 2.0 (higher than classic bikes).
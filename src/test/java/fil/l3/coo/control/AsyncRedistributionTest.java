@@ -0,0 +1,169 @@
+package fil.l3.coo.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.StationObserver;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+public class AsyncRedistributionTest {
+
+    private Station<VehiculeComponent> full;
+    private Station<VehiculeComponent> empty;
+    private List<Station<VehiculeComponent>> stations;
+    private AsyncRedistribution strategy;
+
+    @BeforeEach
+    public void setUp() throws NullVehiculeException, StationFullException {
+        full = new Station<>(10);
+        empty = new Station<>(10);
+        for (int i = 0; i < 10; i++) {
+            full.parkVehicule(new VeloClassique());
+        }
+        stations = new ArrayList<>(List.of(full, empty));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (strategy != null) {
+            strategy.shutdown();
+        }
+    }
+
+    /**
+     * Ticks until the worker has published its plan and the plan was taken.
+     */
+    private void tickUntilApplied() throws InterruptedException {
+        for (int i = 0; i < 500 && strategy.isPlanning(); i++) {
+            Thread.sleep(2);
+            strategy.onTick(stations);
+        }
+        assertFalse(strategy.isPlanning());
+    }
+
+    @Test
+    public void testPlanIsComputedFromSnapshotAndAppliedOnNextTick() throws Exception {
+        strategy = new AsyncRedistribution(new MinCostFlowRedistribution());
+        strategy.redistribute(stations);
+        assertEquals(10, full.getOccupiedSpaces());
+
+        tickUntilApplied();
+        assertEquals(5, full.getOccupiedSpaces());
+        assertEquals(5, empty.getOccupiedSpaces());
+        assertEquals(1, strategy.getPlansApplied());
+        assertEquals(5, strategy.getMovesApplied());
+        assertEquals(0, strategy.getMovesRejected());
+        assertTrue(strategy.getLastStaleness() >= 1);
+    }
+
+    @Test
+    public void testMovesOutdatedByTheSimulationAreRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MinCostFlowRedistribution minCostFlow = new MinCostFlowRedistribution();
+        strategy = new AsyncRedistribution(snapshot -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return minCostFlow.plan(snapshot);
+        });
+        OccupancySnapshot snapshot = OccupancySnapshot.of(stations, 0);
+        strategy.redistribute(stations);
+
+        // Pendant le calcul, la simulation rééquilibre déjà en partie
+        for (int i = 0; i < 3; i++) {
+            VehiculeComponent v = full.getParkedVehicule(0);
+            full.removeVehicule(v);
+            empty.parkVehicule(v);
+        }
+        strategy.onTick(stations);
+        assertTrue(strategy.isPlanning());
+        release.countDown();
+
+        tickUntilApplied();
+        assertEquals(10, snapshot.getOccupied(0));
+        assertEquals(5, full.getOccupiedSpaces());
+        assertEquals(2, strategy.getMovesApplied());
+        assertEquals(3, strategy.getMovesRejected());
+        assertTrue(strategy.getMaxObservedStaleness() >= 2);
+    }
+
+    @Test
+    public void testVehicleRefusedByAFullDestinationIsParkedBack() throws Exception {
+        strategy = new AsyncRedistribution(new MinCostFlowRedistribution());
+        strategy.redistribute(stations);
+
+        // La destination se remplit entre la validation et le déplacement
+        full.addObserver(new StationObserver() {
+            @Override
+            public void onVehicleParked(Station<?> station, VehiculeComponent vehicule) {
+            }
+
+            @Override
+            public void onVehicleRemoved(Station<?> station, VehiculeComponent vehicule) {
+                try {
+                    while (empty.hasAvailableSpace()) {
+                        empty.parkVehicule(new VeloClassique());
+                    }
+                } catch (NullVehiculeException | StationFullException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        tickUntilApplied();
+
+        assertEquals(10, full.getOccupiedSpaces());
+        assertEquals(10, empty.getOccupiedSpaces());
+        assertEquals(0, strategy.getMovesApplied());
+        assertEquals(5, strategy.getMovesRejected());
+    }
+
+    @Test
+    public void testStalePlansAreDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        strategy = new AsyncRedistribution(snapshot -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MinCostFlowRedistribution().plan(snapshot);
+        });
+        strategy.setMaxStaleness(1);
+        strategy.redistribute(stations);
+        strategy.onTick(stations);
+        strategy.onTick(stations);
+        release.countDown();
+
+        tickUntilApplied();
+        assertEquals(1, strategy.getPlansDropped());
+        assertEquals(0, strategy.getPlansApplied());
+        assertEquals(5, strategy.getMovesRejected());
+        assertEquals(10, full.getOccupiedSpaces());
+    }
+
+    @Test
+    public void testPlannerFailureIsReportedOnTheSimulationThread() throws Exception {
+        strategy = new AsyncRedistribution(snapshot -> {
+            throw new IllegalStateException("panne");
+        });
+        strategy.redistribute(stations);
+        for (int i = 0; i < 500 && strategy.isPlanning(); i++) {
+            Thread.sleep(2);
+        }
+        assertThrows(IllegalStateException.class, () -> strategy.onTick(stations));
+    }
+}
@@ -2,15 +2,26 @@ package fil.l3.coo.control;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import fil.l3.coo.rental.Location;
+import fil.l3.coo.rental.RentalSystem;
+import fil.l3.coo.station.AsyncEventDispatcher;
+import fil.l3.coo.station.ConcurrentStation;
 import fil.l3.coo.station.Station;
+import fil.l3.coo.station.VehiculeRegistry;
 import fil.l3.coo.station.exceptions.NullVehiculeException;
 import fil.l3.coo.station.exceptions.StationFullException;
 import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.user.User;
 import fil.l3.coo.vehicule.VehiculeComponent;
 import fil.l3.coo.vehicule.velo.VeloClassique;
 
@@ -114,6 +125,76 @@ public class ControlCenterTest {
         assertTrue(events.isEmpty());
     }
 
+    @Test
+    public void testEventLogIsStructuredAndBounded() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
+        controlCenter = new ControlCenter(3);
+        controlCenter.registerStation(station);
+        VehiculeComponent velo = createVehicule();
+
+        station.parkVehicule(velo);
+        controlCenter.onTick();
+        station.removeVehicule(velo);
+        station.parkVehicule(velo);
+        station.removeVehicule(velo);
+
+        StationEventLog log = controlCenter.getStationEventLog(station.getId());
+        assertEquals(4, log.getRecordedCount());
+        assertEquals(3, log.size());
+        assertEquals(StationEventLog.REMOVED, log.getType(0));
+        assertEquals(velo.getId(), log.getVehiculeId(0));
+        assertEquals(1, log.getTick(0));
+        assertEquals(velo.getPrice(), log.getPrice(0), 0.001);
+
+        List<String> events = controlCenter.getStationEvents(station.getId());
+        assertEquals(3, events.size());
+        assertTrue(events.get(0).startsWith("Vehicle removed"));
+        assertTrue(events.get(1).startsWith("Vehicle parked"));
+    }
+
+    @Test
+    public void testParallelTickMatchesSequentialTick() throws NullVehiculeException, StationFullException {
+        List<String> sequential = runSupervisionScenario(false);
+        List<String> parallel = runSupervisionScenario(true);
+
+        assertEquals(sequential, parallel);
+    }
+
+    /**
+     * Builds a network large enough to be split into several fork/join
+     * tasks, runs a few ticks and describes the final state of each station.
+     */
+    private List<String> runSupervisionScenario(boolean parallelTick) throws NullVehiculeException, StationFullException {
+        ControlCenter center = new ControlCenter();
+        center.setParallelTick(parallelTick);
+        Random rnd = new Random(7);
+        List<Station<VehiculeComponent>> network = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            Station<VehiculeComponent> s = new Station<>(10);
+            center.registerStation(s);
+            network.add(s);
+            int count = rnd.nextInt(11);
+            for (int j = 0; j < count; j++) {
+                VehiculeComponent velo = createVehicule();
+                if (rnd.nextInt(6) == 0) {
+                    for (int k = 0; k < fil.l3.coo.vehicule.Vehicule.getMaintenanceThreshold(); k++) {
+                        velo.incrementRentalCount();
+                    }
+                }
+                s.parkVehicule(velo);
+            }
+        }
+
+        for (int t = 0; t < 4; t++) {
+            center.onTick();
+        }
+
+        List<String> outcome = new ArrayList<>();
+        for (Station<VehiculeComponent> s : network) {
+            outcome.add(s.getOccupiedSpaces() + " " + center.getStationEvents(s.getId()));
+        }
+        return outcome;
+    }
+
     @Test
     public void testMaintenanceTakesOneTickBeforeRepair() throws NullVehiculeException, StationFullException {
         controlCenter.registerStation(station);
@@ -152,4 +233,372 @@ public class ControlCenterTest {
         // Le vol effectif reste aléatoire.
         controlCenter.onTick();
     }
+
+    @Test
+    public void testOnlyChangedOrPendingStationsAreVisited() throws NullVehiculeException, StationFullException {
+        List<Station<VehiculeComponent>> quiet = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Station<VehiculeComponent> s = new Station<>(10);
+            for (int j = 0; j < 5; j++) {
+                s.parkVehicule(createVehicule());
+            }
+            controlCenter.registerStation(s);
+            quiet.add(s);
+        }
+        assertEquals(50, controlCenter.getActiveStationCount());
+
+        // Les stations ni vides, ni pleines, ni réduites à un vélo sortent du suivi
+        controlCenter.onTick();
+        assertEquals(0, controlCenter.getActiveStationCount());
+
+        // Un dépôt réactive uniquement la station concernée
+        quiet.get(7).parkVehicule(createVehicule());
+        assertEquals(1, controlCenter.getActiveStationCount());
+        controlCenter.onTick();
+        assertEquals(0, controlCenter.getActiveStationCount());
+
+        // Une station vide reste suivie tant que sa série continue
+        controlCenter.registerStation(station);
+        controlCenter.onTick();
+        assertEquals(1, controlCenter.getActiveStationCount());
+    }
+
+    @Test
+    public void testMaintenanceIsDrivenByDeadlines() throws NullVehiculeException, StationFullException {
+        controlCenter.registerStation(station);
+        for (int i = 0; i < 3; i++) {
+            station.parkVehicule(createVehicule());
+        }
+        VehiculeComponent velo = createVehicule();
+        for (int i = 0; i < fil.l3.coo.vehicule.Vehicule.getMaintenanceThreshold(); i++) {
+            velo.incrementRentalCount();
+        }
+        station.parkVehicule(velo);
+
+        // Premier tick : la station est examinée et une échéance est posée
+        controlCenter.onTick();
+        assertEquals(0, controlCenter.getActiveStationCount());
+        assertEquals(1, controlCenter.getScheduledDeadlineCount());
+        assertEquals("EN_MAINTENANCE", velo.getStateName());
+
+        // Second tick : l'échéance expire sans que la station soit revisitée
+        controlCenter.onTick();
+        assertEquals(0, controlCenter.getScheduledDeadlineCount());
+        assertEquals("DISPONIBLE", velo.getStateName());
+    }
+
+    @Test
+    public void testLoneVehicleIsStolenThroughDeadlines() throws NullVehiculeException, StationFullException {
+        controlCenter.registerStation(station);
+        VehiculeComponent velo = createVehicule();
+        station.parkVehicule(velo);
+
+        controlCenter.onTick();
+        assertEquals(1, controlCenter.getScheduledDeadlineCount());
+        assertTrue(station.containsVehicule(velo));
+
+        controlCenter.onTick();
+        assertFalse(station.containsVehicule(velo));
+        assertEquals(0, controlCenter.getScheduledDeadlineCount());
+    }
+
+    @Test
+    public void testRentalBeforeTheftDeadlineRestartsIdleTime() throws Exception {
+        controlCenter.registerStation(station);
+        VehiculeComponent velo = createVehicule();
+        station.parkVehicule(velo);
+        RentalSystem rentalSystem = new RentalSystem();
+
+        controlCenter.onTick();
+        assertEquals(1, velo.getIdleTimeIntervals());
+        assertEquals(1, controlCenter.getScheduledDeadlineCount());
+
+        // La location remet le temps d'inactivité à zéro avant l'échéance
+        Location location = rentalSystem.rentVehicule(new User(100), station, velo);
+        assertTrue(rentalSystem.returnVehicule(location, station));
+
+        controlCenter.onTick();
+        assertTrue(station.containsVehicule(velo));
+        assertEquals(1, velo.getIdleTimeIntervals());
+        assertEquals(1, controlCenter.getScheduledDeadlineCount());
+
+        controlCenter.onTick();
+        assertFalse(station.containsVehicule(velo));
+        assertEquals(0, controlCenter.getScheduledDeadlineCount());
+    }
+
+    @Test
+    public void testStationSlotsAreReusedAfterUnregistration() throws NullVehiculeException, StationFullException {
+        List<Station<VehiculeComponent>> first = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Station<VehiculeComponent> s = new Station<>(10);
+            controlCenter.registerStation(s);
+            first.add(s);
+        }
+        for (Station<VehiculeComponent> s : first) {
+            controlCenter.unregisterStation(s);
+        }
+        assertEquals(0, controlCenter.getActiveStationCount());
+
+        // Les nouvelles stations reprennent les emplacements libérés et sont supervisées normalement
+        controlCenter.registerStation(station);
+        VehiculeComponent velo = createVehicule();
+        station.parkVehicule(velo);
+        controlCenter.onTick();
+        controlCenter.onTick();
+        assertFalse(station.containsVehicule(velo));
+        assertEquals(1, controlCenter.getStations().size());
+    }
+
+    @Test
+    public void testFleetAggregatesFollowEvents() throws Exception {
+        controlCenter.setAggregateChecks(true);
+        station.parkVehicule(createVehicule());
+        controlCenter.registerStation(station);
+        Station<VehiculeComponent> other = new Station<>(10);
+        controlCenter.registerStation(other);
+
+        VehiculeComponent worn = createVehicule();
+        for (int i = 0; i < fil.l3.coo.vehicule.Vehicule.getMaintenanceThreshold(); i++) {
+            worn.incrementRentalCount();
+        }
+        other.parkVehicule(worn);
+        other.parkVehicule(createVehicule());
+        String type = worn.getType();
+
+        assertEquals(3, controlCenter.getTotalVehicles());
+        assertEquals(25, controlCenter.getTotalCapacity());
+        assertEquals(3, controlCenter.getVehicleCountByType(type));
+        assertEquals(1, controlCenter.getVehicleCountByState("EN_MAINTENANCE"));
+        assertEquals(2, controlCenter.getVehicleCountByState("DISPONIBLE"));
+
+        // La réparation déplace le véhicule d'un état à l'autre
+        controlCenter.onTick();
+        controlCenter.onTick();
+        assertEquals(0, controlCenter.getVehicleCountByState("EN_MAINTENANCE"));
+
+        other.removeVehicule(worn);
+        controlCenter.unregisterStation(station);
+        controlCenter.checkAggregates();
+        assertEquals(1, controlCenter.getTotalVehicles());
+        assertEquals(10, controlCenter.getTotalCapacity());
+        assertEquals(0, controlCenter.getVehicleCountByType("inconnu"));
+    }
+
+    @Test
+    public void testRentalKeepsStateCountsConsistent() throws Exception {
+        controlCenter.setAggregateChecks(true);
+        controlCenter.registerStation(station);
+        VehiculeComponent velo = createVehicule();
+        station.parkVehicule(velo);
+        station.parkVehicule(createVehicule());
+        RentalSystem rentalSystem = new RentalSystem();
+
+        // Le véhicule passe EN_LOCATION après son retrait de la station
+        Location location = rentalSystem.rentVehicule(new User(100), station, velo);
+        assertEquals(1, controlCenter.getVehicleCountByState("DISPONIBLE"));
+        assertEquals(0, controlCenter.getVehicleCountByState("EN_LOCATION"));
+        controlCenter.checkAggregates();
+
+        assertTrue(rentalSystem.returnVehicule(location, station));
+        assertEquals(2, controlCenter.getVehicleCountByState("DISPONIBLE"));
+        controlCenter.checkAggregates();
+    }
+
+    @Test
+    public void testRentalKeepsStateCountsConsistentWithAsyncEvents() throws Exception {
+        controlCenter.registerStation(station);
+        VehiculeComponent velo = createVehicule();
+        station.parkVehicule(velo);
+        try (AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(64)) {
+            station.setEventDispatcher(dispatcher);
+            RentalSystem rentalSystem = new RentalSystem();
+
+            // Le retrait est livré après le passage EN_LOCATION
+            rentalSystem.rentVehicule(new User(100), station, velo);
+            assertTrue(dispatcher.awaitDrained(5, TimeUnit.SECONDS));
+            assertEquals(0, controlCenter.getVehicleCountByState("DISPONIBLE"));
+            assertEquals(0, controlCenter.getVehicleCountByState("EN_LOCATION"));
+            assertEquals(0, controlCenter.getTotalVehicles());
+        }
+    }
+
+    @Test
+    public void testConcurrentStationIsSupervisedThroughItsDocks() throws Exception {
+        ConcurrentStation<VehiculeComponent> concurrent = new ConcurrentStation<>(10);
+        controlCenter.registerStation(concurrent);
+        VehiculeComponent worn = createVehicule();
+        for (int i = 0; i < fil.l3.coo.vehicule.Vehicule.getMaintenanceThreshold(); i++) {
+            worn.incrementRentalCount();
+        }
+        VehiculeComponent other = createVehicule();
+        concurrent.parkVehicule(other);
+        concurrent.parkVehicule(worn);
+
+        // Les docks sont parcourus directement, quelle que soit leur position
+        assertSame(concurrent, controlCenter.findVehiculeStation(worn.getId()));
+        controlCenter.onTick();
+        controlCenter.onTick();
+        assertEquals("DISPONIBLE", worn.getStateName());
+        assertEquals(2, concurrent.getOccupiedSpaces());
+        controlCenter.checkAggregates();
+    }
+
+    @Test
+    public void testCallbacksFromSeveralThreadsDuringTicks() throws Exception {
+        List<ConcurrentStation<VehiculeComponent>> shared = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ConcurrentStation<VehiculeComponent> s = new ConcurrentStation<>(20);
+            for (int j = 0; j < 5; j++) {
+                s.parkVehicule(createVehicule());
+            }
+            controlCenter.registerStation(s);
+            shared.add(s);
+        }
+        int threads = 4;
+        int iterations = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random rnd = new Random(t);
+            VehiculeComponent own = createVehicule();
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        ConcurrentStation<VehiculeComponent> s = shared.get(rnd.nextInt(shared.size()));
+                        s.parkVehicule(own);
+                        s.removeVehicule(own);
+                    }
+                } catch (Exception | Error e) {
+                    failures.add(e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        // Le thread de simulation avance pendant que les rappels arrivent d'autres threads
+        start.countDown();
+        while (workers.stream().anyMatch(Thread::isAlive)) {
+            controlCenter.onTick();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        controlCenter.onTick();
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(20, controlCenter.getTotalVehicles());
+        long recorded = 0;
+        for (ConcurrentStation<VehiculeComponent> s : shared) {
+            recorded += controlCenter.getStationEventLog(s.getId()).getRecordedCount();
+        }
+        assertEquals(2L * threads * iterations, recorded);
+        controlCenter.checkAggregates();
+    }
+
+    @Test
+    public void testAggregateCheckDetectsExternalChanges() throws NullVehiculeException, StationFullException {
+        controlCenter.registerStation(station);
+        VehiculeComponent velo = createVehicule();
+        station.parkVehicule(velo);
+        controlCenter.checkAggregates();
+
+        // Changement d'état hors du centre de contrôle : le recomptage le signale
+        velo.setState(new fil.l3.coo.vehicule.state.HorsServiceState());
+        assertThrows(IllegalStateException.class, () -> controlCenter.checkAggregates());
+    }
+
+    @Test
+    public void testNearestStationsFollowRegistration() throws NullVehiculeException, StationFullException {
+        Station<VehiculeComponent> near = new Station<>(10, 100, 0);
+        Station<VehiculeComponent> far = new Station<>(10, 2000, 0);
+        controlCenter.registerStation(near);
+        controlCenter.registerStation(far);
+        far.parkVehicule(createVehicule());
+
+        assertEquals(List.of(near, far), controlCenter.findNearestStations(0, 0, 5, s -> true));
+        assertSame(far, controlCenter.findNearestStation(0, 0,
+                fil.l3.coo.station.StationSpatialIndex.withAvailableVehicule()));
+
+        controlCenter.unregisterStation(near);
+        assertEquals(List.of(far), controlCenter.findNearestStations(0, 0, 5, s -> true));
+    }
+
+    @Test
+    public void testTruckRebalancingRunsOverTicks() throws NullVehiculeException, StationFullException {
+        Station<VehiculeComponent> full = new Station<>(10, 0, 0);
+        Station<VehiculeComponent> empty = new Station<>(10, 400, 0);
+        controlCenter.registerStation(full);
+        controlCenter.registerStation(empty);
+        for (int i = 0; i < 10; i++) {
+            full.parkVehicule(createVehicule());
+        }
+        TruckRebalancing trucks = new TruckRebalancing(1, 10, 200);
+        controlCenter.setRedistributionStrategy(trucks);
+
+        // Deux ticks vide/pleine déclenchent le plan, exécuté aux ticks suivants
+        controlCenter.onTick();
+        controlCenter.onTick();
+        assertTrue(trucks.isBusy());
+        assertEquals(10, full.getOccupiedSpaces());
+
+        for (int tick = 0; tick < 10 && trucks.isBusy(); tick++) {
+            controlCenter.onTick();
+        }
+        assertFalse(trucks.isBusy());
+        assertEquals(5, full.getOccupiedSpaces());
+        assertEquals(5, empty.getOccupiedSpaces());
+        assertEquals(10, controlCenter.getTotalVehicles());
+    }
+
+    @Test
+    public void testObservingStrategyFollowsStations() throws Exception {
+        controlCenter.registerStation(station);
+        for (int i = 0; i < 3; i++) {
+            station.parkVehicule(createVehicule());
+        }
+        PredictiveRedistribution predictive = new PredictiveRedistribution(1, 1, 1.0);
+        predictive.setMaxMovesPerTick(0);
+        controlCenter.setRedistributionStrategy(predictive);
+
+        station.removeVehicule(station.getParkedVehicule(0));
+        controlCenter.onTick();
+        assertEquals(1, predictive.getOutflowForecast(station, 0), 1e-9);
+
+        // Remplacée, la stratégie n'observe plus les stations
+        controlCenter.setRedistributionStrategy(new RoundRobinRedistribution());
+        station.removeVehicule(station.getParkedVehicule(0));
+        predictive.onTick(controlCenter.getStations());
+        assertEquals(0, predictive.getOutflowForecast(station, 0), 1e-9);
+    }
+
+    @Test
+    public void testFindVehiculeStationWithAndWithoutRegistry() throws Exception {
+        Station<VehiculeComponent> other = new Station<>(10);
+        VehiculeComponent parked = createVehicule();
+        VehiculeComponent moved = createVehicule();
+        station.parkVehicule(parked);
+        controlCenter.registerStation(station);
+        controlCenter.registerStation(other);
+        other.parkVehicule(moved);
+
+        // Sans registre, recherche par parcours des stations
+        assertSame(station, controlCenter.findVehiculeStation(parked.getId()));
+
+        VehiculeRegistry<Object> registry = new VehiculeRegistry<>();
+        controlCenter.setVehiculeRegistry(registry);
+        assertSame(station, controlCenter.findVehiculeStation(parked.getId()));
+        assertSame(other, controlCenter.findVehiculeStation(moved.getId()));
+
+        other.removeVehicule(moved);
+        station.parkVehicule(moved);
+        assertSame(station, controlCenter.findVehiculeStation(moved.getId()));
+
+        controlCenter.unregisterStation(station);
+        assertNull(station.getRegistry());
+        assertNull(controlCenter.findVehiculeStation(parked.getId()));
+    }
 }
@@ -0,0 +1,88 @@
+package fil.l3.coo.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+public class HeapRedistributionTest {
+
+    private static List<Station<VehiculeComponent>> createStations(int count, long seed)
+            throws NullVehiculeException, StationFullException {
+        Random random = new Random(seed);
+        List<Station<VehiculeComponent>> stations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Station<VehiculeComponent> s = new Station<>(10 + random.nextInt(11));
+            int vehicles = random.nextInt(s.getCapacity() + 1);
+            for (int j = 0; j < vehicles; j++) {
+                s.parkVehicule(new VeloClassique());
+            }
+            stations.add(s);
+        }
+        return stations;
+    }
+
+    private static int totalVehicles(List<Station<VehiculeComponent>> stations) {
+        return stations.stream().mapToInt(Station::getOccupiedSpaces).sum();
+    }
+
+    @Test
+    public void testBalancesStationsWithEnoughBudget() throws NullVehiculeException, StationFullException {
+        List<Station<VehiculeComponent>> stations = createStations(200, 1);
+        int before = totalVehicles(stations);
+
+        new HeapRedistribution(100).redistribute(stations);
+
+        assertEquals(before, totalVehicles(stations));
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Station<VehiculeComponent> s : stations) {
+            if (s.hasAvailableSpace()) min = Math.min(min, s.getOccupiedSpaces());
+            if (!s.isEmpty()) max = Math.max(max, s.getOccupiedSpaces());
+        }
+        assertTrue(max - min <= 1, "écart restant : " + (max - min));
+    }
+
+    @Test
+    public void testMoveBudgetScalesWithStations() throws NullVehiculeException, StationFullException {
+        HeapRedistribution strategy = new HeapRedistribution(0.5);
+        assertEquals(HeapRedistribution.MIN_MOVES_PER_CALL, strategy.getMoveBudget(10));
+        assertEquals(500, strategy.getMoveBudget(1000));
+
+        List<Station<VehiculeComponent>> stations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Station<VehiculeComponent> s = new Station<>(10);
+            if (i % 2 == 0) {
+                for (int j = 0; j < 10; j++) {
+                    s.parkVehicule(new VeloClassique());
+                }
+            }
+            stations.add(s);
+        }
+
+        new HeapRedistribution(0).redistribute(stations);
+
+        long untouched = stations.stream().filter(s -> s.isFull() || s.isEmpty()).count();
+        // 20 déplacements au plus : au moins 60 stations gardent leur état initial
+        assertTrue(untouched >= 60);
+        assertEquals(500, totalVehicles(stations));
+    }
+
+    @Test
+    public void testIgnoresSmallNetworks() throws NullVehiculeException, StationFullException {
+        List<Station<VehiculeComponent>> stations = createStations(1, 3);
+        int before = stations.get(0).getOccupiedSpaces();
+        new HeapRedistribution().redistribute(stations);
+        new HeapRedistribution().redistribute(null);
+        assertEquals(before, stations.get(0).getOccupiedSpaces());
+    }
+}
@@ -0,0 +1,151 @@
+package fil.l3.coo.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+public class MinCostFlowRedistributionTest {
+
+    private MinCostFlowRedistribution strategy;
+    private Map<Station<VehiculeComponent>, Integer> positions;
+
+    @BeforeEach
+    public void setUp() {
+        strategy = new MinCostFlowRedistribution();
+        positions = new HashMap<>();
+        // Stations alignées : le coût d'un déplacement est la distance
+        strategy.setMoveCost((from, to) -> Math.abs(positions.get(from) - positions.get(to)));
+    }
+
+    private Station<VehiculeComponent> station(int position, int vehicles) throws NullVehiculeException, StationFullException {
+        Station<VehiculeComponent> s = new Station<>(10);
+        for (int i = 0; i < vehicles; i++) {
+            s.parkVehicule(new VeloClassique());
+        }
+        positions.put(s, position);
+        return s;
+    }
+
+    @Test
+    public void testFindsCheapestPlan() throws NullVehiculeException, StationFullException {
+        List<Station<VehiculeComponent>> stations = new ArrayList<>();
+        stations.add(station(0, 7));
+        stations.add(station(10, 7));
+        stations.add(station(11, 3));
+        stations.add(station(1, 3));
+
+        strategy.redistribute(stations);
+
+        // Chaque excédent part vers la station voisine : 4 déplacements de distance 1
+        assertEquals(4, strategy.getPlannedMoves());
+        assertEquals(4, strategy.getExecutedMoves());
+        assertEquals(4.0, strategy.getPlannedCost(), 1e-9);
+        for (Station<VehiculeComponent> s : stations) {
+            assertEquals(5, s.getOccupiedSpaces());
+        }
+    }
+
+    @Test
+    public void testUsesConfiguredTargetsAndMoveLimit() throws NullVehiculeException, StationFullException {
+        List<Station<VehiculeComponent>> stations = new ArrayList<>();
+        Station<VehiculeComponent> reserve = station(0, 10);
+        Station<VehiculeComponent> target = station(1, 0);
+        stations.add(reserve);
+        stations.add(target);
+        strategy.setTargetFill(s -> s == reserve ? 0.2 : 0.8);
+        strategy.setMaxMoves(5);
+
+        strategy.redistribute(stations);
+
+        assertEquals(5, strategy.getPlannedMoves());
+        assertEquals(5, strategy.getExecutedMoves());
+        assertEquals(5, target.getOccupiedSpaces());
+
+        strategy.setMaxMoves(Integer.MAX_VALUE);
+        strategy.redistribute(stations);
+        assertEquals(3, strategy.getPlannedMoves());
+        assertEquals(2, reserve.getOccupiedSpaces());
+        assertEquals(8, target.getOccupiedSpaces());
+    }
+
+    @Test
+    public void testBeatsNearestGreedyOnRandomLines() throws NullVehiculeException, StationFullException {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            List<Station<VehiculeComponent>> stations = new ArrayList<>();
+            int[] balances = new int[30];
+            for (int i = 0; i < balances.length; i++) {
+                int vehicles = random.nextInt(11);
+                stations.add(station(random.nextInt(1000), vehicles));
+                balances[i] = vehicles - 5;
+            }
+            strategy.setTargetFill(s -> 0.5);
+            strategy.setCandidateCount(balances.length);
+
+            strategy.redistribute(stations);
+
+            int supply = 0;
+            int demand = 0;
+            for (int b : balances) {
+                if (b > 0) supply += b; else demand -= b;
+            }
+            assertEquals(Math.min(supply, demand), strategy.getPlannedMoves());
+            assertEquals(strategy.getPlannedMoves(), strategy.getExecutedMoves());
+            assertTrue(strategy.getPlannedCost() <= greedyCost(stations, balances) + 1e-9);
+        }
+    }
+
+    /** Coût du plan glouton qui sert chaque déficit depuis l'excédent le plus proche. */
+    private double greedyCost(List<Station<VehiculeComponent>> stations, int[] balances) {
+        int[] left = balances.clone();
+        double total = 0;
+        for (int j = 0; j < left.length; j++) {
+            while (left[j] < 0) {
+                int best = -1;
+                for (int i = 0; i < left.length; i++) {
+                    if (left[i] > 0 && (best < 0 || distance(stations, i, j) < distance(stations, best, j))) {
+                        best = i;
+                    }
+                }
+                if (best < 0) return total;
+                left[best]--;
+                left[j]++;
+                total += distance(stations, best, j);
+            }
+        }
+        return total;
+    }
+
+    private int distance(List<Station<VehiculeComponent>> stations, int a, int b) {
+        return Math.abs(positions.get(stations.get(a)) - positions.get(stations.get(b)));
+    }
+
+    @Test
+    public void testPlanFromSnapshotLeavesStationsUntouched() throws NullVehiculeException, StationFullException {
+        Station<VehiculeComponent> a = station(0, 10);
+        Station<VehiculeComponent> b = station(1, 0);
+        List<Station<VehiculeComponent>> stations = List.of(a, b);
+
+        RedistributionPlan plan = strategy.plan(OccupancySnapshot.of(stations, 7));
+        assertEquals(7, plan.getSnapshotTick());
+        assertEquals(1, plan.size());
+        assertSame(a, plan.getFrom(0));
+        assertSame(b, plan.getTo(0));
+        assertEquals(5, plan.getCount(0));
+        assertEquals(10, a.getOccupiedSpaces());
+        assertEquals(0, b.getOccupiedSpaces());
+    }
+}
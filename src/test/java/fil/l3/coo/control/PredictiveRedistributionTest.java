@@ -0,0 +1,183 @@
+package fil.l3.coo.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.AsyncEventDispatcher;
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.StationObserver;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+public class PredictiveRedistributionTest {
+
+    private Station<VehiculeComponent> busy;
+    private Station<VehiculeComponent> quiet;
+    private List<Station<VehiculeComponent>> stations;
+
+    @BeforeEach
+    public void setUp() throws NullVehiculeException, StationFullException {
+        busy = new Station<>(10);
+        quiet = new Station<>(10);
+        for (int i = 0; i < 10; i++) {
+            busy.parkVehicule(new VeloClassique());
+        }
+        for (int i = 0; i < 9; i++) {
+            quiet.parkVehicule(new VeloClassique());
+        }
+        stations = new ArrayList<>(List.of(busy, quiet));
+    }
+
+    private static void removeVehicules(Station<VehiculeComponent> station, int count) throws NullVehiculeException, VehiculeNotFoundException {
+        for (int i = 0; i < count; i++) {
+            station.removeVehicule(station.getParkedVehicule(0));
+        }
+    }
+
+    private static void tick(PredictiveRedistribution strategy, List<Station<VehiculeComponent>> stations, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            strategy.onTick(stations);
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new PredictiveRedistribution(0, 10, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new PredictiveRedistribution(4, 10, 0));
+        PredictiveRedistribution strategy = new PredictiveRedistribution();
+        assertThrows(IllegalArgumentException.class, () -> strategy.setFillLevels(0.5, 0.4, 0.9));
+        assertThrows(IllegalArgumentException.class, () -> strategy.getOutflowForecast(busy, 24));
+    }
+
+    @Test
+    public void testRatesAreLearntPerSlotWithMovingAverage() throws Exception {
+        PredictiveRedistribution strategy = new PredictiveRedistribution(2, 10, 0.5);
+        strategy.setMaxMovesPerTick(0);
+        busy.addObserver(strategy);
+
+        // Cycle 0, créneau 0 : 4 retraits
+        removeVehicules(busy, 4);
+        assertEquals(0, strategy.getOutflowForecast(busy, 0), 1e-9);
+        tick(strategy, stations, 10);
+        assertEquals(4, strategy.getOutflowForecast(busy, 0), 1e-9);
+        assertEquals(0, strategy.getOutflowForecast(busy, 1), 1e-9);
+
+        // Cycle 1, créneau 0 : 2 retraits, moyenne 0.5 * 2 + 0.5 * 4
+        tick(strategy, stations, 10);
+        removeVehicules(busy, 2);
+        tick(strategy, stations, 10);
+        assertEquals(3, strategy.getOutflowForecast(busy, 0), 1e-9);
+
+        // Cycle 2 sans événement : la moyenne a décru au cycle 3
+        tick(strategy, stations, 30);
+        assertEquals(1.5, strategy.getOutflowForecast(busy, 0), 1e-9);
+        assertEquals(0, strategy.getInflowForecast(busy, 0), 1e-9);
+    }
+
+    @Test
+    public void testRebalancesAheadOfForecastStockout() throws Exception {
+        PredictiveRedistribution strategy = new PredictiveRedistribution(1, 10, 0.5);
+        strategy.setMaxMovesPerTick(0);
+        busy.addObserver(strategy);
+        quiet.addObserver(strategy);
+
+        removeVehicules(busy, 5);
+        tick(strategy, stations, 10);
+        assertEquals(5, busy.getOccupiedSpaces());
+
+        // 5 départs par créneau de 10 ticks : la station se viderait avant l'horizon
+        strategy.setMaxMovesPerTick(20);
+        tick(strategy, stations, 1);
+        assertEquals(4, strategy.getLastMoves());
+        assertEquals(9, busy.getOccupiedSpaces());
+        assertEquals(5, quiet.getOccupiedSpaces());
+
+        // Les déplacements de la stratégie ne sont pas comptés comme de la demande
+        tick(strategy, stations, 10);
+        assertEquals(0, strategy.getInflowForecast(busy, 0), 1e-9);
+        assertEquals(0, strategy.getOutflowForecast(quiet, 0), 1e-9);
+    }
+
+    @Test
+    public void testMovesDeliveredAsynchronouslyAreNotDemand() throws Exception {
+        PredictiveRedistribution strategy = new PredictiveRedistribution(1, 10, 0.5);
+        strategy.setMaxMovesPerTick(0);
+        busy.addObserver(strategy);
+        quiet.addObserver(strategy);
+        try (AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(64)) {
+            busy.setEventDispatcher(dispatcher);
+            quiet.setEventDispatcher(dispatcher);
+            removeVehicules(busy, 5);
+            assertTrue(dispatcher.awaitDrained(5, TimeUnit.SECONDS));
+            tick(strategy, stations, 10);
+
+            strategy.setMaxMovesPerTick(20);
+            tick(strategy, stations, 1);
+            assertEquals(4, strategy.getLastMoves());
+
+            // Les événements des déplacements arrivent après le rééquilibrage
+            assertTrue(dispatcher.awaitDrained(5, TimeUnit.SECONDS));
+            tick(strategy, stations, 10);
+            assertEquals(0, strategy.getInflowForecast(busy, 0), 1e-9);
+            assertEquals(0, strategy.getOutflowForecast(quiet, 0), 1e-9);
+            assertEquals(2.5, strategy.getOutflowForecast(busy, 0), 1e-9);
+        }
+    }
+
+    @Test
+    public void testVehicleRefusedByAFullDestinationIsParkedBack() throws Exception {
+        PredictiveRedistribution strategy = new PredictiveRedistribution(1, 10, 0.5);
+        strategy.setMaxMovesPerTick(0);
+        busy.addObserver(strategy);
+        quiet.addObserver(strategy);
+        removeVehicules(busy, 5);
+        tick(strategy, stations, 10);
+
+        // La station à servir se remplit entre la planification et le déplacement
+        quiet.addObserver(new StationObserver() {
+            @Override
+            public void onVehicleParked(Station<?> station, VehiculeComponent vehicule) {
+            }
+
+            @Override
+            public void onVehicleRemoved(Station<?> station, VehiculeComponent vehicule) {
+                try {
+                    while (busy.hasAvailableSpace()) {
+                        busy.parkVehicule(new VeloClassique());
+                    }
+                } catch (NullVehiculeException | StationFullException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        strategy.setMaxMovesPerTick(20);
+        tick(strategy, stations, 1);
+
+        assertEquals(0, strategy.getLastMoves());
+        assertEquals(10, busy.getOccupiedSpaces());
+        assertEquals(9, quiet.getOccupiedSpaces());
+        assertTrue(quiet.getParkedVehicules().stream().allMatch(VehiculeComponent::isAvailable));
+        // La remise en station n'est pas apprise comme de la demande
+        tick(strategy, stations, 10);
+        assertEquals(0, strategy.getInflowForecast(quiet, 0), 1e-9);
+        assertEquals(0, strategy.getOutflowForecast(quiet, 0), 1e-9);
+    }
+
+    @Test
+    public void testNothingMovesWithoutForecastRisk() {
+        PredictiveRedistribution strategy = new PredictiveRedistribution();
+        busy.addObserver(strategy);
+        tick(strategy, stations, 5);
+        assertEquals(0, strategy.getTotalMoves());
+        assertEquals(10, busy.getOccupiedSpaces());
+    }
+}
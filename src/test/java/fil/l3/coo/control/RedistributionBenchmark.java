@@ -0,0 +1,97 @@
+package fil.l3.coo.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+/**
+ * Compares {@link RoundRobinRedistribution}, {@link HeapRedistribution} and
+ * {@link MinCostFlowRedistribution} on 1k, 10k and 100k stations.
+ * <p>
+ * Not run by the test suite; launch it by hand once the tests are compiled:
+ * {@code java -cp target/classes:target/test-classes fil.l3.coo.control.RedistributionBenchmark}.
+ * Each strategy works on its own copy of the same random network, and the
+ * time per move is reported since the move budgets differ.
+ */
+public class RedistributionBenchmark {
+
+    private static final int[] SIZES = { 1_000, 10_000, 100_000 };
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-10s %-28s %12s %10s %14s%n", "stations", "strategy", "ms/call", "moves", "us/move");
+        for (int size : SIZES) {
+            run(size, "RoundRobinRedistribution", new RoundRobinRedistribution());
+            run(size, "HeapRedistribution (20)", new HeapRedistribution(0));
+            run(size, "HeapRedistribution (1/st.)", new HeapRedistribution());
+            run(size, "MinCostFlow (100 ms)", minCostFlow());
+        }
+    }
+
+    /** Stations lie on a line in creation order: a move costs the ID distance. */
+    private static MinCostFlowRedistribution minCostFlow() {
+        MinCostFlowRedistribution strategy = new MinCostFlowRedistribution();
+        strategy.setMoveCost((from, to) -> Math.abs(from.getId() - to.getId()));
+        strategy.setTimeBudgetMillis(100);
+        return strategy;
+    }
+
+    private static void run(int size, String label, RedistributionStrategy strategy) throws Exception {
+        long totalNanos = 0;
+        long totalMoves = 0;
+        for (int round = -1; round < ROUNDS; round++) {
+            List<Station<VehiculeComponent>> stations = createNetwork(size, round);
+            int[] before = occupancies(stations);
+
+            long start = System.nanoTime();
+            strategy.redistribute(stations);
+            long elapsed = System.nanoTime() - start;
+
+            if (round >= 0) { // le premier tour sert de chauffe
+                totalNanos += elapsed;
+                totalMoves += countMoves(before, occupancies(stations));
+            }
+        }
+        double msPerCall = totalNanos / 1e6 / ROUNDS;
+        double usPerMove = totalMoves == 0 ? 0 : totalNanos / 1e3 / totalMoves;
+        System.out.printf("%-10d %-28s %12.2f %10d %14.3f%n", size, label, msPerCall, totalMoves / ROUNDS, usPerMove);
+    }
+
+    private static List<Station<VehiculeComponent>> createNetwork(int size, long seed)
+            throws NullVehiculeException, StationFullException {
+        Random random = new Random(seed);
+        List<Station<VehiculeComponent>> stations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Station<VehiculeComponent> s = new Station<>(10 + random.nextInt(11));
+            int vehicles = random.nextInt(s.getCapacity() + 1);
+            for (int j = 0; j < vehicles; j++) {
+                s.parkVehicule(new VeloClassique());
+            }
+            stations.add(s);
+        }
+        return stations;
+    }
+
+    private static int[] occupancies(List<Station<VehiculeComponent>> stations) {
+        int[] result = new int[stations.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = stations.get(i).getOccupiedSpaces();
+        }
+        return result;
+    }
+
+    /** Each move takes a vehicle out of one station: count the vehicles that left. */
+    private static long countMoves(int[] before, int[] after) {
+        long moves = 0;
+        for (int i = 0; i < before.length; i++) {
+            moves += Math.max(0, before[i] - after[i]);
+        }
+        return moves;
+    }
+}
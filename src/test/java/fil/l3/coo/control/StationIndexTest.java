@@ -0,0 +1,63 @@
+package fil.l3.coo.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StationIndexTest {
+
+    private StationIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new StationIndex();
+    }
+
+    @Test
+    public void testIndexesAreDenseAndReused() {
+        assertEquals(0, index.add(100));
+        assertEquals(1, index.add(200));
+        assertEquals(2, index.add(300));
+        assertEquals(1, index.get(200));
+        assertEquals(-1, index.get(400));
+
+        assertEquals(1, index.remove(200));
+        assertEquals(-1, index.get(200));
+        assertEquals(-1, index.remove(200));
+
+        assertEquals(1, index.add(400));
+        assertEquals(3, index.indexBound());
+    }
+
+    @Test
+    public void testMatchesHashMapUnderRandomOperations() {
+        Map<Integer, Integer> expected = new HashMap<>();
+        Set<Integer> usedIndexes = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20_000; step++) {
+            int id = random.nextInt(2_000);
+            if (expected.containsKey(id) && random.nextBoolean()) {
+                int removed = index.remove(id);
+                assertEquals(expected.remove(id).intValue(), removed);
+                usedIndexes.remove(removed);
+            } else if (!expected.containsKey(id)) {
+                int added = index.add(id);
+                assertTrue(usedIndexes.add(added), "indice déjà attribué : " + added);
+                expected.put(id, added);
+            }
+        }
+
+        for (int id = 0; id < 2_000; id++) {
+            assertEquals(expected.getOrDefault(id, -1).intValue(), index.get(id));
+        }
+        assertTrue(index.indexBound() <= 2_000);
+    }
+}
@@ -0,0 +1,108 @@
+package fil.l3.coo.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+    private TimingWheel<Long> wheel;
+    private List<long[]> fired;
+
+    @BeforeEach
+    public void setUp() {
+        wheel = new TimingWheel<>(0);
+        fired = new ArrayList<>();
+    }
+
+    private void advanceTo(long tick) {
+        wheel.advanceTo(tick, deadline -> fired.add(new long[] { deadline, wheel.getCurrentTick() }));
+    }
+
+    @Test
+    public void testTimersExpireAtTheirDeadlineOnEveryLevel() {
+        long[] deadlines = { 1, 63, 64, 65, 4095, 4096, 4097, 300_000, 20_000_000 };
+        for (int i = deadlines.length - 1; i >= 0; i--) {
+            wheel.schedule(deadlines[i], deadlines[i]);
+        }
+        assertEquals(deadlines.length, wheel.size());
+
+        advanceTo(20_000_000);
+
+        assertEquals(deadlines.length, fired.size());
+        for (int i = 0; i < deadlines.length; i++) {
+            assertEquals(deadlines[i], fired.get(i)[0]);
+            assertEquals(deadlines[i], fired.get(i)[1]);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancelledTimerNeverExpires() {
+        TimingWheel.Timer<Long> kept = wheel.schedule(10L, 10);
+        TimingWheel.Timer<Long> cancelled = wheel.schedule(200L, 200);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertFalse(cancelled.isScheduled());
+        assertTrue(kept.isScheduled());
+
+        advanceTo(1000);
+        assertEquals(1, fired.size());
+        assertEquals(10, fired.get(0)[0]);
+        assertFalse(kept.isScheduled());
+    }
+
+    @Test
+    public void testPastDeadlineExpiresAtNextTick() {
+        advanceTo(50);
+        wheel.schedule(7L, 7);
+
+        advanceTo(51);
+        assertEquals(1, fired.size());
+        assertEquals(51, fired.get(0)[1]);
+    }
+
+    @Test
+    public void testCallbackCanReschedule() {
+        wheel.schedule(1L, 1);
+        List<Long> ticks = new ArrayList<>();
+
+        wheel.advanceTo(5, deadline -> {
+            ticks.add(wheel.getCurrentTick());
+            wheel.schedule(deadline + 1, deadline + 1);
+        });
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ticks);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testRescheduleReusesTheTimer() {
+        TimingWheel.Timer<Long> timer = wheel.schedule(3L, 100);
+
+        // Un minuteur en attente est déplacé sans être compté deux fois
+        wheel.reschedule(timer, 3);
+        assertEquals(1, wheel.size());
+        assertEquals(3, timer.getDeadline());
+
+        advanceTo(200);
+        assertEquals(1, fired.size());
+        assertEquals(3, fired.get(0)[1]);
+        assertFalse(timer.isScheduled());
+
+        // Un minuteur expiré repart avec le même contenu
+        wheel.reschedule(timer, 250);
+        assertTrue(timer.isScheduled());
+        assertEquals(1, wheel.size());
+        advanceTo(300);
+        assertEquals(2, fired.size());
+        assertEquals(3, fired.get(1)[0]);
+        assertEquals(250, fired.get(1)[1]);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,87 @@
+package fil.l3.coo.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+/**
+ * Measures the quality of the {@link TruckRebalancing} plans against their
+ * solve time: savings heuristic alone, then local search with growing time
+ * budgets and numbers of parallel starts.
+ * <p>
+ * Not run by the test suite; launch it by hand once the tests are compiled:
+ * {@code java -cp target/classes:target/test-classes fil.l3.coo.control.TruckRebalancingBenchmark}.
+ * Stations are spread over a 10 km square with the west side fuller than the
+ * east side; 10 trucks of 20 vehicles leave from the center at 250 m per
+ * tick. Every configuration plans the same networks, and the plan value is
+ * the reward of the delivered vehicles minus the route length.
+ */
+public class TruckRebalancingBenchmark {
+
+    private static final int[] SIZES = { 1_000, 10_000 };
+    private static final int ROUNDS = 5;
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-10s %-26s %10s %8s %10s %12s%n", "stations", "configuration", "ms/plan", "moves", "km", "value");
+        for (int size : SIZES) {
+            run(size, "savings", 1, false, 0);
+            run(size, "savings + LS 10 ms", 1, true, 10);
+            run(size, "savings + LS 50 ms", 1, true, 50);
+            run(size, "savings + LS 200 ms", 1, true, 200);
+            run(size, "4 starts + LS 200 ms", 4, true, 200);
+            if (CORES > 4) {
+                run(size, CORES + " starts + LS 200 ms", CORES, true, 200);
+            }
+        }
+    }
+
+    private static void run(int size, String label, int starts, boolean localSearch, long millis) throws Exception {
+        long totalNanos = 0;
+        long totalMoves = 0;
+        double totalDistance = 0;
+        double totalValue = 0;
+        for (int round = -1; round < ROUNDS; round++) {
+            List<Station<VehiculeComponent>> stations = createNetwork(size, round);
+            TruckRebalancing strategy = new TruckRebalancing(10, 20, 250);
+            strategy.setDepot(5_000, 5_000);
+            strategy.setStarts(starts);
+            strategy.setLocalSearch(localSearch);
+            strategy.setTimeBudgetMillis(millis);
+
+            strategy.redistribute(stations);
+
+            if (round >= 0) { // le premier tour sert de chauffe
+                totalNanos += strategy.getLastSolveNanos();
+                totalMoves += strategy.getPlannedMoves();
+                totalDistance += strategy.getPlannedDistance();
+                totalValue += strategy.getPlanValue();
+            }
+        }
+        System.out.printf("%-10d %-26s %10.2f %8d %10.1f %12.0f%n", size, label, totalNanos / 1e6 / ROUNDS,
+                totalMoves / ROUNDS, totalDistance / 1000 / ROUNDS, totalValue / ROUNDS);
+    }
+
+    private static List<Station<VehiculeComponent>> createNetwork(int size, long seed)
+            throws NullVehiculeException, StationFullException {
+        Random random = new Random(seed);
+        List<Station<VehiculeComponent>> stations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double x = random.nextDouble() * 10_000;
+            Station<VehiculeComponent> s = new Station<>(10 + random.nextInt(11), x, random.nextDouble() * 10_000);
+            double fill = x < 5_000 ? 0.5 + random.nextDouble() / 2 : random.nextDouble() / 2;
+            int vehicles = (int) (fill * s.getCapacity());
+            for (int j = 0; j < vehicles; j++) {
+                s.parkVehicule(new VeloClassique());
+            }
+            stations.add(s);
+        }
+        return stations;
+    }
+}
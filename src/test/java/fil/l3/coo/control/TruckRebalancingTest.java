@@ -0,0 +1,198 @@
+package fil.l3.coo.control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.Station;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.state.EnMaintenanceState;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+public class TruckRebalancingTest {
+
+    private Station<VehiculeComponent> full;
+    private Station<VehiculeComponent> empty;
+    private List<Station<VehiculeComponent>> stations;
+
+    @BeforeEach
+    public void setUp() throws NullVehiculeException, StationFullException {
+        full = new Station<>(10, 0, 0);
+        empty = new Station<>(10, 1000, 0);
+        for (int i = 0; i < 10; i++) {
+            full.parkVehicule(new VeloClassique());
+        }
+        stations = new ArrayList<>(List.of(full, empty));
+    }
+
+    private static int totalVehicles(List<Station<VehiculeComponent>> stations) {
+        return stations.stream().mapToInt(Station::getOccupiedSpaces).sum();
+    }
+
+    @Test
+    public void testRejectsInvalidFleet() {
+        assertThrows(IllegalArgumentException.class, () -> new TruckRebalancing(0, 5, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TruckRebalancing(1, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TruckRebalancing(1, 5, 0));
+    }
+
+    @Test
+    public void testMovesAreCarriedOutOverTicks() {
+        TruckRebalancing strategy = new TruckRebalancing(1, 5, 500);
+        strategy.redistribute(stations);
+
+        // Le plan est prêt mais aucun véhicule n'a encore bougé
+        assertEquals(5, strategy.getPlannedMoves());
+        assertEquals(2000, strategy.getPlannedDistance(), 1e-9);
+        assertEquals(10, full.getOccupiedSpaces());
+        assertTrue(strategy.isBusy());
+
+        strategy.onTick(stations); // chargement au dépôt
+        assertEquals(5, full.getOccupiedSpaces());
+        assertEquals(5, strategy.getVehiclesInTransit());
+
+        strategy.onTick(stations);
+        assertEquals(0, empty.getOccupiedSpaces());
+        strategy.onTick(stations); // 1000 m à 500 m par tick
+        assertEquals(5, empty.getOccupiedSpaces());
+        assertEquals(5, strategy.getExecutedMoves());
+
+        strategy.onTick(stations);
+        strategy.onTick(stations);
+        assertFalse(strategy.isBusy());
+        assertEquals(0, strategy.getVehiclesInTransit());
+    }
+
+    @Test
+    public void testLoadIsKeptUntilAStationHasRoom() throws Exception {
+        TruckRebalancing strategy = new TruckRebalancing(1, 5, 500);
+        strategy.redistribute(stations);
+        strategy.onTick(stations); // chargement au dépôt
+        assertEquals(5, strategy.getVehiclesInTransit());
+
+        // Toutes les stations se remplissent avant la livraison
+        while (full.hasAvailableSpace()) {
+            full.parkVehicule(new VeloClassique());
+        }
+        while (empty.hasAvailableSpace()) {
+            empty.parkVehicule(new VeloClassique());
+        }
+        for (int tick = 0; tick < 10; tick++) {
+            strategy.onTick(stations);
+        }
+        assertTrue(strategy.isBusy());
+        assertEquals(5, strategy.getVehiclesInTransit());
+        assertEquals(0, strategy.getExecutedMoves());
+
+        // Une place se libère : le camion livre ce qu'il peut et garde le reste
+        full.removeVehicule(full.getParkedVehicule(0));
+        empty.removeVehicule(empty.getParkedVehicule(0));
+        for (int tick = 0; tick < 10; tick++) {
+            strategy.onTick(stations);
+        }
+        assertTrue(strategy.isBusy());
+        assertEquals(3, strategy.getVehiclesInTransit());
+        assertEquals(2, strategy.getExecutedMoves());
+        assertTrue(full.isFull());
+        assertTrue(empty.isFull());
+
+        // Le camion ne rentre au dépôt qu'une fois vide
+        for (int i = 0; i < 3; i++) {
+            empty.removeVehicule(empty.getParkedVehicule(0));
+        }
+        for (int tick = 0; tick < 10 && strategy.isBusy(); tick++) {
+            strategy.onTick(stations);
+        }
+        assertFalse(strategy.isBusy());
+        assertEquals(0, strategy.getVehiclesInTransit());
+        assertEquals(5, strategy.getExecutedMoves());
+    }
+
+    @Test
+    public void testNoNewPlanWhileTrucksAreOnTheRoad() {
+        TruckRebalancing strategy = new TruckRebalancing(1, 5, 500);
+        strategy.redistribute(stations);
+        strategy.onTick(stations);
+
+        strategy.redistribute(stations);
+        assertEquals(5, strategy.getPlannedMoves());
+        assertEquals(5, strategy.getVehiclesInTransit());
+    }
+
+    @Test
+    public void testVehiculesInMaintenanceStayParked() {
+        for (int i = 0; i < full.getOccupiedSpaces(); i++) {
+            full.getParkedVehicule(i).setState(new EnMaintenanceState());
+        }
+        TruckRebalancing strategy = new TruckRebalancing(1, 5, 500);
+        strategy.redistribute(stations);
+
+        assertEquals(0, strategy.getPlannedMoves());
+        assertFalse(strategy.isBusy());
+    }
+
+    @Test
+    public void testRoutesRespectTruckCapacityAndKeepVehicules() throws NullVehiculeException, StationFullException {
+        Random random = new Random(7);
+        List<Station<VehiculeComponent>> network = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            // Les stations de l'ouest sont pleines, celles de l'est vides
+            double x = random.nextDouble() * 5000;
+            Station<VehiculeComponent> s = new Station<>(10, x, random.nextDouble() * 5000);
+            int vehicles = x < 2500 ? 9 + random.nextInt(2) : random.nextInt(2);
+            for (int j = 0; j < vehicles; j++) {
+                s.parkVehicule(new VeloClassique());
+            }
+            network.add(s);
+        }
+        int before = totalVehicles(network);
+
+        TruckRebalancing strategy = new TruckRebalancing(3, 8, 250);
+        strategy.setDepot(2500, 2500);
+        strategy.setStarts(2);
+        strategy.redistribute(network);
+        assertTrue(strategy.getPlannedMoves() > 0);
+
+        for (int tick = 0; tick < 500 && strategy.isBusy(); tick++) {
+            strategy.onTick(network);
+            assertTrue(strategy.getVehiclesInTransit() <= 3 * 8);
+            assertEquals(before, totalVehicles(network) + strategy.getVehiclesInTransit());
+        }
+        assertFalse(strategy.isBusy());
+        assertEquals(strategy.getPlannedMoves(), strategy.getExecutedMoves());
+    }
+
+    @Test
+    public void testLocalSearchDoesNotWorsenThePlan() throws NullVehiculeException, StationFullException {
+        Random random = new Random(11);
+        List<Station<VehiculeComponent>> network = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            Station<VehiculeComponent> s = new Station<>(10, random.nextDouble() * 6000, random.nextDouble() * 6000);
+            int vehicles = random.nextInt(11);
+            for (int j = 0; j < vehicles; j++) {
+                s.parkVehicule(new VeloClassique());
+            }
+            network.add(s);
+        }
+
+        TruckRebalancing savingsOnly = new TruckRebalancing(4, 10, 300);
+        savingsOnly.setStarts(1);
+        savingsOnly.setLocalSearch(false);
+        savingsOnly.redistribute(network);
+
+        TruckRebalancing improved = new TruckRebalancing(4, 10, 300);
+        improved.setStarts(1);
+        improved.setTimeBudgetMillis(5_000);
+        improved.redistribute(network);
+
+        assertTrue(savingsOnly.getPlanValue() > 0);
+        assertTrue(improved.getPlanValue() >= savingsOnly.getPlanValue());
+    }
+}
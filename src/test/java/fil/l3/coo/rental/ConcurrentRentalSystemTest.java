@@ -0,0 +1,126 @@
+package fil.l3.coo.rental;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.rental.exceptions.CannotAffordRentalException;
+import fil.l3.coo.station.Station;
+import fil.l3.coo.user.User;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+public class ConcurrentRentalSystemTest {
+
+    private ConcurrentRentalSystem rentalSystem;
+    private List<Station<VehiculeComponent>> stations;
+
+    @BeforeEach
+    public void setUp() {
+        rentalSystem = new ConcurrentRentalSystem();
+        stations = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            stations.add(new Station<>(20));
+        }
+    }
+
+    @Test
+    public void testStripeCountIsRoundedToAPowerOfTwo() {
+        assertEquals(ConcurrentRentalSystem.DEFAULT_STRIPES, rentalSystem.getStripeCount());
+        assertEquals(1, new ConcurrentRentalSystem(null, 1).getStripeCount());
+        assertEquals(8, new ConcurrentRentalSystem(null, 5).getStripeCount());
+        assertEquals(16, new ConcurrentRentalSystem(null, 16).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentRentalSystem(null, 0));
+    }
+
+    @Test
+    public void testFailedPaymentPutsTheVehicleBack() throws Exception {
+        Station<VehiculeComponent> station = stations.get(0);
+        VehiculeComponent velo = new VeloClassique();
+        station.parkVehicule(velo);
+
+        assertThrows(CannotAffordRentalException.class,
+                () -> rentalSystem.rentVehicule(new User(0.0), station, velo));
+        assertTrue(station.containsVehicule(velo));
+        assertEquals(VehiculeStateId.DISPONIBLE, velo.getStateId());
+    }
+
+    @Test
+    public void testConcurrentRentalsAndReturnsKeepTheFleetConsistent() throws Exception {
+        int threads = 8;
+        int perThread = 2;
+        int rounds = 2_000;
+        // Un seul portefeuille partagé par tous les threads
+        User user = new User(100_000.0);
+        List<List<VehiculeComponent>> owned = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<VehiculeComponent> vehicles = new ArrayList<>();
+            for (int i = 0; i < perThread; i++) {
+                VehiculeComponent velo = new VeloClassique();
+                stations.get(t % stations.size()).parkVehicule(velo);
+                vehicles.add(velo);
+            }
+            owned.add(vehicles);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<VehiculeComponent> vehicles = owned.get(t);
+                int home = t % stations.size();
+                long seed = t;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    Random random = new Random(seed);
+                    int[] at = new int[vehicles.size()];
+                    Arrays.fill(at, home);
+                    int rentals = 0;
+                    for (int r = 0; r < rounds; r++) {
+                        int i = r % vehicles.size();
+                        Location location = rentalSystem.rentVehicule(user, stations.get(at[i]), vehicles.get(i));
+                        rentals++;
+                        // Évite le passage en maintenance après 10 locations
+                        vehicles.get(i).resetRentalCount();
+                        at[i] = random.nextInt(stations.size());
+                        assertTrue(rentalSystem.returnVehicule(location, stations.get(at[i])));
+                    }
+                    return rentals;
+                }));
+            }
+            start.countDown();
+            int rentals = 0;
+            for (Future<Integer> result : results) {
+                rentals += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertEquals(threads * rounds, rentals);
+            assertEquals(100_000.0 - rentals * new VeloClassique().getPrice(), user.getWallet(), 1e-6);
+            int parked = 0;
+            for (Station<VehiculeComponent> station : stations) {
+                parked += station.getOccupiedSpaces();
+            }
+            assertEquals(threads * perThread, parked);
+            for (List<VehiculeComponent> vehicles : owned) {
+                for (VehiculeComponent velo : vehicles) {
+                    assertEquals(VehiculeStateId.DISPONIBLE, velo.getStateId());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
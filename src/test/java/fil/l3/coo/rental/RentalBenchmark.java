@@ -0,0 +1,123 @@
+package fil.l3.coo.rental;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import fil.l3.coo.rental.exceptions.CannotAffordRentalException;
+import fil.l3.coo.rental.exceptions.VehiculeNotAvailableException;
+import fil.l3.coo.station.Station;
+import fil.l3.coo.user.User;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+/**
+ * Measures the throughput of rentals and returns from 1 to 64 threads:
+ * {@link ConcurrentRentalSystem} against a {@link RentalSystem} behind a
+ * single global lock.
+ * <p>
+ * Not run by the test suite; launch it by hand once the tests are compiled:
+ * {@code java -cp target/classes:target/test-classes fil.l3.coo.rental.RentalBenchmark}.
+ * Each thread has its own user and its own vehicles, which it rents from the
+ * station where they are parked and returns to a random station among 256,
+ * so that the threads only meet on the stations.
+ */
+public class RentalBenchmark {
+
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+    private static final int STATIONS = 256;
+    private static final int VEHICLES_PER_THREAD = 4;
+    private static final int OPERATIONS = 400_000;
+    private static final int ROUNDS = 5;
+
+    /** Rental system whose operations all go through one lock. */
+    private static final class GloballyLockedRentalSystem extends RentalSystem {
+
+        @Override
+        public synchronized <T extends VehiculeComponent> Location rentVehicule(User user, Station<T> station,
+                T vehicule) throws VehiculeNotAvailableException, CannotAffordRentalException {
+            return super.rentVehicule(user, station, vehicule);
+        }
+
+        @Override
+        public synchronized <T extends VehiculeComponent> boolean returnVehicule(Location location,
+                Station<T> toStation) {
+            return super.returnVehicule(location, toStation);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-8s %-22s %12s%n", "threads", "system", "krent/s");
+        for (int threads : THREADS) {
+            run(threads, "global lock", new GloballyLockedRentalSystem());
+            run(threads, "striped (64)", new ConcurrentRentalSystem());
+        }
+    }
+
+    private static void run(int threads, String label, RentalSystem system) throws Exception {
+        List<Station<VehiculeComponent>> stations = new ArrayList<>(STATIONS);
+        for (int i = 0; i < STATIONS; i++) {
+            stations.add(new Station<>(20));
+        }
+        // Chaque thread gare ses véhicules à sa propre station de départ et suit leur position
+        VehiculeComponent[][] owned = new VehiculeComponent[threads][VEHICLES_PER_THREAD];
+        @SuppressWarnings("unchecked")
+        Station<VehiculeComponent>[][] at = (Station<VehiculeComponent>[][]) new Station<?>[threads][VEHICLES_PER_THREAD];
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < VEHICLES_PER_THREAD; i++) {
+                owned[t][i] = new VeloClassique();
+                at[t][i] = stations.get(t % STATIONS);
+                at[t][i].parkVehicule(owned[t][i]);
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long totalNanos = 0;
+        try {
+            for (int round = -1; round < ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    VehiculeComponent[] vehicles = owned[t];
+                    Station<VehiculeComponent>[] positions = at[t];
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        work(system, stations, vehicles, positions, OPERATIONS / threads);
+                        return null;
+                    }));
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                for (Future<?> result : results) {
+                    result.get();
+                }
+                if (round >= 0) { // le premier tour sert de chauffe
+                    totalNanos += System.nanoTime() - begin;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double rate = (double) (OPERATIONS / threads) * threads * ROUNDS / (totalNanos / 1e6);
+        System.out.printf("%-8d %-22s %12.1f%n", threads, label, rate);
+    }
+
+    private static void work(RentalSystem system, List<Station<VehiculeComponent>> stations,
+            VehiculeComponent[] vehicles, Station<VehiculeComponent>[] at, int operations) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        User user = new User(1e12);
+        for (int r = 0; r < operations; r++) {
+            int i = r % vehicles.length;
+            Location location = system.rentVehicule(user, at[i], vehicles[i]);
+            vehicles[i].resetRentalCount();
+            at[i] = stations.get(random.nextInt(stations.size()));
+            if (!system.returnVehicule(location, at[i])) {
+                throw new IllegalStateException("Retour impossible à la station " + at[i].getId());
+            }
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package fil.l3.coo.rental;
 
 import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -8,8 +17,12 @@ import fil.l3.coo.user.User;
 import fil.l3.coo.vehicule.VehiculeComponent;
 import fil.l3.coo.vehicule.velo.VeloClassique;
 import fil.l3.coo.vehicule.velo.VeloElectrique;
+import fil.l3.coo.vehicule.decorator.Accessory;
 import fil.l3.coo.vehicule.decorator.BasketDecorator;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+import fil.l3.coo.station.ConcurrentStation;
 import fil.l3.coo.station.Station;
+import fil.l3.coo.station.VehiculeRegistry;
 import fil.l3.coo.station.exceptions.NullVehiculeException;
 import fil.l3.coo.station.exceptions.StationFullException;
 import fil.l3.coo.rental.exceptions.*;
@@ -51,6 +64,26 @@ public class RentalSystemTest {
         assertEquals(9.0, user.getWallet(), 0.01); 
     }
     
+    @Test
+    public void testRentalIsRecordedInRegistry() throws Exception {
+        VehiculeRegistry<Location> registry = new VehiculeRegistry<>();
+        RentalSystem recorded = new RentalSystem(registry);
+        Station<VehiculeComponent> other = new Station<>(10);
+        station.setRegistry(registry);
+        other.setRegistry(registry);
+        
+        Location rental = recorded.rentVehicule(user, station, velo3);
+        
+        assertSame(rental, recorded.findRental(velo3.getId()));
+        assertEquals(rental.getCost(), velo3.getPrice(), 0.001);
+        assertNull(registry.getStation(velo3.getId()));
+        
+        assertTrue(recorded.returnVehicule(rental, other));
+        assertNull(recorded.findRental(velo3.getId()));
+        assertSame(other, registry.getStation(velo3.getId()));
+        assertNull(rentalSystem.findRental(velo3.getId()));
+    }
+    
     @Test
     public void testRentalBikeNotInStation() {
         VehiculeComponent otherVelo = new VeloClassique();
@@ -120,4 +153,81 @@ public class RentalSystemTest {
         assertEquals(1.5, rental.getCost(), 0.01);
         assertEquals(8.5, user.getWallet(), 0.01);
     }
+
+    @Test
+    public void testConcurrentRentalsOfTheSameBike() throws Exception {
+        ConcurrentStation<VehiculeComponent> shared = new ConcurrentStation<>(10);
+        VehiculeComponent velo = new VeloClassique();
+        shared.parkVehicule(velo);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Location>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                User renter = new User(10.0);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return rentalSystem.rentVehicule(renter, shared, velo);
+                    } catch (VehiculeNotAvailableException e) {
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            int rentals = 0;
+            for (Future<Location> result : results) {
+                if (result.get(10, TimeUnit.SECONDS) != null) {
+                    rentals++;
+                }
+            }
+            // Un seul utilisateur obtient le vélo, et il n'est loué qu'une fois
+            assertEquals(1, rentals);
+            assertEquals(1, velo.getRentalCount());
+            assertEquals(VehiculeStateId.EN_LOCATION, velo.getStateId());
+            assertEquals(0, shared.getOccupiedSpaces());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRentBestMatchesCriteria() throws Exception {
+        Location electric = rentalSystem.rentBest(user, station, new RentalCriteria("VeloElectrique"));
+        assertSame(velo2, electric.getVehicule());
+
+        Location withBasket = rentalSystem.rentBest(user, station, new RentalCriteria(null, Accessory.BASKET));
+        assertSame(velo3, withBasket.getVehicule());
+        assertEquals(1, station.getOccupiedSpaces());
+
+        assertThrows(VehiculeNotAvailableException.class,
+                () -> rentalSystem.rentBest(user, station, new RentalCriteria("VeloElectrique")));
+    }
+
+    @Test
+    public void testRentBestSpreadsWear() throws Exception {
+        VehiculeComponent worn = new VeloClassique();
+        for (int i = 0; i < 3; i++) {
+            worn.incrementRentalCount();
+        }
+        velo1.incrementRentalCount();
+        station.removeVehicule(velo3);
+        station.parkVehicule(worn);
+
+        // velo1 a déjà servi une fois, worn trois fois
+        Location first = rentalSystem.rentBest(user, station, new RentalCriteria("VeloClassique"));
+        assertSame(velo1, first.getVehicule());
+        Location second = rentalSystem.rentBest(user, station, new RentalCriteria("VeloClassique"));
+        assertSame(worn, second.getVehicule());
+    }
+
+    @Test
+    public void testRentBestWithConcurrentRentalSystem() throws Exception {
+        ConcurrentRentalSystem concurrent = new ConcurrentRentalSystem();
+        Location rental = concurrent.rentBest(user, station, RentalCriteria.ANY);
+        assertNotNull(rental);
+        assertEquals(2, station.getOccupiedSpaces());
+        assertEquals(2, station.getRentableIndex().size());
+    }
 }
@@ -0,0 +1,176 @@
+package fil.l3.coo.station;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.AsyncEventDispatcher.Backpressure;
+import fil.l3.coo.station.AsyncEventDispatcher.WaitStrategy;
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+public class AsyncEventDispatcherTest {
+
+    private AsyncEventDispatcher dispatcher;
+
+    @AfterEach
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    public void testEventsAreDeliveredInOrderOnConsumerThread() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
+        dispatcher = new AsyncEventDispatcher(4, WaitStrategy.SLEEPING, Backpressure.BLOCK);
+        Station<VehiculeComponent> station = new Station<>(20);
+        RecordingObserver observer = new RecordingObserver();
+        station.addObserver(observer);
+        station.setEventDispatcher(dispatcher);
+
+        List<VehiculeComponent> velos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            VehiculeComponent velo = new VeloClassique();
+            velos.add(velo);
+            station.parkVehicule(velo);
+        }
+        for (VehiculeComponent velo : velos) {
+            station.removeVehicule(velo);
+        }
+
+        assertTrue(dispatcher.awaitDrained(5, TimeUnit.SECONDS));
+        assertEquals(40, observer.events.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("parked", observer.events.get(i));
+            assertEquals("removed", observer.events.get(20 + i));
+        }
+        assertNotSame(Thread.currentThread(), observer.thread);
+        assertEquals(0, dispatcher.getDroppedEvents());
+    }
+
+    @Test
+    public void testDropPolicyWhenRingIsFull() throws Exception {
+        dispatcher = new AsyncEventDispatcher(2, WaitStrategy.YIELDING, Backpressure.DROP);
+        Station<VehiculeComponent> station = new Station<>(10);
+        CountDownLatch release = new CountDownLatch(1);
+        station.addObserver(new BlockingObserver(release));
+        station.setEventDispatcher(dispatcher);
+
+        for (int i = 0; i < 10; i++) {
+            station.parkVehicule(new VeloClassique());
+        }
+        release.countDown();
+
+        assertTrue(dispatcher.awaitDrained(5, TimeUnit.SECONDS));
+        assertTrue(dispatcher.getDroppedEvents() > 0);
+        assertEquals(10, station.getOccupiedSpaces());
+    }
+
+    @Test
+    public void testDetachedStationNotifiesSynchronously() throws NullVehiculeException, StationFullException {
+        dispatcher = new AsyncEventDispatcher(8);
+        Station<VehiculeComponent> station = new Station<>(10);
+        RecordingObserver observer = new RecordingObserver();
+        station.addObserver(observer);
+        station.setEventDispatcher(dispatcher);
+        station.setEventDispatcher(null);
+
+        station.parkVehicule(new VeloClassique());
+
+        assertEquals(List.of("parked"), observer.events);
+        assertSame(Thread.currentThread(), observer.thread);
+    }
+
+    @Test
+    public void testCloseDeliversEveryClaimedEventAndRefusesLaterOnes() throws Exception {
+        dispatcher = new AsyncEventDispatcher(2, WaitStrategy.YIELDING, Backpressure.BLOCK);
+        Station<VehiculeComponent> station = new Station<>(10);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver observer = new RecordingObserver();
+        station.addObserver(new BlockingObserver(release));
+        station.addObserver(observer);
+        VehiculeComponent velo = new VeloClassique();
+
+        AtomicInteger published = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 10; i++) {
+                    dispatcher.publish(station, velo, AsyncEventDispatcher.PARKED);
+                    published.incrementAndGet();
+                }
+            } catch (IllegalStateException e) {
+                // fermé : les publications suivantes sont refusées
+            }
+        });
+        producer.start();
+        // Le consommateur est bloqué, l'anneau est plein et le producteur attend une place
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.getPendingEvents() < 3 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(3, dispatcher.getPendingEvents());
+        Thread closer = new Thread(dispatcher::close);
+        closer.start();
+        while (closer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThrows(IllegalStateException.class,
+                () -> dispatcher.publish(station, velo, AsyncEventDispatcher.PARKED));
+
+        release.countDown();
+        closer.join(5000);
+        producer.join(5000);
+        assertFalse(closer.isAlive());
+        assertFalse(producer.isAlive());
+        assertEquals(published.get(), observer.events.size());
+        assertEquals(0, dispatcher.getPendingEvents());
+    }
+
+    private static class RecordingObserver implements StationObserver {
+        private final List<String> events = new ArrayList<>();
+        private volatile Thread thread;
+
+        @Override
+        public void onVehicleParked(Station<?> station, VehiculeComponent vehicule) {
+            thread = Thread.currentThread();
+            events.add("parked");
+        }
+
+        @Override
+        public void onVehicleRemoved(Station<?> station, VehiculeComponent vehicule) {
+            thread = Thread.currentThread();
+            events.add("removed");
+        }
+    }
+
+    private static class BlockingObserver implements StationObserver {
+        private final CountDownLatch release;
+
+        BlockingObserver(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onVehicleParked(Station<?> station, VehiculeComponent vehicule) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onVehicleRemoved(Station<?> station, VehiculeComponent vehicule) {
+        }
+    }
+}
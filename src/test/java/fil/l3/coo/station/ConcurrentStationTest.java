@@ -0,0 +1,155 @@
+package fil.l3.coo.station;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+import fil.l3.coo.vehicule.velo.VeloElectrique;
+
+public class ConcurrentStationTest {
+
+    private static final int THREADS = 8;
+    private static final int MOVES_PER_THREAD = 20_000;
+
+    private ConcurrentStation<VehiculeComponent> station;
+
+    @BeforeEach
+    public void setUp() {
+        station = new ConcurrentStation<>(15);
+    }
+
+    @Test
+    public void testKeepsStationSemantics() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
+        for (int i = 0; i < 15; i++) {
+            station.parkVehicule(new VeloClassique());
+        }
+        assertTrue(station.isFull());
+        assertThrows(StationFullException.class, () -> station.parkVehicule(new VeloElectrique()));
+        assertThrows(VehiculeNotFoundException.class, () -> station.removeVehicule(new VeloElectrique()));
+        assertThrows(NullVehiculeException.class, () -> station.parkVehicule(null));
+
+        VehiculeComponent velo = station.getParkedVehicule(3);
+        assertSame(velo, station.removeVehicule(velo));
+        assertFalse(station.containsVehicule(velo));
+        assertFalse(velo.isAvailable());
+        assertEquals(14, station.getOccupiedSpaces());
+        assertEquals(14, station.getParkedVehicules().size());
+        // La recherche parcourt les emplacements sans passer par un indice
+        assertNull(station.findParkedVehicule(v -> v == velo));
+        assertNotNull(station.findParkedVehicule(VehiculeComponent::isAvailable));
+    }
+
+    @Test
+    public void testNoVehicleLostOrDuplicatedUnderContention() throws Exception {
+        ConcurrentStation<VehiculeComponent> other = new ConcurrentStation<>(20);
+        List<ConcurrentStation<VehiculeComponent>> stations = List.of(station, other);
+        CountingObserver observer = new CountingObserver();
+        station.addObserver(observer);
+        other.addObserver(observer);
+
+        List<VehiculeComponent> fleet = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            VehiculeComponent velo = (i % 2 == 0) ? new VeloClassique() : new VeloElectrique();
+            fleet.add(velo);
+            (i < 15 ? station : other).parkVehicule(velo);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random rnd = new Random(t);
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int m = 0; m < MOVES_PER_THREAD; m++) {
+                    moveRandomVehicle(stations, rnd);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        List<VehiculeComponent> parked = new ArrayList<>(station.getParkedVehicules());
+        parked.addAll(other.getParkedVehicules());
+        Map<VehiculeComponent, Boolean> distinct = new IdentityHashMap<>();
+        parked.forEach(v -> distinct.put(v, Boolean.TRUE));
+
+        assertEquals(fleet.size(), parked.size(), "a vehicle was lost or duplicated");
+        assertEquals(fleet.size(), distinct.size(), "a vehicle is parked twice");
+        assertTrue(distinct.keySet().containsAll(fleet));
+        assertEquals(station.getParkedVehicules().size(), station.getOccupiedSpaces());
+        assertEquals(other.getParkedVehicules().size(), other.getOccupiedSpaces());
+        assertEquals(fleet.size(), observer.parked.get() - observer.removed.get());
+    }
+
+    /**
+     * Takes a vehicle out of a random station and parks it in the other one,
+     * falling back to any station with room so that the vehicle is never
+     * left outside.
+     */
+    private static void moveRandomVehicle(List<ConcurrentStation<VehiculeComponent>> stations, Random rnd) {
+        ConcurrentStation<VehiculeComponent> source = stations.get(rnd.nextInt(stations.size()));
+        List<VehiculeComponent> parked = source.getParkedVehicules();
+        if (parked.isEmpty()) {
+            return;
+        }
+        VehiculeComponent velo;
+        try {
+            velo = source.removeVehicule(parked.get(rnd.nextInt(parked.size())));
+        } catch (VehiculeNotFoundException e) {
+            // un autre thread l'a pris entre-temps
+            return;
+        }
+
+        List<ConcurrentStation<VehiculeComponent>> targets = new ArrayList<>(stations);
+        Collections.rotate(targets, rnd.nextInt(targets.size()));
+        while (true) {
+            for (ConcurrentStation<VehiculeComponent> target : targets) {
+                try {
+                    target.parkVehicule(velo);
+                    return;
+                } catch (StationFullException e) {
+                    // try the next station
+                }
+            }
+        }
+    }
+
+    private static class CountingObserver implements StationObserver {
+        private final AtomicInteger parked = new AtomicInteger();
+        private final AtomicInteger removed = new AtomicInteger();
+
+        @Override
+        public void onVehicleParked(Station<?> station, VehiculeComponent vehicule) {
+            parked.incrementAndGet();
+        }
+
+        @Override
+        public void onVehicleRemoved(Station<?> station, VehiculeComponent vehicule) {
+            removed.incrementAndGet();
+        }
+    }
+}
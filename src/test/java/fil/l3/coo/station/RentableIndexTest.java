@@ -0,0 +1,131 @@
+package fil.l3.coo.station;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.decorator.Accessory;
+import fil.l3.coo.vehicule.decorator.BaggageDecorator;
+import fil.l3.coo.vehicule.decorator.BasketDecorator;
+import fil.l3.coo.vehicule.state.EnMaintenanceState;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+import fil.l3.coo.vehicule.velo.VeloElectrique;
+
+/**
+ * Test class for RentableIndex.
+ */
+public class RentableIndexTest {
+
+    private Station<VehiculeComponent> station;
+    private VehiculeComponent classique;
+    private VeloElectrique electrique;
+    private VehiculeComponent basket;
+    private VehiculeComponent both;
+
+    @BeforeEach
+    public void setUp() throws NullVehiculeException, StationFullException {
+        station = new Station<>(10);
+        classique = new VeloClassique();
+        electrique = new VeloElectrique();
+        basket = new BasketDecorator(new VeloClassique());
+        both = new BaggageDecorator(new BasketDecorator(new VeloClassique()));
+        station.parkVehicule(classique);
+        station.parkVehicule(electrique);
+        station.parkVehicule(basket);
+        station.parkVehicule(both);
+    }
+
+    @Test
+    public void testIndexCreatedLateHoldsParkedVehicles() {
+        assertEquals(4, station.getRentableIndex().size());
+        assertSame(station.getRentableIndex(), station.getRentableIndex());
+    }
+
+    @Test
+    public void testIndexFollowsParksAndRemovals() throws Exception {
+        RentableIndex<VehiculeComponent> index = station.getRentableIndex();
+        station.removeVehicule(electrique);
+        assertEquals(3, index.size());
+        assertNull(index.best("VeloElectrique", 0));
+
+        station.parkVehicule(electrique);
+        assertSame(electrique, index.best("VeloElectrique", 0));
+    }
+
+    @Test
+    public void testBestMatchesTypeAndAccessories() {
+        RentableIndex<VehiculeComponent> index = station.getRentableIndex();
+        // Le véhicule peut porter plus d'accessoires que demandé
+        VehiculeComponent withBasket = index.best("VeloClassique", Accessory.BASKET.getBit());
+        assertTrue(withBasket == basket || withBasket == both);
+        assertSame(both, index.best(null, Accessory.BAGGAGE.getBit()));
+        assertSame(both, index.best("VeloClassique", Accessory.BASKET.getBit() | Accessory.BAGGAGE.getBit()));
+        assertNull(index.best("VeloElectrique", Accessory.BASKET.getBit()));
+        assertNull(index.best("TrottinetteElectrique", 0));
+    }
+
+    @Test
+    public void testBestPrefersLowRentalCount() throws Exception {
+        Station<VehiculeComponent> other = new Station<>(10);
+        VehiculeComponent worn = new VeloClassique();
+        VehiculeComponent fresh = new VeloClassique();
+        for (int i = 0; i < 5; i++) {
+            worn.incrementRentalCount();
+        }
+        fresh.incrementRentalCount();
+        other.parkVehicule(worn);
+        other.parkVehicule(fresh);
+
+        assertSame(fresh, other.getRentableIndex().best("VeloClassique", 0));
+    }
+
+    @Test
+    public void testBestSkipsVehiclesThatCannotBeRented() {
+        RentableIndex<VehiculeComponent> index = station.getRentableIndex();
+        electrique.setState(EnMaintenanceState.INSTANCE);
+        assertNull(index.best("VeloElectrique", 0));
+        assertEquals(4, index.size());
+
+        EnMaintenanceState.INSTANCE.completeMaintenance(electrique);
+        assertSame(electrique, index.best("VeloElectrique", 0));
+    }
+
+    @Test
+    public void testVehicleRepairedInPlaceGoesFirst() throws Exception {
+        Station<VehiculeComponent> other = new Station<>(10);
+        VeloClassique repaired = new VeloClassique();
+        VehiculeComponent used = new VeloClassique();
+        // Rendu après sa dixième location : il attend la maintenance
+        for (int i = 0; i < fil.l3.coo.vehicule.Vehicule.getMaintenanceThreshold(); i++) {
+            repaired.incrementRentalCount();
+        }
+        used.incrementRentalCount();
+        used.incrementRentalCount();
+        other.parkVehicule(repaired);
+        other.parkVehicule(used);
+        RentableIndex<VehiculeComponent> index = other.getRentableIndex();
+        assertSame(used, index.best(null, 0));
+
+        // Réparé pendant qu'il est garé : son compteur repasse à zéro
+        repaired.getState().sendToMaintenance(repaired);
+        EnMaintenanceState.INSTANCE.completeMaintenance(repaired);
+        assertSame(repaired, index.best(null, 0));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testConcurrentStationKeepsItsIndex() throws Exception {
+        ConcurrentStation<VehiculeComponent> concurrent = new ConcurrentStation<>(10);
+        RentableIndex<VehiculeComponent> index = concurrent.getRentableIndex();
+        VehiculeComponent velo = new VeloClassique();
+        concurrent.parkVehicule(velo);
+        assertSame(velo, index.best(null, 0));
+        concurrent.removeVehicule(velo);
+        assertEquals(0, index.size());
+        assertThrows(VehiculeNotFoundException.class, () -> concurrent.removeVehicule(velo));
+    }
+}
@@ -0,0 +1,107 @@
+package fil.l3.coo.station;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+import fil.l3.coo.vehicule.velo.VeloElectrique;
+
+public class StationSpatialIndexTest {
+
+    private StationSpatialIndex<VehiculeComponent> index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new StationSpatialIndex<>(100.0);
+    }
+
+    /**
+     * Reference answer: sorts every station by distance.
+     */
+    private static List<Station<VehiculeComponent>> bruteForce(List<Station<VehiculeComponent>> stations,
+            double x, double y, int k, Predicate<Station<VehiculeComponent>> filter) {
+        return stations.stream()
+                .filter(filter)
+                .sorted(Comparator.comparingDouble(s -> s.distanceTo(x, y)))
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRejectsNonPositiveCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new StationSpatialIndex<VehiculeComponent>(0));
+    }
+
+    @Test
+    public void testEmptyIndexFindsNothing() {
+        assertNull(index.nearest(0, 0, s -> true));
+        assertTrue(index.nearest(0, 0, 3, s -> true).isEmpty());
+    }
+
+    @Test
+    public void testNearestMatchesBruteForce() {
+        Random random = new Random(42);
+        List<Station<VehiculeComponent>> stations = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // Coordonnées négatives incluses pour couvrir les cellules de part et d'autre de l'origine
+            Station<VehiculeComponent> s = new Station<>(10, random.nextDouble() * 4000 - 2000,
+                    random.nextDouble() * 4000 - 2000);
+            stations.add(s);
+            index.add(s);
+        }
+        assertEquals(500, index.size());
+
+        for (int q = 0; q < 50; q++) {
+            double x = random.nextDouble() * 5000 - 2500;
+            double y = random.nextDouble() * 5000 - 2500;
+            List<Station<VehiculeComponent>> expected = bruteForce(stations, x, y, 7, s -> true);
+            assertEquals(expected, index.nearest(x, y, 7, s -> true));
+        }
+    }
+
+    @Test
+    public void testFiltersOnFreeDocksAndVehiculeType() throws NullVehiculeException, StationFullException {
+        Station<VehiculeComponent> full = new Station<>(10, 0, 0);
+        Station<VehiculeComponent> classique = new Station<>(10, 50, 0);
+        Station<VehiculeComponent> electrique = new Station<>(10, 500, 0);
+        for (int i = 0; i < 10; i++) {
+            full.parkVehicule(new VeloClassique());
+        }
+        classique.parkVehicule(new VeloClassique());
+        electrique.parkVehicule(new VeloElectrique());
+        index.add(full);
+        index.add(classique);
+        index.add(electrique);
+
+        assertSame(full, index.nearest(0, 0, StationSpatialIndex.withAvailableVehicule()));
+        assertSame(classique, index.nearest(0, 0, StationSpatialIndex.withFreeDock()));
+        String type = new VeloElectrique().getType();
+        assertSame(electrique, index.nearest(0, 0, StationSpatialIndex.withAvailableVehicule(type)));
+        assertEquals(List.of(classique, electrique), index.nearest(0, 0, 5, StationSpatialIndex.withFreeDock()));
+    }
+
+    @Test
+    public void testRemovedStationIsNoLongerFound() {
+        Station<VehiculeComponent> near = new Station<>(10, 10, 10);
+        Station<VehiculeComponent> far = new Station<>(10, 900, 900);
+        index.add(near);
+        index.add(far);
+
+        assertTrue(index.remove(near));
+        assertFalse(index.remove(near));
+        assertEquals(1, index.size());
+        assertSame(far, index.nearest(0, 0, s -> true));
+    }
+}
@@ -87,6 +87,62 @@ public class StationTest {
         });
     }
 
+    @Test
+    public void testRemoveBikeKeepsOtherBikesParked() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
+        VehiculeComponent first = new VeloClassique();
+        VehiculeComponent middle = new VeloElectrique();
+        VehiculeComponent last = new VeloClassique();
+        station.parkVehicule(first);
+        station.parkVehicule(middle);
+        station.parkVehicule(last);
+
+        station.removeVehicule(first);
+
+        assertEquals(2, station.getOccupiedSpaces());
+        assertFalse(station.containsVehicule(first));
+        assertTrue(station.containsVehicule(middle));
+        assertTrue(station.containsVehicule(last));
+
+        station.removeVehicule(last);
+        assertEquals(List.of(middle), station.getParkedVehicules());
+    }
+
+    @Test
+    public void testParkSameBikeTwice() throws NullVehiculeException, StationFullException {
+        VehiculeComponent velo = new VeloClassique();
+        station.parkVehicule(velo);
+
+        assertThrows(IllegalStateException.class, () -> {
+            station.parkVehicule(velo);
+        });
+        assertEquals(1, station.getOccupiedSpaces());
+    }
+
+    @Test
+    public void testReadOnlyAccessWithoutCopy() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
+        VehiculeComponent classique = new VeloClassique();
+        VehiculeComponent electrique = new VeloElectrique();
+        station.parkVehicule(classique);
+        station.parkVehicule(electrique);
+
+        List<VehiculeComponent> view = station.getParkedView();
+        assertEquals(2, view.size());
+        assertSame(classique, station.getParkedVehicule(0));
+        assertSame(electrique, station.getParkedVehicule(1));
+        assertEquals(1, station.countParkedVehicules(v -> "VeloElectrique".equals(v.getType())));
+
+        List<VehiculeComponent> visited = new ArrayList<>();
+        station.forEachParkedVehicule(visited::add);
+        assertEquals(List.of(classique, electrique), visited);
+        assertSame(electrique, station.findParkedVehicule(v -> "VeloElectrique".equals(v.getType())));
+
+        station.removeVehicule(classique);
+        assertNull(station.findParkedVehicule(v -> "VeloClassique".equals(v.getType())));
+        assertEquals(1, view.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> station.getParkedVehicule(1));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(classique));
+    }
+
     @Test
     public void testObserversReceiveNotifications() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
         RecordingObserver observer = new RecordingObserver();
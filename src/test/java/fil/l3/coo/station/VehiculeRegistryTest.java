@@ -0,0 +1,95 @@
+package fil.l3.coo.station;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fil.l3.coo.station.exceptions.NullVehiculeException;
+import fil.l3.coo.station.exceptions.StationFullException;
+import fil.l3.coo.station.exceptions.VehiculeNotFoundException;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.decorator.BasketDecorator;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+/**
+ * Test class for VehiculeRegistry.
+ */
+public class VehiculeRegistryTest {
+
+    private VehiculeRegistry<String> registry;
+    private Station<VehiculeComponent> station1;
+    private Station<VehiculeComponent> station2;
+    private VehiculeComponent velo;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new VehiculeRegistry<>();
+        station1 = new Station<>(10);
+        station2 = new ConcurrentStation<>(10);
+        station1.setRegistry(registry);
+        station2.setRegistry(registry);
+        velo = new BasketDecorator(new VeloClassique());
+    }
+
+    @Test
+    public void testUnknownVehicule() {
+        assertNull(registry.getVehicule(velo.getId()));
+        assertNull(registry.getStation(velo.getId()));
+        assertFalse(registry.isParked(velo.getId()));
+        assertFalse(registry.isRented(velo.getId()));
+        assertNull(registry.getStation(-1));
+    }
+
+    @Test
+    public void testParkAndRemoveAreRecorded() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
+        station1.parkVehicule(velo);
+
+        assertSame(station1, registry.getStation(velo.getId()));
+        assertSame(velo, registry.getVehicule(velo.getId()));
+        assertTrue(registry.isParked(velo.getId()));
+
+        station1.removeVehicule(velo);
+        station2.parkVehicule(velo);
+
+        assertSame(station2, registry.getStation(velo.getId()));
+        assertSame(station2, registry.getLastStation(velo.getId()));
+    }
+
+    @Test
+    public void testLateRemovalDoesNotEraseNewPark() {
+        registry.parked(velo, station2);
+        registry.removed(velo, station1);
+
+        assertSame(station2, registry.getStation(velo.getId()));
+    }
+
+    @Test
+    public void testRentalReplacesStation() throws NullVehiculeException, StationFullException, VehiculeNotFoundException {
+        station1.parkVehicule(velo);
+        station1.removeVehicule(velo);
+        registry.rented(velo, "location");
+
+        assertTrue(registry.isRented(velo.getId()));
+        assertEquals("location", registry.getRental(velo.getId()));
+        assertNull(registry.getStation(velo.getId()));
+        // Le vol ou la location laissent la trace de la dernière station
+        assertSame(station1, registry.getLastStation(velo.getId()));
+
+        station2.parkVehicule(velo);
+        assertFalse(registry.isRented(velo.getId()));
+        assertNull(registry.getRental(velo.getId()));
+    }
+
+    @Test
+    public void testRegistryGrowsWithIdentifiers() throws NullVehiculeException, StationFullException {
+        Station<VehiculeComponent> big = new Station<>(20);
+        big.setRegistry(registry);
+        VehiculeComponent last = null;
+        for (int i = 0; i < 5000; i++) {
+            last = new VeloClassique();
+        }
+        big.parkVehicule(last);
+
+        assertSame(big, registry.getStation(last.getId()));
+    }
+}
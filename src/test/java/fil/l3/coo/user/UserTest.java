@@ -1,6 +1,15 @@
 package fil.l3.coo.user;
 
 import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -58,4 +67,84 @@ public class UserTest {
         assertTrue(user.canAfford(5.0));
         assertFalse(user.canAfford(6.0));
     }
+
+    @Test
+    public void testWalletIsKeptInCents() throws NegativeAmountException {
+        assertEquals(500, user.getWalletCents());
+        // 0.1 n'est pas représentable exactement en double, mais l'est en centimes
+        for (int i = 0; i < 10; i++) {
+            user.addMoney(0.1);
+        }
+        assertEquals(600, user.getWalletCents());
+        assertEquals(6.0, user.getWallet());
+        assertEquals(180, User.toCents(1.0 + 0.5 + 0.3));
+    }
+
+    @Test
+    public void testTryDebit() throws NegativeAmountException {
+        assertTrue(user.tryDebit(180));
+        assertEquals(320, user.getWalletCents());
+        assertFalse(user.tryDebit(321));
+        assertEquals(320, user.getWalletCents());
+        assertTrue(user.tryDebit(320));
+        assertEquals(0, user.getWalletCents());
+        assertThrows(NegativeAmountException.class, () -> user.tryDebit(0));
+        assertThrows(NegativeAmountException.class, () -> user.tryDebit(-1));
+    }
+
+    @Test
+    public void testAmountBelowHalfACentIsRejected() {
+        // Un montant positif arrondi à zéro centime n'est pas un montant négatif
+        assertThrows(IllegalArgumentException.class, () -> user.addMoney(0.004));
+        assertThrows(IllegalArgumentException.class, () -> user.deductMoney(0.004));
+        assertThrows(NegativeAmountException.class, () -> user.addMoney(-0.004));
+        assertThrows(NegativeAmountException.class, () -> user.deductMoney(-0.004));
+        assertThrows(NegativeAmountException.class, () -> user.addMoney(Double.NaN));
+        assertEquals(500, user.getWalletCents());
+    }
+
+    @Test
+    public void testAmountsAreRoundedToTheNearestCent() throws Exception {
+        user.addMoney(0.006);
+        assertEquals(501, user.getWalletCents());
+        user.deductMoney(0.014);
+        assertEquals(500, user.getWalletCents());
+    }
+
+    @Test
+    public void testConcurrentTopUpsAndDebitsLoseNothing() throws Exception {
+        User shared = new User();
+        int threads = 8;
+        int operations = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                boolean payer = t % 2 == 0;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int debits = 0;
+                    for (int i = 0; i < operations; i++) {
+                        if (!payer) {
+                            shared.addMoney(0.01);
+                        } else if (shared.tryDebit(1)) {
+                            debits++;
+                        }
+                    }
+                    return debits;
+                }));
+            }
+            start.countDown();
+            int debits = 0;
+            for (Future<Integer> result : results) {
+                debits += result.get(30, TimeUnit.SECONDS);
+            }
+            // Chaque recharge et chaque débit réussi est compté exactement une fois
+            assertEquals((long) threads / 2 * operations - debits, shared.getWalletCents());
+            assertTrue(shared.getWalletCents() >= 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 }
@@ -59,4 +59,29 @@ public class VeloDecoratorTest {
         assertTrue(velo.isAvailable());
     }
     
+    @Test
+    public void testAccessoryMaskAndCachedDescription() {
+        VehiculeComponent base = createBaseVehicule();
+        VehiculeComponent basket = new BasketDecorator(base);
+        VehiculeComponent both = new BaggageDecorator(basket);
+        
+        assertEquals(0, base.getAccessories());
+        assertEquals(Accessory.BASKET.getBit(), basket.getAccessories());
+        assertTrue(Accessory.BAGGAGE.isIn(both.getAccessories()));
+        assertTrue(Accessory.BASKET.isIn(both.getAccessories()));
+        // Description calculée une seule fois et partagée entre véhicules identiques
+        assertSame(both.getDescription(), both.getDescription());
+        assertSame(both.getDescription(),
+                new BaggageDecorator(new BasketDecorator(createBaseVehicule())).getDescription());
+    }
+    
+    @Test
+    public void testDecorateAllFollowsTheMask() {
+        VehiculeComponent velo = Accessory.decorateAll(createBaseVehicule(),
+                Accessory.BASKET.getBit() | Accessory.BAGGAGE.getBit());
+        
+        assertEquals(1.8, velo.getPrice(), 0.01);
+        assertEquals("VeloClassique + Basket + Baggage", velo.getDescription());
+    }
+    
 }
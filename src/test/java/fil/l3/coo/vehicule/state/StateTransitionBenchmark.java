@@ -0,0 +1,122 @@
+package fil.l3.coo.vehicule.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.store.FleetStore;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+/**
+ * Measures the throughput of concurrent rentals and returns as the number of
+ * threads grows: compare-and-set transitions against the same transitions
+ * made under a single global lock.
+ * <p>
+ * Not run by the test suite; launch it by hand once the tests are compiled:
+ * {@code java -cp target/classes:target/test-classes fil.l3.coo.vehicule.state.StateTransitionBenchmark}.
+ * Every thread picks random vehicles of the fleet and tries to rent each one,
+ * then returns it if the rental succeeded. A fleet of 8 vehicles shows heavy
+ * contention, one of 100,000 vehicles shows threads that rarely meet.
+ */
+public class StateTransitionBenchmark {
+
+    private static final int[] FLEETS = { 8, 100_000 };
+    private static final int OPERATIONS = 2_000_000;
+    private static final int ROUNDS = 5;
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private static final Object LOCK = new Object();
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-10s %-8s %-14s %12s %10s%n", "vehicles", "threads", "transitions", "Mops/s", "rented");
+        for (int fleet : FLEETS) {
+            for (int threads = 1; threads <= CORES; threads *= 2) {
+                run(fleet, threads, true);
+                run(fleet, threads, false);
+            }
+            if (Integer.bitCount(CORES) != 1) {
+                run(fleet, CORES, true);
+                run(fleet, CORES, false);
+            }
+        }
+    }
+
+    private static void run(int fleet, int threads, boolean cas) throws Exception {
+        FleetStore store = new FleetStore();
+        Vehicule[] vehicles = new Vehicule[fleet];
+        for (int i = 0; i < fleet; i++) {
+            vehicles[i] = new VeloClassique(store);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long totalNanos = 0;
+        long rented = 0;
+        try {
+            for (int round = -1; round < ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> results = new ArrayList<>(threads);
+                for (int t = 0; t < threads; t++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        return cas ? casWorker(vehicles, OPERATIONS / threads)
+                                : lockedWorker(vehicles, OPERATIONS / threads);
+                    }));
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                long wins = 0;
+                for (Future<Long> result : results) {
+                    wins += result.get();
+                }
+                if (round >= 0) { // le premier tour sert de chauffe
+                    totalNanos += System.nanoTime() - begin;
+                    rented += wins;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double mops = (double) OPERATIONS * ROUNDS / (totalNanos / 1e3);
+        System.out.printf("%-10d %-8d %-14s %12.2f %9.1f%%%n", fleet, threads, cas ? "CAS" : "global lock",
+                mops, 100.0 * rented / ((long) OPERATIONS / threads * threads * ROUNDS));
+    }
+
+    private static long casWorker(Vehicule[] vehicles, int operations) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long wins = 0;
+        for (int i = 0; i < operations; i++) {
+            Vehicule v = vehicles[random.nextInt(vehicles.length)];
+            if (v.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION)) {
+                wins++;
+                v.tryTransition(VehiculeStateId.EN_LOCATION, VehiculeStateId.DISPONIBLE);
+            }
+        }
+        return wins;
+    }
+
+    private static long lockedWorker(Vehicule[] vehicles, int operations) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long wins = 0;
+        for (int i = 0; i < operations; i++) {
+            Vehicule v = vehicles[random.nextInt(vehicles.length)];
+            boolean won = false;
+            synchronized (LOCK) {
+                if (v.getStateId() == VehiculeStateId.DISPONIBLE) {
+                    v.setState(EnLocationState.INSTANCE);
+                    won = true;
+                }
+            }
+            if (won) {
+                wins++;
+                synchronized (LOCK) {
+                    v.setState(DisponibleState.INSTANCE);
+                }
+            }
+        }
+        return wins;
+    }
+}
@@ -0,0 +1,192 @@
+package fil.l3.coo.vehicule.state;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.store.OffHeapFleetStore;
+import fil.l3.coo.vehicule.store.VehiculeType;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+/**
+ * Test class for the state identifiers and the transition table.
+ */
+public class StateTransitionsTest {
+
+    private Vehicule velo;
+
+    @BeforeEach
+    public void setUp() {
+        StateTransitions.reset();
+        velo = new VeloClassique();
+    }
+
+    @Test
+    public void testTransitionsReuseSharedInstances() {
+        assertSame(DisponibleState.INSTANCE, velo.getState());
+        velo.getState().rent(velo);
+        assertSame(EnLocationState.INSTANCE, velo.getState());
+        velo.getState().returnVehicule(velo);
+        assertSame(DisponibleState.INSTANCE, velo.getState());
+    }
+
+    @Test
+    public void testIdentifiersMatchStateNames() {
+        for (VehiculeStateId id : VehiculeStateId.values()) {
+            assertEquals(id, id.getState().getStateId());
+            assertEquals(id.name(), id.getState().getStateName());
+            assertEquals(id, VehiculeStateId.fromName(id.name()));
+            assertSame(id, VehiculeStateId.fromOrdinal(id.ordinal()));
+        }
+        assertNull(VehiculeStateId.fromName("INCONNU"));
+    }
+
+    @Test
+    public void testEachTransitionIsCounted() {
+        for (int i = 0; i < 3; i++) {
+            velo.getState().rent(velo);
+            velo.getState().returnVehicule(velo);
+        }
+        velo.getState().sendToMaintenance(velo);
+        ((EnMaintenanceState) velo.getState()).completeMaintenance(velo);
+
+        assertEquals(3, StateTransitions.getCount(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION));
+        assertEquals(3, StateTransitions.getCount(VehiculeStateId.EN_LOCATION, VehiculeStateId.DISPONIBLE));
+        assertEquals(1, StateTransitions.getCount(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_MAINTENANCE));
+        assertEquals(1, StateTransitions.getCount(VehiculeStateId.EN_MAINTENANCE, VehiculeStateId.DISPONIBLE));
+        assertEquals(8, StateTransitions.getTotal());
+        assertEquals(0, StateTransitions.getForcedCount());
+    }
+
+    @Test
+    public void testForcedTransitionIsCountedOutsideTheTable() {
+        velo.setState(HorsServiceState.INSTANCE);
+
+        assertFalse(StateTransitions.isAllowed(VehiculeStateId.DISPONIBLE, VehiculeStateId.HORS_SERVICE));
+        assertEquals(1, StateTransitions.getCount(VehiculeStateId.DISPONIBLE, VehiculeStateId.HORS_SERVICE));
+        assertEquals(1, StateTransitions.getForcedCount());
+        assertEquals(VehiculeStateId.HORS_SERVICE, velo.getStateId());
+    }
+
+    @Test
+    public void testSettingTheSameStateIsNotATransition() {
+        velo.setState(new DisponibleState());
+
+        assertEquals(0, StateTransitions.getTotal());
+    }
+
+    @Test
+    public void testTableFollowsTheLifecycle() {
+        assertTrue(StateTransitions.isAllowed(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION));
+        assertTrue(StateTransitions.isAllowed(VehiculeStateId.EN_LOCATION, VehiculeStateId.HORS_SERVICE));
+        assertTrue(StateTransitions.isAllowed(VehiculeStateId.HORS_SERVICE, VehiculeStateId.EN_MAINTENANCE));
+        assertFalse(StateTransitions.isAllowed(VehiculeStateId.EN_LOCATION, VehiculeStateId.VOLE));
+        for (VehiculeStateId id : VehiculeStateId.values()) {
+            // Un véhicule volé ne change plus d'état
+            assertFalse(StateTransitions.isAllowed(VehiculeStateId.VOLE, id));
+        }
+    }
+
+    @Test
+    public void testTryTransitionOnlyFromTheExpectedState() {
+        assertFalse(velo.tryTransition(VehiculeStateId.EN_LOCATION, VehiculeStateId.DISPONIBLE));
+        assertEquals(0, StateTransitions.getTotal());
+
+        assertTrue(velo.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION));
+        assertFalse(velo.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION));
+        assertEquals(VehiculeStateId.EN_LOCATION, velo.getStateId());
+        assertEquals(1, StateTransitions.getTotal());
+    }
+
+    @Test
+    public void testTryTransitionRefusesTransitionsOutsideTheLifecycle() {
+        velo.setState(VoleState.INSTANCE);
+        StateTransitions.reset();
+
+        // Un vélo volé ne peut pas être loué, même par compare-and-set
+        assertFalse(velo.tryTransition(VehiculeStateId.VOLE, VehiculeStateId.EN_LOCATION));
+        assertFalse(velo.tryTransition(VehiculeStateId.VOLE, VehiculeStateId.VOLE));
+        assertEquals(VehiculeStateId.VOLE, velo.getStateId());
+        assertEquals(0, StateTransitions.getTotal());
+    }
+
+    @Test
+    public void testActionIsHandedToTheNewStateAfterALostRace() {
+        // L'état lu est périmé : le vélo a été loué entre-temps
+        VehiculeState stale = velo.getState();
+        velo.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION);
+
+        assertThrows(IllegalStateException.class, () -> stale.rent(velo));
+        assertThrows(IllegalStateException.class, () -> stale.sendToMaintenance(velo));
+        assertEquals(VehiculeStateId.EN_LOCATION, velo.getStateId());
+        assertEquals(0, velo.getRentalCount());
+    }
+
+    @Test
+    public void testCompleteMaintenanceRequiresMaintenanceState() {
+        assertThrows(IllegalStateException.class, () -> EnMaintenanceState.INSTANCE.completeMaintenance(velo));
+    }
+
+    @Test
+    public void testConcurrentRentalsHaveASingleWinner() throws Exception {
+        assertEquals(1, race(velo));
+        assertEquals(1, StateTransitions.getCount(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION));
+    }
+
+    @Test
+    public void testConcurrentRentalsHaveASingleWinnerOffHeap() throws Exception {
+        try (OffHeapFleetStore store = new OffHeapFleetStore(16)) {
+            // Plusieurs véhicules pour tester les différents octets du mot aligné
+            for (int i = 0; i < 4; i++) {
+                store.add(VehiculeType.VELO_CLASSIQUE, 0);
+            }
+            for (int slot = 0; slot < 4; slot++) {
+                Vehicule v = new VeloClassique(store, slot);
+                assertEquals(VehiculeStateId.DISPONIBLE, v.getStateId());
+                assertEquals(1, race(v));
+                assertEquals(VehiculeStateId.EN_LOCATION, v.getStateId());
+                // Les champs voisins du même mot ne sont pas touchés
+                assertEquals(VehiculeType.VELO_CLASSIQUE, store.getType(slot));
+                assertTrue(store.isAvailable(slot));
+            }
+        }
+    }
+
+    /**
+     * Lance plusieurs threads qui tentent de louer le même véhicule au même
+     * instant et renvoie le nombre de locations réussies.
+     */
+    private static int race(Vehicule vehicule) throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return vehicule.tryTransition(VehiculeStateId.DISPONIBLE, VehiculeStateId.EN_LOCATION);
+                }));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    winners++;
+                }
+            }
+            return winners;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
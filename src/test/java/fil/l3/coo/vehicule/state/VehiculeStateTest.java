@@ -100,6 +100,18 @@ public class VehiculeStateTest {
         assertEquals(0, velo.getRentalCount());
     }
     
+    @Test
+    public void testFailedMaintenanceCompletionKeepsCounter() {
+        for (int i = 0; i < Vehicule.getMaintenanceThreshold(); i++) {
+            velo.incrementRentalCount();
+        }
+        
+        // Le véhicule n'est pas en maintenance : son compteur reste intact
+        assertThrows(IllegalStateException.class, () -> EnMaintenanceState.INSTANCE.completeMaintenance(velo));
+        assertEquals(Vehicule.getMaintenanceThreshold(), velo.getRentalCount());
+        assertTrue(velo.needsMaintenance());
+    }
+    
     @Test
     public void testMarkAsStolenTransitionsToVoleState() {
         velo.getState().markAsStolen(velo);
@@ -0,0 +1,174 @@
+package fil.l3.coo.vehicule.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.state.EnLocationState;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+import fil.l3.coo.vehicule.velo.VeloClassique;
+
+/**
+ * Test class for FleetStore.
+ */
+public class FleetStoreTest {
+
+    private FleetStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new FleetStore();
+    }
+
+    @Test
+    public void testVehiculeFieldsLiveInItsStore() {
+        Vehicule velo = new VeloClassique(store);
+
+        velo.getState().rent(velo);
+        velo.setAvailable(false);
+
+        assertSame(store, velo.getStore());
+        assertEquals(0, velo.getSlot());
+        assertEquals(1, store.getRentalCount(velo.getSlot()));
+        assertEquals(VehiculeStateId.EN_LOCATION, store.getStateId(velo.getSlot()));
+        assertSame(EnLocationState.INSTANCE, velo.getState());
+        assertFalse(store.isAvailable(velo.getSlot()));
+    }
+
+    @Test
+    public void testNewSlotIsAvailable() {
+        int slot = store.allocate(42);
+
+        assertEquals(42, store.getVehiculeId(slot));
+        assertTrue(store.isAvailable(slot));
+        assertEquals(VehiculeStateId.DISPONIBLE, store.getStateId(slot));
+        assertEquals(0, store.getRentalCount(slot));
+        assertEquals(0, store.getIdleTime(slot));
+        assertFalse(store.isInMaintenanceSinceOneTick(slot));
+    }
+
+    @Test
+    public void testStoreGrowsAcrossPages() {
+        Vehicule[] velos = new Vehicule[10000];
+        for (int i = 0; i < velos.length; i++) {
+            velos[i] = new VeloClassique(store);
+            velos[i].incrementIdleTime();
+        }
+
+        assertEquals(velos.length, store.size());
+        for (int i = 0; i < velos.length; i++) {
+            assertEquals(i, velos[i].getSlot());
+            assertEquals(1, velos[i].getIdleTimeIntervals());
+        }
+    }
+
+    @Test
+    public void testBulkIdleTime() {
+        Vehicule a = new VeloClassique(store);
+        Vehicule b = new VeloClassique(store);
+        Vehicule c = new VeloClassique(store);
+        int[] slots = {a.getSlot(), c.getSlot(), -1};
+
+        store.incrementIdleTime(slots, 2);
+        store.incrementIdleTime(slots, 2);
+
+        assertEquals(2, a.getIdleTimeIntervals());
+        assertEquals(0, b.getIdleTimeIntervals());
+        assertTrue(c.isAtRiskOfTheft());
+
+        store.resetIdleTime(slots, 1);
+        assertEquals(0, a.getIdleTimeIntervals());
+        assertEquals(2, c.getIdleTimeIntervals());
+    }
+
+    @Test
+    public void testFindNeedingMaintenance() {
+        Vehicule[] velos = new Vehicule[5000];
+        for (int i = 0; i < velos.length; i++) {
+            velos[i] = new VeloClassique(store);
+        }
+        // Une première page et la suivante
+        for (int index : new int[] {3, 4095, 4096, 4999}) {
+            for (int r = 0; r < Vehicule.getMaintenanceThreshold(); r++) {
+                velos[index].incrementRentalCount();
+            }
+        }
+
+        assertArrayEquals(new int[] {3, 4095, 4096, 4999}, store.findNeedingMaintenance());
+        assertEquals(0, store.findNeedingMaintenance(Vehicule.getMaintenanceThreshold() + 1).length);
+    }
+
+    @Test
+    public void testCountInState() {
+        Vehicule a = new VeloClassique(store);
+        new VeloClassique(store);
+        a.getState().sendToMaintenance(a);
+
+        assertEquals(1, store.countInState(VehiculeStateId.DISPONIBLE));
+        assertEquals(1, store.countInState(VehiculeStateId.EN_MAINTENANCE));
+        assertEquals(0, store.countInState(VehiculeStateId.VOLE));
+    }
+
+    @Test
+    public void testRetiredVehicleSlotIsReused() {
+        Vehicule a = new VeloClassique(store);
+        Vehicule b = new VeloClassique(store);
+        for (int r = 0; r < Vehicule.getMaintenanceThreshold(); r++) {
+            a.incrementRentalCount();
+        }
+
+        a.retire();
+        a.retire();
+        assertEquals(1, store.getFreeSlotCount());
+        // Le slot libéré n'est plus vu par les traitements de masse
+        assertEquals(1, store.countInState(VehiculeStateId.DISPONIBLE));
+        assertEquals(0, store.findNeedingMaintenance().length);
+
+        Vehicule c = new VeloClassique(store);
+        assertEquals(a.getSlot(), c.getSlot());
+        assertEquals(2, store.size());
+        assertEquals(0, store.getFreeSlotCount());
+        assertEquals(0, c.getRentalCount());
+        assertTrue(c.isAvailable());
+        assertNotEquals(b.getId(), c.getId());
+    }
+
+    @Test
+    public void testHandleOnExistingSlotDoesNotReleaseIt() {
+        int slot = store.allocate(Vehicule.reserveId());
+        new VeloClassique(store, slot).retire();
+
+        assertEquals(0, store.getFreeSlotCount());
+        assertEquals(VehiculeStateId.DISPONIBLE, store.getStateId(slot));
+    }
+
+    @Test
+    public void testStateOfAReleasedSlotIsRefused() {
+        Vehicule velo = new VeloClassique(store);
+        velo.retire();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, velo::getStateId);
+        assertTrue(e.getMessage().contains("libéré"));
+    }
+
+    @Test
+    public void testHandleFollowsTheSlotOnceItsOwnerIsCollected() throws InterruptedException {
+        // Le propriétaire du slot n'est référencé par personne
+        int slot = new VeloClassique(store).getSlot();
+        Vehicule handle = new VeloClassique(store, slot);
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (store.getFreeSlotCount() == 0 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, store.getFreeSlotCount());
+
+        // Le slot est réattribué : la poignée survivante désigne le nouveau véhicule
+        Vehicule reused = new VeloClassique(store);
+        assertEquals(slot, reused.getSlot());
+        assertEquals(reused, handle);
+        assertEquals(reused.getId(), handle.getId());
+    }
+}
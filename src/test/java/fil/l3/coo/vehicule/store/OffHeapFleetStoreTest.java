@@ -0,0 +1,192 @@
+package fil.l3.coo.vehicule.store;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import fil.l3.coo.station.ConcurrentStation;
+import fil.l3.coo.station.RentableIndex;
+import fil.l3.coo.station.Station;
+import fil.l3.coo.vehicule.Vehicule;
+import fil.l3.coo.vehicule.VehiculeComponent;
+import fil.l3.coo.vehicule.decorator.Accessory;
+import fil.l3.coo.vehicule.decorator.BaggageDecorator;
+import fil.l3.coo.vehicule.decorator.BasketDecorator;
+import fil.l3.coo.vehicule.state.VehiculeStateId;
+import fil.l3.coo.vehicule.velo.VeloElectrique;
+
+/**
+ * Test class for OffHeapFleetStore.
+ */
+public class OffHeapFleetStoreTest {
+
+    private OffHeapFleetStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new OffHeapFleetStore(200000);
+    }
+
+    @Test
+    public void testAddedVehiculeIsAvailable() {
+        int slot = store.add(VehiculeType.VELO_CLASSIQUE, 0);
+
+        assertEquals(1, store.size());
+        assertEquals(VehiculeType.VELO_CLASSIQUE, store.getType(slot));
+        assertTrue(store.isAvailable(slot));
+        assertEquals(VehiculeStateId.DISPONIBLE, store.getStateId(slot));
+        assertEquals(-1, store.getStationId(slot));
+        assertFalse(store.isInMaintenanceSinceOneTick(slot));
+    }
+
+    @Test
+    public void testViewIsMaterializedWithAccessories() {
+        int mask = Accessory.BASKET.getBit() | Accessory.BAGGAGE.getBit();
+        int slot = store.add(VehiculeType.VELO_ELECTRIQUE, mask);
+
+        VehiculeComponent view = store.view(slot);
+
+        assertTrue(view instanceof BaggageDecorator);
+        assertEquals("VeloElectrique", view.getType());
+        assertEquals(new BaggageDecorator(new BasketDecorator(new VeloElectrique())).getPrice(), view.getPrice(), 1e-9);
+        assertEquals(store.getVehiculeId(slot), view.getId());
+    }
+
+    @Test
+    public void testViewsWriteThroughToRecords() {
+        int slot = store.add(VehiculeType.TROTTINETTE_ELECTRIQUE, 0);
+        VehiculeComponent view = store.view(slot);
+
+        view.getState().rent((Vehicule) view);
+        view.setAvailable(false);
+        view.addTickToMaintenance();
+
+        assertEquals(VehiculeStateId.EN_LOCATION, store.getStateId(slot));
+        assertEquals(1, store.getRentalCount(slot));
+        assertFalse(store.isAvailable(slot));
+        assertTrue(store.isInMaintenanceSinceOneTick(slot));
+        // Une nouvelle vue lit le même enregistrement
+        assertEquals(VehiculeStateId.EN_LOCATION, store.view(slot).getStateId());
+    }
+
+    @Test
+    public void testViewsOfASlotAreOneVehicle() throws Exception {
+        int slot = store.add(VehiculeType.VELO_CLASSIQUE, Accessory.BASKET.getBit());
+        int other = store.add(VehiculeType.VELO_CLASSIQUE, Accessory.BASKET.getBit());
+        VehiculeComponent first = store.view(slot);
+        VehiculeComponent second = store.view(slot);
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, store.view(other));
+
+        // Une station voit les deux vues comme un seul véhicule
+        for (Station<VehiculeComponent> station : List.of(new Station<VehiculeComponent>(10),
+                new ConcurrentStation<VehiculeComponent>(10))) {
+            RentableIndex<VehiculeComponent> index = station.getRentableIndex();
+            station.parkVehicule(first);
+            assertTrue(station.containsVehicule(second));
+            assertThrows(IllegalStateException.class, () -> station.parkVehicule(second));
+            station.removeVehicule(second);
+            assertEquals(0, station.getOccupiedSpaces());
+            assertEquals(0, index.size());
+            station.parkVehicule(second);
+            assertEquals(1, station.getOccupiedSpaces());
+        }
+    }
+
+    @Test
+    public void testHandleWithoutTypeCannotBeViewed() {
+        VeloElectrique velo = new VeloElectrique(store);
+
+        assertNull(store.getType(velo.getSlot()));
+        assertThrows(IllegalStateException.class, () -> store.view(velo.getSlot()));
+    }
+
+    @Test
+    public void testStationsKeepTheStationFieldUpToDate() throws Exception {
+        int slot = store.add(VehiculeType.VELO_ELECTRIQUE, Accessory.BASKET.getBit());
+        Station<VehiculeComponent> first = new Station<>(10);
+        Station<VehiculeComponent> second = new ConcurrentStation<>(10);
+
+        // La vue décorée renvoie au même enregistrement
+        first.parkVehicule(store.view(slot));
+        assertEquals(first.getId(), store.getStationId(slot));
+        assertEquals(1, store.countAtStation(first.getId()));
+
+        first.removeVehicule(store.view(slot));
+        assertEquals(-1, store.getStationId(slot));
+        second.parkVehicule(store.view(slot));
+        assertEquals(second.getId(), store.getStationId(slot));
+        assertEquals(0, store.countAtStation(first.getId()));
+
+        // Un retrait tardif de l'ancienne station n'efface pas la nouvelle
+        assertFalse(store.clearStationId(slot, first.getId()));
+        assertEquals(second.getId(), store.getStationId(slot));
+
+        second.removeVehicule(store.view(slot));
+        store.release(slot);
+        assertEquals(-1, store.getStationId(slot));
+        assertThrows(IllegalStateException.class, () -> store.getStateId(slot));
+    }
+
+    @Test
+    public void testBulkOperationsAcrossChunks() {
+        for (int i = 0; i < 150000; i++) {
+            int slot = store.add(VehiculeType.VELO_CLASSIQUE, 0);
+            store.setStationId(slot, i % 3);
+        }
+        store.setRentalCount(7, 10);
+        store.setRentalCount(140000, 12);
+        store.setStateId(100000, VehiculeStateId.VOLE);
+        store.incrementIdleTime(new int[] {5, 70000}, 2);
+
+        assertArrayEquals(new int[] {7, 140000}, store.findNeedingMaintenance());
+        assertEquals(1, store.countInState(VehiculeStateId.VOLE));
+        assertEquals(149999, store.countInState(VehiculeStateId.DISPONIBLE));
+        assertEquals(50000, store.countAtStation(0));
+        assertEquals(1, store.getIdleTime(70000));
+    }
+
+    @Test
+    public void testStoreIsBounded() {
+        OffHeapFleetStore small = new OffHeapFleetStore(2);
+        small.add(VehiculeType.VELO_CLASSIQUE, 0);
+        small.add(VehiculeType.VELO_CLASSIQUE, 0);
+
+        assertThrows(IllegalStateException.class, () -> small.add(VehiculeType.VELO_CLASSIQUE, 0));
+    }
+
+    @Test
+    public void testReleasedSlotIsReused() {
+        OffHeapFleetStore small = new OffHeapFleetStore(2);
+        int first = small.add(VehiculeType.VELO_CLASSIQUE, 0);
+        small.add(VehiculeType.VELO_ELECTRIQUE, 0);
+        small.release(first);
+
+        assertEquals(1, small.countInState(VehiculeStateId.DISPONIBLE));
+        // Le stockage plein accepte de nouveau un véhicule
+        int reused = small.add(VehiculeType.TROTTINETTE_ELECTRIQUE, 0);
+        assertEquals(first, reused);
+        assertEquals(VehiculeType.TROTTINETTE_ELECTRIQUE, small.getType(reused));
+        assertEquals(2, small.countInState(VehiculeStateId.DISPONIBLE));
+        assertThrows(IllegalStateException.class, () -> small.add(VehiculeType.VELO_CLASSIQUE, 0));
+    }
+
+    @Test
+    public void testMappedFile(@TempDir Path dir) throws IOException {
+        try (OffHeapFleetStore mapped = OffHeapFleetStore.map(dir.resolve("flotte.bin"), 100)) {
+            int slot = mapped.add(VehiculeType.VELO_CLASSIQUE, Accessory.BASKET.getBit());
+            mapped.setIdleTime(slot, 3);
+
+            assertEquals(3, mapped.view(slot).getIdleTimeIntervals());
+            assertTrue(mapped.view(slot).isAtRiskOfTheft());
+        }
+    }
+}